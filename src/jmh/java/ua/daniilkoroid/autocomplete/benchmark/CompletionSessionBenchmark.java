@@ -0,0 +1,100 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ua.daniilkoroid.autocomplete.CompletionSession;
+import ua.daniilkoroid.autocomplete.trie.Trie;
+
+/**
+ * Benchmark of completing stored words typed char by char.
+ * <p>
+ * One operation is typing the whole word and taking completions after every
+ * char, either with {@link CompletionSession} or by searching the whole
+ * prefix every time.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompletionSessionBenchmark {
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"1000000"})
+    private int dictionarySize;
+
+    /**
+     * Maximum number of completions.
+     */
+    @Param({"10"})
+    private int limit;
+
+    /**
+     * Trie implementation to query.
+     */
+    @Param({"RWayTrie"})
+    private String implementation;
+
+    private Trie trie;
+
+    private String[] words;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Words.generate(dictionarySize);
+        trie = Tries.load(implementation, words);
+    }
+
+    @Benchmark
+    public void session(Blackhole blackhole) {
+        String word = words[nextIndex()];
+        CompletionSession session = new CompletionSession(trie, limit);
+        for (int i = 0; i < word.length(); i++) {
+            blackhole.consume(session.type(word.charAt(i)));
+        }
+    }
+
+    @Benchmark
+    public void wordsWithPrefix(Blackhole blackhole) {
+        String word = words[nextIndex()];
+        for (int i = 1; i <= word.length(); i++) {
+            Iterator<String> iterator = trie
+                    .wordsWithPrefix(word.substring(0, i)).iterator();
+            for (int j = 0; j < limit && iterator.hasNext(); j++) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+
+    private int nextIndex() {
+        index++;
+        if (index == words.length) {
+            index = 0;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,130 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ua.daniilkoroid.autocomplete.trie.Trie;
+import ua.daniilkoroid.autocomplete.trie.Tuple;
+
+/**
+ * Multi-threaded benchmark of tries shared between threads.
+ * <p>
+ * {@link #contains(Cursor)} and {@link #wordsWithPrefix(Cursor, Blackhole)}
+ * measure pure reads: run them with different <code>-t</code> values to see
+ * how reads scale with threads. Group <code>readHeavy</code> runs readers
+ * together with one writer; change number of readers with <code>-tg</code>.
+ * </p>
+ * <p>
+ * <code>LockedRWayTrie</code> is {@link ua.daniilkoroid.autocomplete.trie.RWayTrie}
+ * behind one global lock. <code>ShardedTrie</code> splits words between
+ * sixteen <code>RWayTrie</code> shards with a lock each.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentTrieBenchmark {
+
+    /**
+     * Length of prefix to search words by.
+     */
+    private static final int PREFIX_LENGTH = 4;
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"1000000"})
+    private int dictionarySize;
+
+    /**
+     * Trie implementation to share.
+     */
+    @Param({"ConcurrentRWayTrie", "PersistentTrie", "LockedRWayTrie",
+        "ShardedTrie"})
+    private String implementation;
+
+    private Trie trie;
+
+    private String[] words;
+
+    private String[] prefixes;
+
+    /**
+     * Position of thread in dictionary.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index;
+
+        int next(int length) {
+            index++;
+            if (index >= length) {
+                index = 0;
+            }
+            return index;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Words.generate(dictionarySize);
+        prefixes = Words.prefixes(words, PREFIX_LENGTH);
+        if ("LockedRWayTrie".equals(implementation)) {
+            trie = new LockedTrie(Tries.load("RWayTrie", words));
+        } else {
+            trie = Tries.load(implementation, words);
+        }
+    }
+
+    @Benchmark
+    public boolean contains(Cursor cursor) {
+        return trie.contains(words[cursor.next(words.length)]);
+    }
+
+    @Benchmark
+    public void wordsWithPrefix(Cursor cursor, Blackhole blackhole) {
+        for (String word : trie.wordsWithPrefix(
+                prefixes[cursor.next(prefixes.length)])) {
+            blackhole.consume(word);
+        }
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(3)
+    public boolean read(Cursor cursor) {
+        return trie.contains(words[cursor.next(words.length)]);
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public boolean write(Cursor cursor) {
+        String word = words[cursor.next(words.length)];
+        boolean deleted = trie.delete(word);
+        trie.add(new Tuple(word));
+        return deleted;
+    }
+}
@@ -0,0 +1,113 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.daniilkoroid.autocomplete.trie.Trie;
+
+/**
+ * Benchmark of completion of prefixes with typos, as done on every
+ * keystroke.
+ * <p>
+ * Every prefix is a prefix of stored word with one char replaced by random
+ * letter.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FuzzyPrefixBenchmark {
+
+    /**
+     * Seed used to put typos.
+     */
+    private static final long SEED = 7L;
+
+    /**
+     * Size of used alphabet.
+     */
+    private static final int ALPHABET_SIZE = 26;
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"1000000"})
+    private int dictionarySize;
+
+    /**
+     * Length of prefix to search words by.
+     */
+    @Param({"3", "5"})
+    private int prefixLength;
+
+    /**
+     * Maximum number of typos.
+     */
+    @Param({"1", "2"})
+    private int maxEdits;
+
+    /**
+     * Maximum number of words to return.
+     */
+    @Param({"10"})
+    private int limit;
+
+    /**
+     * Trie implementation to query.
+     */
+    @Param({"RWayTrie"})
+    private String implementation;
+
+    private Trie trie;
+
+    private String[] prefixes;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] words = Words.generate(dictionarySize);
+        trie = Tries.load(implementation, words);
+        prefixes = Words.prefixes(words, prefixLength);
+        Random random = new Random(SEED);
+        for (int i = 0; i < prefixes.length; i++) {
+            char[] chars = prefixes[i].toCharArray();
+            chars[random.nextInt(chars.length)] =
+                    (char) ('a' + random.nextInt(ALPHABET_SIZE));
+            prefixes[i] = new String(chars);
+        }
+    }
+
+    @Benchmark
+    public Iterable<String> wordsWithFuzzyPrefix() {
+        return trie.wordsWithFuzzyPrefix(prefixes[nextIndex()], maxEdits,
+                limit);
+    }
+
+    private int nextIndex() {
+        index++;
+        if (index == prefixes.length) {
+            index = 0;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,70 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ua.daniilkoroid.autocomplete.trie.Trie;
+import ua.daniilkoroid.autocomplete.trie.Tuple;
+
+/**
+ * {@link Trie} that guards every operation of other trie with one global lock.
+ * <p>
+ * Found words are copied under the lock. This is the baseline for concurrent
+ * tries.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public class LockedTrie implements Trie {
+
+    private final Trie trie;
+
+    /**
+     * Wrap given trie.
+     *
+     * @param trie trie to guard
+     */
+    public LockedTrie(Trie trie) {
+        this.trie = trie;
+    }
+
+    @Override
+    public synchronized void add(Tuple tuple) {
+        trie.add(tuple);
+    }
+
+    @Override
+    public synchronized boolean contains(String word) {
+        return trie.contains(word);
+    }
+
+    @Override
+    public synchronized int weight(String word) {
+        return trie.weight(word);
+    }
+
+    @Override
+    public synchronized boolean delete(String word) {
+        return trie.delete(word);
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return wordsWithPrefix("");
+    }
+
+    @Override
+    public synchronized Iterable<String> wordsWithPrefix(String pref) {
+        List<String> result = new ArrayList<>();
+        for (String word : trie.wordsWithPrefix(pref)) {
+            result.add(word);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized int size() {
+        return trie.size();
+    }
+}
@@ -0,0 +1,141 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ua.daniilkoroid.autocomplete.PrefixMatches;
+
+/**
+ * Benchmarks of {@link PrefixMatches} read and write operations over a
+ * populated dictionary.
+ * <p>
+ * Both throughput and sampled latency (which includes p99) are reported. Run
+ * with <code>-prof gc</code> to get allocation rate.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefixMatchesBenchmark {
+
+    /**
+     * Length of short prefix. Such prefixes match huge subtrees.
+     */
+    private static final int SHORT_PREFIX_LENGTH = 2;
+
+    /**
+     * Length of long prefix. Such prefixes match few words.
+     */
+    private static final int LONG_PREFIX_LENGTH = 5;
+
+    /**
+     * Number of different lengths of words to search.
+     */
+    private static final int SEARCH_LENGTH = 3;
+
+    /**
+     * Number of top words to search.
+     */
+    private static final int TOP_COUNT = 10;
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"10000", "1000000", "10000000"})
+    private int dictionarySize;
+
+    private PrefixMatches prefixMatches;
+
+    private String[] words;
+
+    private String[] shortPrefixes;
+
+    private String[] longPrefixes;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Words.generate(dictionarySize);
+        shortPrefixes = Words.prefixes(words, SHORT_PREFIX_LENGTH);
+        longPrefixes = Words.prefixes(words, LONG_PREFIX_LENGTH);
+        prefixMatches = new PrefixMatches();
+        prefixMatches.add(words);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return prefixMatches.contains(nextWord());
+    }
+
+    /**
+     * Deletes existing word and adds it back, so that dictionary stays the
+     * same between invocations.
+     *
+     * @return <code>true</code> if word was deleted
+     */
+    @Benchmark
+    public boolean deleteAndRestore() {
+        String word = nextWord();
+        boolean deleted = prefixMatches.delete(word);
+        prefixMatches.add(word);
+        return deleted;
+    }
+
+    @Benchmark
+    public void wordsWithShortPrefix(Blackhole blackhole) {
+        String prefix = shortPrefixes[nextIndex()];
+        for (String word : prefixMatches.wordsWithPrefix(prefix,
+                SEARCH_LENGTH)) {
+            blackhole.consume(word);
+        }
+    }
+
+    @Benchmark
+    public void wordsWithLongPrefix(Blackhole blackhole) {
+        String prefix = longPrefixes[nextIndex()];
+        for (String word : prefixMatches.wordsWithPrefix(prefix,
+                SEARCH_LENGTH)) {
+            blackhole.consume(word);
+        }
+    }
+
+    @Benchmark
+    public void topKWithShortPrefix(Blackhole blackhole) {
+        String prefix = shortPrefixes[nextIndex()];
+        for (String word : prefixMatches.topK(prefix, TOP_COUNT)) {
+            blackhole.consume(word);
+        }
+    }
+
+    private String nextWord() {
+        return words[nextIndex()];
+    }
+
+    private int nextIndex() {
+        index++;
+        if (index == words.length) {
+            index = 0;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,180 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ua.daniilkoroid.autocomplete.CachingPrefixMatches;
+import ua.daniilkoroid.autocomplete.PrefixMatches;
+import ua.daniilkoroid.autocomplete.ResultCache;
+
+/**
+ * Benchmark of {@link CachingPrefixMatches} under skewed queries.
+ * <p>
+ * Prefixes are queried with frequency that falls with their rank, as in real
+ * autocomplete traffic. Capacity <code>0</code> means plain
+ * {@link PrefixMatches} without cache. Hits and misses of cache are reported
+ * as secondary results of every iteration.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefixMatchesCacheBenchmark {
+
+    /**
+     * Length of queried prefixes.
+     */
+    private static final int PREFIX_LENGTH = 3;
+
+    /**
+     * Number of different lengths of words to search.
+     */
+    private static final int SEARCH_LENGTH = 3;
+
+    /**
+     * Number of queries in repeated sequence.
+     */
+    private static final int QUERY_COUNT = 1 << 16;
+
+    /**
+     * Seed of sequence of queries.
+     */
+    private static final long SEED = 7L;
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"1000000"})
+    private int dictionarySize;
+
+    /**
+     * Maximum number of cached searches, or <code>0</code> for no cache.
+     */
+    @Param({"0", "1000"})
+    private int capacity;
+
+    private PrefixMatches prefixMatches;
+
+    private String[] words;
+
+    private String[] queries;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Words.generate(dictionarySize);
+        if (capacity == 0) {
+            prefixMatches = new PrefixMatches();
+        } else {
+            prefixMatches = new CachingPrefixMatches(capacity);
+        }
+        prefixMatches.add(words);
+        String[] prefixes = Words.prefixes(words, PREFIX_LENGTH);
+        Random random = new Random(SEED);
+        queries = new String[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            int rank = (int) Math.pow(prefixes.length, random.nextDouble());
+            queries[i] = prefixes[rank - 1];
+        }
+    }
+
+    @Benchmark
+    public void wordsWithPrefix(CacheCounters counters,
+            Blackhole blackhole) {
+        for (String word : prefixMatches.wordsWithPrefix(nextQuery(),
+                SEARCH_LENGTH)) {
+            blackhole.consume(word);
+        }
+    }
+
+    /**
+     * Deletes and restores a word before every query, so that cache is
+     * invalidated along the way.
+     *
+     * @param counters hits and misses of cache
+     * @param blackhole consumer of found words
+     */
+    @Benchmark
+    public void wordsWithPrefixUnderWrites(CacheCounters counters,
+            Blackhole blackhole) {
+        String query = nextQuery();
+        String word = words[index];
+        prefixMatches.delete(word);
+        prefixMatches.add(word);
+        for (String found : prefixMatches.wordsWithPrefix(query,
+                SEARCH_LENGTH)) {
+            blackhole.consume(found);
+        }
+    }
+
+    private String nextQuery() {
+        index++;
+        if (index == queries.length) {
+            index = 0;
+        }
+        return queries[index];
+    }
+
+    /**
+     * Hits and misses of cache during iteration.
+     * <p>
+     * Counters are taken from cache before and after iteration, so queries
+     * themselves do not read them. Both stay <code>0</code> without cache.
+     * </p>
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class CacheCounters {
+
+        public long hits;
+
+        public long misses;
+
+        private long hitsBefore;
+
+        private long missesBefore;
+
+        @Setup(Level.Iteration)
+        public void start(PrefixMatchesCacheBenchmark benchmark) {
+            if (benchmark.prefixMatches instanceof CachingPrefixMatches) {
+                ResultCache cache = ((CachingPrefixMatches)
+                        benchmark.prefixMatches).cache();
+                hitsBefore = cache.hitCount();
+                missesBefore = cache.missCount();
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop(PrefixMatchesCacheBenchmark benchmark) {
+            if (benchmark.prefixMatches instanceof CachingPrefixMatches) {
+                ResultCache cache = ((CachingPrefixMatches)
+                        benchmark.prefixMatches).cache();
+                hits = cache.hitCount() - hitsBefore;
+                misses = cache.missCount() - missesBefore;
+            }
+        }
+    }
+}
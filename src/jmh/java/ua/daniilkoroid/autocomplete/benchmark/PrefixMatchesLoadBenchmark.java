@@ -0,0 +1,66 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.daniilkoroid.autocomplete.PrefixMatches;
+
+/**
+ * Benchmark of bulk loading of the whole dictionary into empty
+ * {@link PrefixMatches}.
+ * <p>
+ * With <code>-prof gc</code> the normalized allocation rate of this benchmark
+ * is the amount of heap needed to build the dictionary.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefixMatchesLoadBenchmark {
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"10000", "1000000", "10000000"})
+    private int dictionarySize;
+
+    private String[] words;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Words.generate(dictionarySize);
+    }
+
+    @Benchmark
+    public PrefixMatches add() {
+        PrefixMatches prefixMatches = new PrefixMatches();
+        prefixMatches.add(words);
+        return prefixMatches;
+    }
+
+    @Benchmark
+    public PrefixMatches addOccurrences() {
+        PrefixMatches prefixMatches = new PrefixMatches();
+        prefixMatches.addOccurrences(Arrays.stream(words).parallel());
+        return prefixMatches;
+    }
+}
@@ -0,0 +1,72 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.daniilkoroid.autocomplete.trie.Trie;
+
+/**
+ * Benchmark of exporting the whole dictionary through
+ * {@link Trie#streamWithPrefix(String)}, sequentially and in parallel.
+ * <p>
+ * Parallel run scales with number of workers of common fork-join pool.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamWithPrefixBenchmark {
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"1000000"})
+    private int dictionarySize;
+
+    /**
+     * Trie implementation to stream from.
+     */
+    @Param({"RWayTrie", "CompactTrie"})
+    private String implementation;
+
+    /**
+     * <code>true</code> to use parallel stream.
+     */
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private Trie trie;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        trie = Tries.load(implementation, Words.generate(dictionarySize));
+    }
+
+    @Benchmark
+    public long totalLength() {
+        Stream<String> words = trie.streamWithPrefix("");
+        if (parallel) {
+            words = words.parallel();
+        }
+        return words.mapToLong(String::length).sum();
+    }
+}
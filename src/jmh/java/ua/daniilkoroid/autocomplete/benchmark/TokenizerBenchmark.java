@@ -0,0 +1,88 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ua.daniilkoroid.autocomplete.Tokenizer;
+
+/**
+ * Benchmark of splitting text into words.
+ * <p>
+ * Text is generated words separated by spaces and punctuation, about 8 chars
+ * per word. Throughput in chars is text length divided by time of operation.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenizerBenchmark {
+
+    /**
+     * Separators put between words in turn.
+     */
+    private static final String[] SEPARATORS = {" ", ", ", ". ", "\n"};
+
+    /**
+     * Words are longer than this length to be returned.
+     */
+    private static final int MINIMAL_LENGTH = 2;
+
+    /**
+     * Number of words in text.
+     */
+    @Param({"1000000"})
+    private int wordCount;
+
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] words = Words.generate(wordCount);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            builder.append(words[i]).append(SEPARATORS[i % SEPARATORS.length]);
+        }
+        text = builder.toString();
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(new StringReader(text),
+                MINIMAL_LENGTH);
+        String word = tokenizer.next();
+        while (word != null) {
+            blackhole.consume(word);
+            word = tokenizer.next();
+        }
+    }
+
+    @Benchmark
+    public void split(Blackhole blackhole) {
+        for (String word : text.split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.length() > MINIMAL_LENGTH) {
+                blackhole.consume(word);
+            }
+        }
+    }
+}
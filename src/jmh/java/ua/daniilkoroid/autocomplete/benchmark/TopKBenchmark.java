@@ -0,0 +1,122 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ua.daniilkoroid.autocomplete.trie.RWayTrie;
+import ua.daniilkoroid.autocomplete.trie.Tuple;
+
+/**
+ * Benchmark of {@link RWayTrie#topK(String, int)} with and without top words
+ * cached in nodes of small depth.
+ * <p>
+ * Read and write cost are measured here. Heap cost of caches is reported by
+ * {@link #build()} when run with <code>-prof gc</code>.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+
+    /**
+     * Number of top words to search and to cache.
+     */
+    private static final int TOP_COUNT = 10;
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"10000", "1000000"})
+    private int dictionarySize;
+
+    /**
+     * Maximal depth of nodes that cache top words. <code>-1</code> means no
+     * caching.
+     */
+    @Param({"-1", "1", "2", "3"})
+    private int cachedDepth;
+
+    /**
+     * Length of searched prefix.
+     */
+    @Param({"1", "2"})
+    private int prefixLength;
+
+    private RWayTrie trie;
+
+    private String[] words;
+
+    private String[] prefixes;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Words.generate(dictionarySize);
+        prefixes = Words.prefixes(words, prefixLength);
+        trie = build();
+    }
+
+    @Benchmark
+    public void topK(Blackhole blackhole) {
+        for (String word : trie.topK(prefixes[nextIndex()], TOP_COUNT)) {
+            blackhole.consume(word);
+        }
+    }
+
+    /**
+     * Deletes existing word and adds it back, which updates cached top words
+     * on its path.
+     *
+     * @return <code>true</code> if word was deleted
+     */
+    @Benchmark
+    public boolean deleteAndRestore() {
+        String word = words[nextIndex()];
+        boolean deleted = trie.delete(word);
+        trie.add(new Tuple(word));
+        return deleted;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RWayTrie build() {
+        int[] topCounts = new int[cachedDepth + 1];
+        Arrays.fill(topCounts, TOP_COUNT);
+        RWayTrie result = new RWayTrie(topCounts);
+        for (String word : words) {
+            result.add(new Tuple(word));
+        }
+        return result;
+    }
+
+    private int nextIndex() {
+        index++;
+        if (index == words.length) {
+            index = 0;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,73 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.daniilkoroid.autocomplete.trie.Trie;
+import ua.daniilkoroid.autocomplete.trie.Tuple;
+
+/**
+ * Benchmark of building different {@link Trie} implementations from the same
+ * dictionary.
+ * <p>
+ * Run with <code>-prof gc</code>: normalized allocation rate
+ * (<code>gc.alloc.rate.norm</code>) shows how much heap every implementation
+ * needs to hold the dictionary.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrieLoadBenchmark {
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"10000", "1000000", "10000000"})
+    private int dictionarySize;
+
+    /**
+     * Trie implementation to build.
+     */
+    @Param({"RWayTrie", "CompactTrie", "RadixTrie", "PooledTrie",
+        "OffHeapTrie"})
+    private String implementation;
+
+    private Tuple[] tuples;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] words = Words.generate(dictionarySize);
+        tuples = new Tuple[words.length];
+        for (int i = 0; i < words.length; i++) {
+            tuples[i] = new Tuple(words[i]);
+        }
+    }
+
+    @Benchmark
+    public Trie build() {
+        Trie trie = Tries.create(implementation);
+        for (Tuple tuple : tuples) {
+            trie.add(tuple);
+        }
+        return trie;
+    }
+}
@@ -0,0 +1,96 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ua.daniilkoroid.autocomplete.trie.Trie;
+
+/**
+ * Benchmark of read operations of different {@link Trie} implementations that
+ * hold the same dictionary.
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrieLookupBenchmark {
+
+    /**
+     * Length of prefix to search words by.
+     */
+    private static final int PREFIX_LENGTH = 2;
+
+    /**
+     * Number of words in dictionary.
+     */
+    @Param({"10000", "1000000"})
+    private int dictionarySize;
+
+    /**
+     * Trie implementation to query.
+     */
+    @Param({"RWayTrie", "CompactTrie", "RadixTrie", "CompiledTrie",
+        "MappedTrie", "DawgTrie", "PooledTrie", "OffHeapTrie"})
+    private String implementation;
+
+    private Trie trie;
+
+    private String[] words;
+
+    private String[] prefixes;
+
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = Words.generate(dictionarySize);
+        prefixes = Words.prefixes(words, PREFIX_LENGTH);
+        trie = Tries.load(implementation, words);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return trie.contains(words[nextIndex()]);
+    }
+
+    @Benchmark
+    public void wordsWithPrefix(Blackhole blackhole) {
+        for (String word : trie.wordsWithPrefix(prefixes[nextIndex()])) {
+            blackhole.consume(word);
+        }
+    }
+
+    @Benchmark
+    public void visitWordsWithPrefix(Blackhole blackhole) {
+        trie.visitWordsWithPrefix(prefixes[nextIndex()], (word, weight) -> {
+            blackhole.consume(word.length());
+            return true;
+        });
+    }
+
+    private int nextIndex() {
+        index++;
+        if (index == words.length) {
+            index = 0;
+        }
+        return index;
+    }
+}
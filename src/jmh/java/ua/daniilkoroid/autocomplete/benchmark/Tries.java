@@ -0,0 +1,127 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import ua.daniilkoroid.autocomplete.trie.CompactTrie;
+import ua.daniilkoroid.autocomplete.trie.CompiledTrie;
+import ua.daniilkoroid.autocomplete.trie.ConcurrentRWayTrie;
+import ua.daniilkoroid.autocomplete.trie.DawgTrie;
+import ua.daniilkoroid.autocomplete.trie.FlatTrie;
+import ua.daniilkoroid.autocomplete.trie.MappedTrie;
+import ua.daniilkoroid.autocomplete.trie.OffHeapTrie;
+import ua.daniilkoroid.autocomplete.trie.PersistentTrie;
+import ua.daniilkoroid.autocomplete.trie.PooledTrie;
+import ua.daniilkoroid.autocomplete.trie.RWayTrie;
+import ua.daniilkoroid.autocomplete.trie.RadixTrie;
+import ua.daniilkoroid.autocomplete.trie.ShardedTrie;
+import ua.daniilkoroid.autocomplete.trie.Trie;
+import ua.daniilkoroid.autocomplete.trie.Tuple;
+
+/**
+ * Factory of {@link Trie} implementations by their names, so that benchmarks
+ * can take implementation as parameter.
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class Tries {
+
+    /**
+     * Number of shards of {@link ShardedTrie}.
+     */
+    private static final int SHARD_COUNT = 16;
+
+    private Tries() {
+    }
+
+    /**
+     * Create empty trie of given implementation.
+     *
+     * @param implementation simple name of implementation class
+     * @return created trie
+     * @throws IllegalArgumentException if implementation is unknown
+     */
+    public static Trie create(String implementation) {
+        Trie result;
+        switch (implementation) {
+            case "RWayTrie":
+                result = new RWayTrie();
+                break;
+            case "CompactTrie":
+                result = new CompactTrie();
+                break;
+            case "ConcurrentRWayTrie":
+                result = new ConcurrentRWayTrie();
+                break;
+            case "PersistentTrie":
+                result = new PersistentTrie();
+                break;
+            case "OffHeapTrie":
+                result = new OffHeapTrie();
+                break;
+            case "PooledTrie":
+                result = new PooledTrie();
+                break;
+            case "RadixTrie":
+                result = new RadixTrie();
+                break;
+            case "ShardedTrie":
+                result = new ShardedTrie(SHARD_COUNT);
+                break;
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown trie implementation: " + implementation);
+        }
+        return result;
+    }
+
+    /**
+     * Create trie of given implementation that holds given words.
+     * <p>
+     * Read-only implementations are compiled from {@link CompactTrie}.
+     * {@link MappedTrie} is written to temporary file that is deleted on
+     * exit.
+     * </p>
+     *
+     * @param implementation simple name of implementation class
+     * @param words words to hold
+     * @return created trie
+     * @throws IllegalArgumentException if implementation is unknown
+     */
+    public static Trie load(String implementation, String[] words) {
+        Trie result;
+        if ("CompiledTrie".equals(implementation)) {
+            result = CompiledTrie.compile(load("CompactTrie", words));
+        } else if ("DawgTrie".equals(implementation)) {
+            result = DawgTrie.compile(load("CompactTrie", words));
+        } else if ("MappedTrie".equals(implementation)) {
+            result = map(load("CompiledTrie", words));
+        } else {
+            result = create(implementation);
+            for (String word : words) {
+                result.add(new Tuple(word));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write given trie to temporary file and map it.
+     *
+     * @param trie trie to write
+     * @return trie mapped from temporary file
+     */
+    private static MappedTrie map(Trie trie) {
+        try {
+            Path file = Files.createTempFile("benchmark", ".trie");
+            file.toFile().deleteOnExit();
+            ((FlatTrie) trie).writeTo(file);
+            return MappedTrie.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
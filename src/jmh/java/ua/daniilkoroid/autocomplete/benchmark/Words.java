@@ -0,0 +1,93 @@
+package ua.daniilkoroid.autocomplete.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generator of deterministic pseudo-random dictionaries used by benchmarks.
+ * <p>
+ * Words consist of lower-case English letters only, so that they can be stored
+ * by every {@link ua.daniilkoroid.autocomplete.trie.Trie} implementation. The
+ * same seed always produces the same words, so runs are comparable.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class Words {
+
+    /**
+     * Seed used to generate dictionaries.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Minimal length of generated word.
+     * <p>
+     * Words shorter than that are filtered out by
+     * {@link ua.daniilkoroid.autocomplete.PrefixMatches}.
+     * </p>
+     */
+    private static final int MIN_WORD_LENGTH = 3;
+
+    /**
+     * Maximal length of generated word.
+     */
+    private static final int MAX_WORD_LENGTH = 12;
+
+    /**
+     * Size of used alphabet.
+     */
+    private static final int ALPHABET_SIZE = 26;
+
+    /**
+     * First letter in used alphabet.
+     */
+    private static final char FIRST_ALPHABET_LETTER = 'a';
+
+    private Words() {
+    }
+
+    /**
+     * Generate given number of words.
+     * <p>
+     * Generated words are not guaranteed to be distinct.
+     * </p>
+     *
+     * @param count number of words to generate
+     * @return generated words
+     */
+    public static String[] generate(int count) {
+        Random random = new Random(SEED);
+        String[] words = new String[count];
+        char[] buffer = new char[MAX_WORD_LENGTH];
+        for (int i = 0; i < count; i++) {
+            int length = MIN_WORD_LENGTH
+                    + random.nextInt(MAX_WORD_LENGTH - MIN_WORD_LENGTH + 1);
+            for (int j = 0; j < length; j++) {
+                buffer[j] = (char) (FIRST_ALPHABET_LETTER
+                        + random.nextInt(ALPHABET_SIZE));
+            }
+            words[i] = new String(buffer, 0, length);
+        }
+        return words;
+    }
+
+    /**
+     * Take prefixes of given length from given words.
+     * <p>
+     * Words that are shorter than given length are used as is.
+     * </p>
+     *
+     * @param words words to take prefixes from
+     * @param length length of prefix
+     * @return prefixes of given words
+     */
+    public static String[] prefixes(String[] words, int length) {
+        String[] prefixes = new String[words.length];
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            prefixes[i] = word.substring(0, Math.min(length, word.length()));
+        }
+        return prefixes;
+    }
+}
@@ -0,0 +1,219 @@
+package ua.daniilkoroid.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import ua.daniilkoroid.autocomplete.trie.RWayTrie;
+import ua.daniilkoroid.autocomplete.trie.Trie;
+import ua.daniilkoroid.autocomplete.trie.TrieCursor;
+import ua.daniilkoroid.autocomplete.trie.Tuple;
+import ua.daniilkoroid.autocomplete.trie.WordVisitor;
+
+/**
+ * {@link PrefixMatches} that caches found words.
+ * <p>
+ * Words found by {@link #wordsWithPrefix(String, int)} are kept in
+ * {@link ResultCache}, so popular prefixes are not searched in trie again.
+ * Every word that is added or deleted, by any method, removes from cache only
+ * the entries of its prefixes. Changes of weights do not change found words
+ * and keep cache as is.
+ * </p>
+ * <p>
+ * Found words are copied, so iteration over them is never affected by
+ * modification of dictionary.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public class CachingPrefixMatches extends PrefixMatches {
+
+    /**
+     * Cache of found words.
+     */
+    private final ResultCache cache;
+
+    /**
+     * Create object with default in-memory dictionary which is {@link RWayTrie}
+     * and cache of given capacity.
+     *
+     * @param capacity maximum number of cached searches
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public CachingPrefixMatches(int capacity) {
+        this(new RWayTrie(), capacity);
+    }
+
+    /**
+     * Create object with given in-memory dictionary and cache of given
+     * capacity.
+     *
+     * @param trie in-memory dictionary to be used
+     * @param capacity maximum number of cached searches
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public CachingPrefixMatches(Trie trie, int capacity) {
+        this(trie, new ResultCache(capacity));
+    }
+
+    private CachingPrefixMatches(Trie trie, ResultCache cache) {
+        super(new InvalidatingTrie(trie, cache));
+        this.cache = cache;
+    }
+
+    /**
+     * Cache of found words, with its hit, eviction and invalidation counters.
+     *
+     * @return cache of found words
+     */
+    public ResultCache cache() {
+        return cache;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cached words are returned if there are any. Otherwise words are found
+     * in trie and cached, unless dictionary was modified during search.
+     * </p>
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref, int k) {
+        String[] words = cache.get(pref, k);
+        if (words == null) {
+            long epoch = cache.epoch();
+            List<String> found = new ArrayList<>();
+            for (String word : super.wordsWithPrefix(pref, k)) {
+                found.add(word);
+            }
+            words = found.toArray(new String[found.size()]);
+            cache.put(pref, k, words, epoch);
+        }
+        return Collections.unmodifiableList(Arrays.asList(words));
+    }
+
+    /**
+     * {@link Trie} that passes all operations to other trie and invalidates
+     * cache with every word that is added or deleted.
+     */
+    private static class InvalidatingTrie implements Trie {
+
+        private final Trie trie;
+
+        private final ResultCache cache;
+
+        InvalidatingTrie(Trie trie, ResultCache cache) {
+            this.trie = trie;
+            this.cache = cache;
+        }
+
+        @Override
+        public void add(Tuple tuple) {
+            putIfAbsent(tuple);
+        }
+
+        @Override
+        public void addAll(Collection<Tuple> tuples) {
+            trie.addAll(tuples);
+            for (Tuple tuple : tuples) {
+                cache.invalidate(tuple.getTerm());
+            }
+        }
+
+        @Override
+        public int addWeight(String word, int delta) {
+            int result = trie.addWeight(word, delta);
+            if (result == delta) {
+                cache.invalidate(word);
+            }
+            return result;
+        }
+
+        @Override
+        public int putIfAbsent(Tuple tuple) {
+            int result = trie.putIfAbsent(tuple);
+            if (result == 0) {
+                cache.invalidate(tuple.getTerm());
+            }
+            return result;
+        }
+
+        @Override
+        public int upsert(Tuple tuple) {
+            int result = trie.upsert(tuple);
+            if (result == 0 || tuple.getWeight() == 0) {
+                cache.invalidate(tuple.getTerm());
+            }
+            return result;
+        }
+
+        @Override
+        public boolean contains(String word) {
+            return trie.contains(word);
+        }
+
+        @Override
+        public int weight(String word) {
+            return trie.weight(word);
+        }
+
+        @Override
+        public boolean delete(String word) {
+            boolean result = trie.delete(word);
+            if (result) {
+                cache.invalidate(word);
+            }
+            return result;
+        }
+
+        @Override
+        public Iterable<String> words() {
+            return trie.words();
+        }
+
+        @Override
+        public Iterable<String> wordsWithPrefix(String pref) {
+            return trie.wordsWithPrefix(pref);
+        }
+
+        @Override
+        public Iterable<String> wordsWithPrefix(String pref, int k) {
+            return trie.wordsWithPrefix(pref, k);
+        }
+
+        @Override
+        public Stream<String> streamWithPrefix(String pref) {
+            return trie.streamWithPrefix(pref);
+        }
+
+        @Override
+        public Iterable<String> wordsWithFuzzyPrefix(String pref,
+                int maxEdits, int limit) {
+            return trie.wordsWithFuzzyPrefix(pref, maxEdits, limit);
+        }
+
+        @Override
+        public TrieCursor cursor() {
+            return trie.cursor();
+        }
+
+        @Override
+        public void visitWordsWithPrefix(String pref, WordVisitor visitor) {
+            trie.visitWordsWithPrefix(pref, visitor);
+        }
+
+        @Override
+        public Iterable<String> topK(String pref, int k) {
+            return trie.topK(pref, k);
+        }
+
+        @Override
+        public int size() {
+            return trie.size();
+        }
+    }
+}
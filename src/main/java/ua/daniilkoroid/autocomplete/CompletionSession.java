@@ -0,0 +1,192 @@
+package ua.daniilkoroid.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import ua.daniilkoroid.autocomplete.trie.Trie;
+import ua.daniilkoroid.autocomplete.trie.TrieCursor;
+
+/**
+ * Class that completes query typed char by char.
+ * <p>
+ * Session keeps {@link TrieCursor} at typed prefix and completions of every
+ * prefix of it. Typing char moves cursor one step, and if all words of the
+ * previous prefix fit into completions, completions of the new prefix are
+ * taken from them without searching trie. Backspace returns completions of
+ * the shorter prefix that are already known.
+ * </p>
+ * <p>
+ * Completions are the first words in the order of
+ * {@link Trie#wordsWithPrefix(String)}. Session is meant for one query:
+ * completions that are already known are not updated if trie is modified.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class CompletionSession {
+
+    /**
+     * Completions that are not searched for yet.
+     * <p>
+     * Completions of empty prefix are searched for only if they are asked
+     * for, as they need the widest search.
+     * </p>
+     */
+    private static final Completions NOT_SEARCHED = new Completions(
+            Collections.<String>emptyList(), false);
+
+    /**
+     * Cursor at typed prefix.
+     */
+    private final TrieCursor cursor;
+
+    /**
+     * Maximum number of completions.
+     */
+    private final int limit;
+
+    /**
+     * Completions of every prefix of typed prefix, by prefix length.
+     */
+    private final List<Completions> history;
+
+    /**
+     * Create session with empty prefix.
+     *
+     * @param trie trie to complete words from
+     * @param limit maximum number of completions
+     */
+    public CompletionSession(Trie trie, int limit) {
+        this.cursor = trie.cursor();
+        this.limit = limit;
+        history = new ArrayList<>();
+        history.add(NOT_SEARCHED);
+    }
+
+    /**
+     * Type given char.
+     *
+     * @param c typed char
+     * @return completions of new prefix
+     */
+    public List<String> type(char c) {
+        boolean found = cursor.push(c);
+        Completions previous = history.get(history.size() - 1);
+        Completions next;
+        if (previous != NOT_SEARCHED && previous.complete) {
+            next = narrow(previous, c);
+        } else {
+            next = search(found);
+        }
+        history.add(next);
+        return next.words;
+    }
+
+    /**
+     * Remove the last typed char.
+     * <p>
+     * Does nothing if prefix is empty.
+     * </p>
+     *
+     * @return completions of new prefix
+     */
+    public List<String> backspace() {
+        if (history.size() > 1) {
+            cursor.pop();
+            history.remove(history.size() - 1);
+        }
+        return completions();
+    }
+
+    /**
+     * Typed prefix.
+     *
+     * @return typed prefix
+     */
+    public String prefix() {
+        return cursor.prefix();
+    }
+
+    /**
+     * Completions of typed prefix.
+     *
+     * @return at most limit words that start from typed prefix
+     */
+    public List<String> completions() {
+        return last().words;
+    }
+
+    /**
+     * Completions of typed prefix, searching for them if they are not known.
+     *
+     * @return completions of typed prefix
+     */
+    private Completions last() {
+        int index = history.size() - 1;
+        if (history.get(index) == NOT_SEARCHED) {
+            history.set(index, search(true));
+        }
+        return history.get(index);
+    }
+
+    /**
+     * Take completions of new prefix from all words of the previous one.
+     *
+     * @param previous completions with all words of the previous prefix
+     * @param c the last char of new prefix
+     * @return completions with all words of new prefix
+     */
+    private Completions narrow(Completions previous, char c) {
+        int index = history.size() - 1;
+        List<String> words = new ArrayList<>();
+        for (String word : previous.words) {
+            if (word.length() > index && word.charAt(index) == c) {
+                words.add(word);
+            }
+        }
+        return new Completions(words, true);
+    }
+
+    /**
+     * Find completions of typed prefix in trie.
+     *
+     * @param found <code>false</code> if cursor knows there are no words
+     * @return completions of typed prefix
+     */
+    private Completions search(boolean found) {
+        List<String> words = new ArrayList<>();
+        boolean complete = true;
+        if (found) {
+            Iterator<String> iterator = cursor.words().iterator();
+            while (iterator.hasNext() && words.size() < limit) {
+                words.add(iterator.next());
+            }
+            complete = !iterator.hasNext();
+        }
+        return new Completions(words, complete);
+    }
+
+    /**
+     * Completions of one prefix.
+     */
+    private static class Completions {
+
+        /**
+         * At most limit words that start from prefix.
+         */
+        private final List<String> words;
+
+        /**
+         * <code>true</code> if words are all words that start from prefix.
+         */
+        private final boolean complete;
+
+        Completions(List<String> words, boolean complete) {
+            this.words = Collections.unmodifiableList(words);
+            this.complete = complete;
+        }
+    }
+}
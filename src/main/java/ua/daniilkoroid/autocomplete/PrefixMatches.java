@@ -3,11 +3,20 @@
  */
 package ua.daniilkoroid.autocomplete;
 
-import java.util.ArrayList;
-import java.util.ConcurrentModificationException;
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import ua.daniilkoroid.autocomplete.trie.RWayTrie;
 import ua.daniilkoroid.autocomplete.trie.Trie;
@@ -33,14 +42,19 @@ public class PrefixMatches {
     private static final int MINIMAL_STRING_TO_ADD_LENGTH = 2;
 
     /**
-     * Trie that is used to store words.
+     * Separator of words in sentences.
      */
-    private final Trie trie;
+    private static final String SPACE = " ";
 
     /**
-     * The number of times this structure was modified.
+     * Tells {@link Channels#newReader} to use default buffer size.
      */
-    private int modCount;
+    private static final int NO_MINIMUM_CAPACITY = -1;
+
+    /**
+     * Trie that is used to store words.
+     */
+    private final Trie trie;
 
     /**
      * Create object with default in-memory dictionary which is {@link RWayTrie}
@@ -70,10 +84,10 @@ public class PrefixMatches {
      * @return number of strings that were added
      */
     public int add(String... strings) {
-        String[] filteredStrings = filterInputStrings(strings);
+        String[] filteredStrings = filterWords(Arrays.stream(strings))
+                .toArray(String[]::new);
         int beforeAddSize = size();
         for (String string : filteredStrings) {
-            updateModCount();
             trie.add(new Tuple(string));
         }
         int afterAddSize = size();
@@ -81,6 +95,124 @@ public class PrefixMatches {
         return addedElements;
     }
 
+    /**
+     * Add all words of text read from given reader to in-memory dictionary.
+     * <p>
+     * Text is split into words by {@link Tokenizer}: any char that is not
+     * letter or digit separates words. Only words that are longer than
+     * {@link #MINIMAL_STRING_TO_ADD_LENGTH} are added. Words are lowercased,
+     * and words that trie cannot store, such as numbers or words of other
+     * languages for trie of English words, are skipped. Every word is added as
+     * soon as it is read, so text of any length can be added. Given reader is
+     * not closed.
+     * </p>
+     *
+     * @param reader reader of text
+     * @return number of words that were added
+     * @throws IOException if reading fails
+     */
+    public int addAll(Reader reader) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(reader,
+                MINIMAL_STRING_TO_ADD_LENGTH);
+        int beforeAddSize = size();
+        String word = tokenizer.next();
+        while (word != null) {
+            try {
+                trie.add(new Tuple(word.toLowerCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                // word has chars that trie does not store, so it is skipped
+            }
+            word = tokenizer.next();
+        }
+        return size() - beforeAddSize;
+    }
+
+    /**
+     * Add all words of text read from given stream in given charset to
+     * in-memory dictionary.
+     *
+     * @param in stream of text
+     * @param charset charset of text
+     * @return number of words that were added
+     * @throws IOException if reading fails
+     * @see #addAll(Reader)
+     */
+    public int addAll(InputStream in, Charset charset) throws IOException {
+        return addAll(new InputStreamReader(in, charset));
+    }
+
+    /**
+     * Add all words of text read from given channel in given charset to
+     * in-memory dictionary.
+     *
+     * @param channel channel of text
+     * @param charset charset of text
+     * @return number of words that were added
+     * @throws IOException if reading fails
+     * @see #addAll(Reader)
+     */
+    public int addAll(ReadableByteChannel channel, Charset charset)
+            throws IOException {
+        return addAll(Channels.newReader(channel, charset.newDecoder(),
+                NO_MINIMUM_CAPACITY));
+    }
+
+    /**
+     * Add all strings of given stream to in-memory dictionary, weighting
+     * words by number of their occurrences.
+     * <p>
+     * Strings are filtered the same way as by {@link #add(String...)}.
+     * Occurrences are counted first: for parallel stream every thread counts
+     * into its own map, and maps are merged. Then every distinct word gets
+     * number of its occurrences added to its weight by
+     * {@link Trie#addWeight(String, int)}, so words that are already stored
+     * become heavier.
+     * </p>
+     *
+     * @param strings strings to be stored in in-memory dictionary
+     * @return number of words that were not stored before
+     */
+    public int addOccurrences(Stream<String> strings) {
+        Map<String, Integer> counts = filterWords(strings)
+                .collect(Collectors.toMap(Function.identity(), word -> 1,
+                        Integer::sum));
+        int beforeAddSize = size();
+        for (Map.Entry<String, Integer> count : counts.entrySet()) {
+            trie.addWeight(count.getKey(), count.getValue());
+        }
+        return size() - beforeAddSize;
+    }
+
+    /**
+     * Add all words of text read from given reader to in-memory dictionary,
+     * weighting words by number of their occurrences.
+     * <p>
+     * Text is split into words the same way as by {@link #addAll(Reader)}.
+     * Every occurrence of word adds one to its weight as soon as it is read,
+     * and words that trie cannot store are skipped. Given reader is not
+     * closed.
+     * </p>
+     *
+     * @param reader reader of text
+     * @return number of words that were not stored before
+     * @throws IOException if reading fails
+     */
+    public int addOccurrences(Reader reader) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(reader,
+                MINIMAL_STRING_TO_ADD_LENGTH);
+        int beforeAddSize = size();
+        String word = tokenizer.next();
+        while (word != null) {
+            try {
+                trie.addWeight(word.toLowerCase(Locale.ROOT), 1);
+            } catch (IllegalArgumentException e) {
+                // word has chars that trie does not store, so it is skipped
+            }
+            word = tokenizer.next();
+        }
+        return size() - beforeAddSize;
+    }
+
     /**
      * Checks if given word is contained.
      *
@@ -111,9 +243,6 @@ public class PrefixMatches {
         boolean result = false;
         if (isFiltered(word)) {
             result = trie.delete(word);
-            if (result) {
-                updateModCount();
-            }
         }
         return result;
     }
@@ -133,6 +262,17 @@ public class PrefixMatches {
      * <p>
      * If no such words are found - {@link Collections#emptyList()} is returned.
      * </p>
+     * <p>
+     * Bound of lengths is passed to trie by
+     * {@link Trie#wordsWithPrefix(String, int)}, so trie may stop search once
+     * words of k lengths are found.
+     * </p>
+     * <p>
+     * Behavior on modification of dictionary during iteration is the same as
+     * of iterator of used {@link Trie}: {@link RWayTrie} fails fast, while
+     * {@link ua.daniilkoroid.autocomplete.trie.PersistentTrie} keeps
+     * iterating over words that were stored when iteration began.
+     * </p>
      *
      * @param pref prefix for all words to find
      * @param k maximum differ lengths count
@@ -141,7 +281,7 @@ public class PrefixMatches {
      * such words are found - {@link Collections#emptyList()} is returned
      */
     public Iterable<String> wordsWithPrefix(String pref, int k) {
-        return new PrefixMatchesIterable(pref, k);
+        return trie.wordsWithPrefix(pref, k);
     }
 
     /**
@@ -158,31 +298,80 @@ public class PrefixMatches {
         return wordsWithPrefix(pref, DEFAULT_SEARCH_LENGTH);
     }
 
+    /**
+     * Words with the biggest weights among words that start from given
+     * prefix.
+     * <p>
+     * Words are returned from the heaviest to the lightest. Words with equal
+     * weights are ordered alphabetically.
+     * </p>
+     *
+     * @param pref prefix for all words to find
+     * @param k maximum number of words to return
+     * @return at most k heaviest words that start from given prefix
+     */
+    public Iterable<String> topK(String pref, int k) {
+        return trie.topK(pref, k);
+    }
+
+    /**
+     * Words that start from a prefix that differs from given one by at most
+     * given number of typos.
+     * <p>
+     * Typo is an extra, missing or wrong char. Words with fewer typos go
+     * first, so words that start from given prefix itself go before all
+     * others.
+     * </p>
+     *
+     * @param pref prefix for all words to find
+     * @param maxEdits maximum number of typos
+     * @param limit maximum number of words to return
+     * @return at most limit words ordered by number of typos
+     * @see Trie#wordsWithFuzzyPrefix(String, int, int)
+     */
+    public Iterable<String> wordsWithFuzzyPrefix(String pref, int maxEdits,
+            int limit) {
+        return trie.wordsWithFuzzyPrefix(pref, maxEdits, limit);
+    }
+
+    /**
+     * Start completing query typed char by char.
+     *
+     * @param limit maximum number of completions
+     * @return session with empty prefix
+     * @see CompletionSession
+     */
+    public CompletionSession startSession(int limit) {
+        return new CompletionSession(trie, limit);
+    }
+
+    /**
+     * Split strings of given stream into words and make tuples of words that
+     * pass filter.
+     *
+     * @param strings strings to split
+     * @return tuples of filtered words in order of stream
+     */
+    List<Tuple> toTuples(Stream<String> strings) {
+        return filterWords(strings).map(Tuple::new)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Filters given strings for being sentences.
      * <p>
-     * If given string is a sentence - splits it by space. Returns array of
-     * single words. Only words on which
-     * {@link #isLongerThanMinimalRequiredLength(java.lang.String)} returns true
-     * added.
+     * If given string is a sentence - splits it by space. Returns stream of
+     * single words. Only words on which {@link #isFiltered(String)} returns
+     * true are left.
      * </p>
      *
      * @param strings strings to filter
-     * @return array of words that were splited by space from given strings
+     * @return stream of words that were split by space from given strings, in
+     * order of given strings
      */
-    private String[] filterInputStrings(String... strings) {
-        List<String> result = new ArrayList<>();
-        String space = " ";
-        for (String string : strings) {
-            String[] splited = string.split(space);
-            for (String splitedString : splited) {
-                if (isFiltered(splitedString)) {
-                    result.add(splitedString);
-                }
-            }
-        }
-        String[] resultArray = result.toArray(new String[result.size()]);
-        return resultArray;
+    private Stream<String> filterWords(Stream<String> strings) {
+        return strings.flatMap(string -> Arrays.stream(string.split(SPACE)))
+                .filter(this::isFiltered);
     }
 
     /**
@@ -214,81 +403,4 @@ public class PrefixMatches {
     private boolean isFiltered(String word) {
         return isLongerThanMinimalRequiredLength(word);
     }
-
-    private void updateModCount() {
-        modCount++;
-    }
-
-    private class PrefixMatchesIterable implements Iterable<String> {
-
-        private final Iterator<String> iterator;
-
-        public PrefixMatchesIterable(String pref, int k) {
-            iterator = new PrefixMatchesIterator(pref, k);
-        }
-
-        @Override
-        public Iterator<String> iterator() {
-            return iterator;
-        }
-    }
-
-    private class PrefixMatchesIterator implements Iterator<String> {
-
-        private final Iterator<String> trieIterator;
-        private final int totalK;
-        private int currentK;
-        private String next;
-        private final int expectedModCount;
-
-        public PrefixMatchesIterator(String pref, int k) {
-            totalK = k;
-            currentK = 1;
-            expectedModCount = modCount;
-            trieIterator = trie.wordsWithPrefix(pref).iterator();
-            if (trieIterator.hasNext()) {
-                next = trieIterator.next();
-            }
-        }
-
-        @Override
-        public boolean hasNext() {
-            return next != null;
-        }
-
-        @Override
-        public String next() {
-            checkForComodification();
-            checkForPresenceOfNextElement();
-            String result = next;
-            if (trieIterator.hasNext()) {
-                String newNext = trieIterator.next();
-                if (newNext.length() > next.length()) {
-                    currentK++;
-                    if (currentK > totalK) {
-                        next = null;
-                    } else {
-                        next = newNext;
-                    }
-                } else {
-                    next = newNext;
-                }
-            } else {
-                next = null;
-            }
-            return result;
-        }
-
-        private void checkForComodification() {
-            if (expectedModCount != modCount) {
-                throw new ConcurrentModificationException();
-            }
-        }
-
-        private void checkForPresenceOfNextElement() {
-            if (next == null) {
-                throw new NoSuchElementException();
-            }
-        }
-    }
 }
@@ -0,0 +1,336 @@
+package ua.daniilkoroid.autocomplete;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of words found by prefix.
+ * <p>
+ * Entries are keyed by prefix and number of different lengths of words, and
+ * are evicted by segmented LRU: new entry goes to probation segment, and is
+ * moved to protected segment when it is hit again. When protected segment
+ * is full, its least recently used entry goes back to probation. Entries are
+ * evicted from probation only, so prefixes that are asked for once do not
+ * push popular prefixes out.
+ * </p>
+ * <p>
+ * Modification of word makes stale only entries of prefixes of that word, so
+ * {@link #invalidate(String)} removes only them. All methods are
+ * synchronized.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class ResultCache {
+
+    /**
+     * Part of capacity that is taken by protected segment, in percents.
+     */
+    private static final int PROTECTED_PERCENT = 80;
+
+    /**
+     * Number of percents in whole.
+     */
+    private static final int WHOLE_PERCENT = 100;
+
+    /**
+     * Initial capacity of segment maps.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Load factor of segment maps.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * Multiplier of hash of prefix in hash of key.
+     */
+    private static final int HASH_MULTIPLIER = 31;
+
+    /**
+     * Inner class that represents key of entry.
+     *
+     * @author Daniil_Koroid
+     *
+     */
+    private static final class Key {
+
+        private final String prefix;
+
+        private final int k;
+
+        Key(String prefix, int k) {
+            this.prefix = prefix;
+            this.k = k;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            boolean result = false;
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                result = k == other.k && prefix.equals(other.prefix);
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return prefix.hashCode() * HASH_MULTIPLIER + k;
+        }
+    }
+
+    /**
+     * Maximum number of entries in protected segment.
+     */
+    private final int protectedCapacity;
+
+    /**
+     * Maximum number of entries in probation segment.
+     */
+    private final int probationCapacity;
+
+    /**
+     * Entries that were hit once, from the least recently used.
+     */
+    private final LinkedHashMap<Key, String[]> probation =
+            new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+
+    /**
+     * Entries that were hit more than once, from the least recently used.
+     */
+    private final LinkedHashMap<Key, String[]> protectedSegment =
+            new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+
+    /**
+     * Keys of entries by their prefix.
+     */
+    private final Map<String, List<Key>> keysByPrefix = new HashMap<>();
+
+    /**
+     * Number of invalidations, which changes whenever cached words may get
+     * stale.
+     */
+    private long epoch;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    private long invalidationCount;
+
+    /**
+     * Create empty cache.
+     *
+     * @param capacity maximum number of entries
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public ResultCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(
+                    "Capacity must be positive: " + capacity);
+        }
+        protectedCapacity = capacity * PROTECTED_PERCENT / WHOLE_PERCENT;
+        probationCapacity = capacity - protectedCapacity;
+    }
+
+    /**
+     * Get cached words of given prefix and search length.
+     * <p>
+     * Counts hit or miss.
+     * </p>
+     *
+     * @param prefix prefix of words
+     * @param k maximum differ lengths count
+     * @return cached words, or <code>null</code> if there are none
+     */
+    public synchronized String[] get(String prefix, int k) {
+        Key key = new Key(prefix, k);
+        String[] result = protectedSegment.get(key);
+        if (result == null) {
+            result = probation.remove(key);
+            if (result != null) {
+                protect(key, result);
+            }
+        }
+        if (result == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return result;
+    }
+
+    /**
+     * Current epoch of cache.
+     * <p>
+     * Epoch changes on every invalidation. Words that were found before
+     * epoch changed may be stale.
+     * </p>
+     *
+     * @return current epoch
+     */
+    public synchronized long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Cache given words of given prefix and search length, unless cache was
+     * invalidated since given epoch.
+     *
+     * @param prefix prefix of words
+     * @param k maximum differ lengths count
+     * @param words words to cache
+     * @param searchEpoch epoch of cache when search of words started
+     */
+    public synchronized void put(String prefix, int k, String[] words,
+            long searchEpoch) {
+        Key key = new Key(prefix, k);
+        if (searchEpoch == epoch && !protectedSegment.containsKey(key)
+                && probation.put(key, words) == null) {
+            keysByPrefix.computeIfAbsent(prefix, p -> new ArrayList<>())
+                    .add(key);
+            if (probation.size() > probationCapacity) {
+                evictEldest();
+            }
+        }
+    }
+
+    /**
+     * Remove entries of all prefixes of given word.
+     *
+     * @param word word that was modified
+     */
+    public synchronized void invalidate(String word) {
+        epoch++;
+        if (!keysByPrefix.isEmpty()) {
+            for (int length = 0; length <= word.length(); length++) {
+                List<Key> keys = keysByPrefix.remove(
+                        word.substring(0, length));
+                if (keys != null) {
+                    for (Key key : keys) {
+                        probation.remove(key);
+                        protectedSegment.remove(key);
+                    }
+                    invalidationCount += keys.size();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public synchronized void clear() {
+        epoch++;
+        invalidationCount += size();
+        probation.clear();
+        protectedSegment.clear();
+        keysByPrefix.clear();
+    }
+
+    /**
+     * Number of cached entries.
+     *
+     * @return number of cached entries
+     */
+    public synchronized int size() {
+        return probation.size() + protectedSegment.size();
+    }
+
+    /**
+     * Number of lookups that found cached words.
+     *
+     * @return number of hits
+     */
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of lookups that did not find cached words.
+     *
+     * @return number of misses
+     */
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    /**
+     * Part of lookups that found cached words.
+     *
+     * @return hit rate, or <code>0</code> if there were no lookups
+     */
+    public synchronized double hitRate() {
+        double result = 0;
+        long lookups = hitCount + missCount;
+        if (lookups > 0) {
+            result = (double) hitCount / lookups;
+        }
+        return result;
+    }
+
+    /**
+     * Number of entries that were evicted to free space.
+     *
+     * @return number of evictions
+     */
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Number of entries that were removed because their words were
+     * modified.
+     *
+     * @return number of invalidated entries
+     */
+    public synchronized long invalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * Move given entry to protected segment, demoting the least recently used
+     * protected entry to probation if protected segment is full.
+     *
+     * @param key key of entry
+     * @param words words of entry
+     */
+    private void protect(Key key, String[] words) {
+        protectedSegment.put(key, words);
+        if (protectedSegment.size() > protectedCapacity) {
+            Iterator<Map.Entry<Key, String[]>> eldest = protectedSegment
+                    .entrySet().iterator();
+            Map.Entry<Key, String[]> demoted = eldest.next();
+            eldest.remove();
+            probation.put(demoted.getKey(), demoted.getValue());
+            if (probation.size() > probationCapacity) {
+                evictEldest();
+            }
+        }
+    }
+
+    /**
+     * Evict the least recently used entry of probation.
+     */
+    private void evictEldest() {
+        Iterator<Map.Entry<Key, String[]>> eldest = probation.entrySet()
+                .iterator();
+        Key key = eldest.next().getKey();
+        eldest.remove();
+        List<Key> keys = keysByPrefix.get(key.prefix);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            keysByPrefix.remove(key.prefix);
+        }
+        evictionCount++;
+    }
+}
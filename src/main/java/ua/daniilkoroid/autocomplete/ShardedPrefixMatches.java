@@ -0,0 +1,102 @@
+package ua.daniilkoroid.autocomplete;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import ua.daniilkoroid.autocomplete.trie.ShardedTrie;
+import ua.daniilkoroid.autocomplete.trie.Tuple;
+
+/**
+ * {@link PrefixMatches} that splits dictionary into independent shards.
+ * <p>
+ * Words are stored in {@link ShardedTrie}: writers of different shards do not
+ * contend, and every shard can be loaded again while the others keep serving
+ * requests.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public class ShardedPrefixMatches extends PrefixMatches {
+
+    /**
+     * Shards that store words.
+     */
+    private final ShardedTrie shards;
+
+    /**
+     * Create object with given number of shards chosen by first letter of
+     * word.
+     *
+     * @param shardCount number of shards
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public ShardedPrefixMatches(int shardCount) {
+        this(new ShardedTrie(shardCount));
+    }
+
+    /**
+     * Create object with given sharded dictionary.
+     *
+     * @param shards sharded dictionary to be used
+     */
+    public ShardedPrefixMatches(ShardedTrie shards) {
+        super(shards);
+        this.shards = shards;
+    }
+
+    /**
+     * Number of shards.
+     *
+     * @return number of shards
+     */
+    public int shardCount() {
+        return shards.shardCount();
+    }
+
+    /**
+     * Index of shard that given word belongs to.
+     *
+     * @param word word to route
+     * @return index of shard of given word
+     */
+    public int shardOf(String word) {
+        return shards.shardOf(word);
+    }
+
+    /**
+     * Replace all words of given shard with words of given stream that
+     * belong to it.
+     * <p>
+     * Strings are filtered the same way as by {@link #add(String...)}. Words
+     * of other shards are skipped, so the whole dictionary source may be
+     * given. Other shards keep serving requests during reload.
+     * </p>
+     *
+     * @param shard index of shard
+     * @param strings strings to be stored in given shard
+     * @return number of words in given shard after reload
+     * @see ShardedTrie#reload(int, java.util.Collection)
+     */
+    public int reload(int shard, Stream<String> strings) {
+        List<Tuple> tuples = new ArrayList<>();
+        for (Tuple tuple : toTuples(strings)) {
+            if (shards.shardOf(tuple.getTerm()) == shard) {
+                tuples.add(tuple);
+            }
+        }
+        shards.reload(shard, tuples);
+        return shards.shardSize(shard);
+    }
+
+    /**
+     * Build given shard anew from its words.
+     *
+     * @param shard index of shard
+     * @see ShardedTrie#rebuild(int)
+     */
+    public void rebuild(int shard) {
+        shards.rebuild(shard);
+    }
+}
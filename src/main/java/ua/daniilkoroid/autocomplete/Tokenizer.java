@@ -0,0 +1,195 @@
+package ua.daniilkoroid.autocomplete;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Class that splits text read from {@link Reader} into words.
+ * <p>
+ * Word is a run of letters and digits, so whitespace, punctuation and any
+ * other chars separate words. Chars are checked by code point, so letters
+ * outside of Basic Multilingual Plane are not split into halves of surrogate
+ * pair. Words keep case of text. Only words longer than given minimal length
+ * are returned. Text is read in chunks into one buffer that is reused for the
+ * whole text, and strings are created only for returned words, so memory does
+ * not depend on length of text, only on length of the longest word.
+ * </p>
+ * <p>
+ * Tokenizer does not close given reader.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class Tokenizer {
+
+    /**
+     * Initial size of buffer.
+     */
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * The first char that is not ASCII.
+     */
+    private static final char FIRST_NON_ASCII = 128;
+
+    /**
+     * Reader of text.
+     */
+    private final Reader reader;
+
+    /**
+     * Words must be longer than this length to be returned.
+     */
+    private final int minimalLength;
+
+    /**
+     * Chunk of text.
+     */
+    private char[] buffer;
+
+    /**
+     * Position of the next char to look at in buffer.
+     */
+    private int position;
+
+    /**
+     * Number of chars of text in buffer that can be looked at.
+     */
+    private int limit;
+
+    /**
+     * Number of chars of text in buffer. It is bigger than {@link #limit}
+     * only by high surrogate that was read last, while the rest of its pair
+     * is not read yet.
+     */
+    private int filled;
+
+    /**
+     * Create tokenizer.
+     *
+     * @param reader reader of text
+     * @param minimalLength words must be longer than this length to be
+     * returned
+     */
+    public Tokenizer(Reader reader, int minimalLength) {
+        this.reader = reader;
+        this.minimalLength = minimalLength;
+        buffer = new char[DEFAULT_BUFFER_SIZE];
+    }
+
+    /**
+     * Read the next word that is longer than minimal length.
+     *
+     * @return the next word or <code>null</code> if text is over
+     * @throws IOException if reading fails
+     */
+    public String next() throws IOException {
+        String result = null;
+        while (result == null && skipSeparators()) {
+            int start = position;
+            boolean more = true;
+            while (more) {
+                int length = wordCharLength();
+                while (length > 0) {
+                    position += length;
+                    length = wordCharLength();
+                }
+                if (position == limit) {
+                    more = refill(start);
+                    start = 0;
+                } else {
+                    more = false;
+                }
+            }
+            if (position - start > minimalLength) {
+                result = new String(buffer, start, position - start);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Move position to the next char of word, reading text if necessary.
+     *
+     * @return <code>true</code> if position is at char of word.
+     * <code>false</code> if text is over
+     * @throws IOException if reading fails
+     */
+    private boolean skipSeparators() throws IOException {
+        boolean found = false;
+        boolean more = true;
+        while (!found && more) {
+            while (position < limit && wordCharLength() == 0) {
+                position++;
+            }
+            found = position < limit;
+            if (!found) {
+                more = refill(position);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Read next chunk of text, keeping chars from given index at the start of
+     * buffer.
+     * <p>
+     * Buffer grows if it is full of kept chars. High surrogate that ends
+     * chunk is not looked at until the next chunk is read.
+     * </p>
+     *
+     * @param keepFrom index of the first char to keep
+     * @return <code>true</code> if any chars were read or are left to look
+     * at. <code>false</code> if text is over
+     * @throws IOException if reading fails
+     */
+    private boolean refill(int keepFrom) throws IOException {
+        int kept = filled - keepFrom;
+        if (kept == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        } else {
+            System.arraycopy(buffer, keepFrom, buffer, 0, kept);
+        }
+        position -= keepFrom;
+        int read = reader.read(buffer, kept, buffer.length - kept);
+        filled = kept;
+        if (read > 0) {
+            filled += read;
+        }
+        limit = filled;
+        if (read > 0 && Character.isHighSurrogate(buffer[limit - 1])) {
+            limit--;
+        }
+        return read > 0 || position < limit;
+    }
+
+    /**
+     * Number of chars taken by letter or digit at position.
+     *
+     * @return 1 or 2 for surrogate pair if there is letter or digit at
+     * position. 0 if there is any other char or text is over
+     */
+    private int wordCharLength() {
+        int result = 0;
+        if (position < limit) {
+            char c = buffer[position];
+            if (c < FIRST_NON_ASCII) {
+                if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z'
+                        || c >= '0' && c <= '9') {
+                    result = 1;
+                }
+            } else if (Character.isHighSurrogate(c) && position + 1 < limit
+                    && Character.isLowSurrogate(buffer[position + 1])) {
+                if (Character.isLetterOrDigit(
+                        Character.toCodePoint(c, buffer[position + 1]))) {
+                    result = 2;
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                result = 1;
+            }
+        }
+        return result;
+    }
+}
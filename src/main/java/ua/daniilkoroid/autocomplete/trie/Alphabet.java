@@ -0,0 +1,184 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.Arrays;
+
+/**
+ * Class that represents alphabet of trie: set of chars that can be used in
+ * words, each mapped to dense index starting from <code>0</code>.
+ * <p>
+ * Tries that link node to children by array index need array of alphabet size
+ * in every node. Alphabet built from actual words keeps that array as short as
+ * possible for any language: only chars that really occur get an index.
+ * Characters outside of Basic Multilingual Plane are stored as their
+ * surrogate chars, so alphabet built from words covers any code point found
+ * in them.
+ * </p>
+ * <p>
+ * Indexes follow order of chars, so tries that visit children by index visit
+ * them alphabetically. This class is immutable.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class Alphabet {
+
+    /**
+     * English lower-case alphabet.
+     */
+    public static final Alphabet ENGLISH = range('a', 'z');
+
+    /**
+     * Index of char that is not in alphabet.
+     */
+    public static final int ABSENT = -1;
+
+    /**
+     * The smallest char of alphabet.
+     */
+    private final char base;
+
+    /**
+     * Index of every char from {@link #base}, by char minus {@link #base}.
+     * {@link #ABSENT} for chars that are not in alphabet.
+     */
+    private final int[] indexes;
+
+    /**
+     * Chars of alphabet by index.
+     */
+    private final char[] chars;
+
+    private Alphabet(char[] sortedChars) {
+        chars = sortedChars;
+        if (chars.length == 0) {
+            base = 0;
+            indexes = new int[0];
+        } else {
+            base = chars[0];
+            indexes = new int[chars[chars.length - 1] - base + 1];
+            Arrays.fill(indexes, ABSENT);
+            for (int i = 0; i < chars.length; i++) {
+                indexes[chars[i] - base] = i;
+            }
+        }
+    }
+
+    /**
+     * Create alphabet of all chars from given first to given last inclusive.
+     *
+     * @param first the first char
+     * @param last the last char
+     * @return created alphabet
+     * @throws IllegalArgumentException if last char is less than first
+     */
+    public static Alphabet range(char first, char last) {
+        if (last < first) {
+            throw new IllegalArgumentException("Empty range: " + first + "-"
+                    + last);
+        }
+        char[] chars = new char[last - first + 1];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (first + i);
+        }
+        return new Alphabet(chars);
+    }
+
+    /**
+     * Create alphabet of given chars.
+     *
+     * @param chars chars of alphabet in any order, duplicates are allowed
+     * @return created alphabet
+     */
+    public static Alphabet of(CharSequence chars) {
+        char[] sorted = chars.toString().toCharArray();
+        Arrays.sort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[count] = sorted[i];
+                count++;
+            }
+        }
+        return new Alphabet(Arrays.copyOf(sorted, count));
+    }
+
+    /**
+     * Create alphabet of all chars that occur in given words.
+     *
+     * @param words words to take chars from
+     * @return created alphabet
+     */
+    public static Alphabet fromWords(Iterable<String> words) {
+        boolean[] present = new boolean[Character.MAX_VALUE + 1];
+        int count = 0;
+        for (String word : words) {
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (!present[c]) {
+                    present[c] = true;
+                    count++;
+                }
+            }
+        }
+        char[] chars = new char[count];
+        int index = 0;
+        for (int c = 0; c < present.length; c++) {
+            if (present[c]) {
+                chars[index] = (char) c;
+                index++;
+            }
+        }
+        return new Alphabet(chars);
+    }
+
+    /**
+     * Number of chars in alphabet.
+     *
+     * @return number of chars in alphabet
+     */
+    public int size() {
+        return chars.length;
+    }
+
+    /**
+     * Index of given char.
+     *
+     * @param c char to find index of
+     * @return index of given char or {@link #ABSENT} if it is not in alphabet
+     */
+    public int indexOf(char c) {
+        int offset = c - base;
+        int result = ABSENT;
+        if (offset >= 0 && offset < indexes.length) {
+            result = indexes[offset];
+        }
+        return result;
+    }
+
+    /**
+     * Char by its index.
+     *
+     * @param index index of char
+     * @return char with given index
+     * @throws ArrayIndexOutOfBoundsException if index is not less than
+     * {@link #size()}
+     */
+    public char charAt(int index) {
+        return chars[index];
+    }
+
+    /**
+     * Checks if every char of given word is in alphabet.
+     *
+     * @param word word to check
+     * @return <code>true</code> if all chars of given word are in alphabet
+     */
+    public boolean supports(CharSequence word) {
+        boolean result = true;
+        for (int i = 0; i < word.length() && result; i++) {
+            result = indexOf(word.charAt(i)) != ABSENT;
+        }
+        return result;
+    }
+}
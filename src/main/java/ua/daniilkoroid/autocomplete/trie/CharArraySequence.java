@@ -0,0 +1,70 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+/**
+ * Mutable view of part of char array as {@link CharSequence}.
+ * <p>
+ * Used to pass words to {@link WordVisitor} without creating strings. The same
+ * view is pointed to the next part of array for every next word.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+final class CharArraySequence implements CharSequence {
+
+    /**
+     * Viewed array.
+     */
+    private char[] chars;
+
+    /**
+     * Index of the first viewed char.
+     */
+    private int offset;
+
+    /**
+     * Number of viewed chars.
+     */
+    private int length;
+
+    /**
+     * Point this view to given part of given array.
+     *
+     * @param chars array to view
+     * @param offset index of the first viewed char
+     * @param length number of viewed chars
+     */
+    void set(char[] chars, int offset, int length) {
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", length: " + length);
+        }
+        return chars[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Start: " + start + ", end: "
+                    + end + ", length: " + length);
+        }
+        return new String(chars, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, offset, length);
+    }
+}
@@ -0,0 +1,584 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Class that represents in-memory dictionary using trie with adaptive node
+ * layout.
+ * <p>
+ * Unlike {@link RWayTrie} nodes do not allocate link for every letter of
+ * alphabet. Node with few children keeps them in small arrays sorted by
+ * letter, so leaf nodes have no arrays at all. Node with many children
+ * switches to array indexed by letter that covers only the range between the
+ * smallest and the biggest of its letters, if that range is not too wide.
+ * Child of dense node is found in constant time, and child of sparse node by
+ * binary search, in time logarithmic in number of its children. So
+ * {@link #contains(String)} takes time linear in key length times logarithm
+ * of alphabet size at worst.
+ * </p>
+ * <p>
+ * Any <code>char</code> can be used in stored words.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public class CompactTrie implements Trie {
+
+    /**
+     * Inner class that represents node of trie.
+     * <p>
+     * Children are stored in one of two layouts:
+     * </p>
+     * <ul>
+     * <li>sparse - {@link #labels} holds sorted letters and {@link #next}
+     * holds children in the same order;</li>
+     * <li>dense - {@link #labels} is <code>null</code> and {@link #next} is
+     * indexed by letter minus {@link #base}.</li>
+     * </ul>
+     *
+     * @author Daniil_Koroid
+     *
+     */
+    private static class Node {
+
+        /**
+         * Value to be stored.
+         * <p>
+         * Currently value is weight of term.
+         * </p>
+         */
+        private int value;
+
+        /**
+         * Sorted letters of children in sparse layout. <code>null</code> in
+         * dense layout or if node has no children.
+         */
+        private char[] labels;
+
+        /**
+         * Links to children. <code>null</code> if node has no children.
+         */
+        private Node[] next;
+
+        /**
+         * Number of children.
+         */
+        private int childCount;
+
+        /**
+         * Letter that corresponds to the first element of {@link #next} in
+         * dense layout.
+         */
+        private char base;
+
+        /**
+         * Checks if children are stored in dense layout.
+         *
+         * @return <code>true</code> if layout is dense
+         */
+        private boolean isDense() {
+            return labels == null && next != null;
+        }
+
+        /**
+         * Find child by given letter.
+         *
+         * @param c letter of child
+         * @return child node if present. Otherwise - <code>null</code>
+         */
+        private Node child(char c) {
+            Node result = null;
+            if (isDense()) {
+                int index = c - base;
+                if (index >= 0 && index < next.length) {
+                    result = next[index];
+                }
+            } else if (childCount > 0) {
+                int index = Arrays.binarySearch(labels, 0, childCount, c);
+                if (index >= 0) {
+                    result = next[index];
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Add new child with given letter.
+         * <p>
+         * Node must not already have child with given letter.
+         * </p>
+         *
+         * @param c letter of child
+         * @param child child to add
+         */
+        private void addChild(char c, Node child) {
+            if (isDense() && span(base, (char) (base + next.length - 1), c)
+                    > DENSE_MAX_SPAN) {
+                toSparse();
+                addSparseChild(c, child);
+            } else if (isDense()) {
+                addDenseChild(c, child);
+            } else if (childCount == SPARSE_LIMIT
+                    && span(labels[0], labels[childCount - 1], c)
+                    <= DENSE_MAX_SPAN) {
+                toDense(c);
+                addDenseChild(c, child);
+            } else {
+                addSparseChild(c, child);
+            }
+            childCount++;
+        }
+
+        /**
+         * Remove child with given letter.
+         *
+         * @param c letter of child to remove
+         */
+        private void removeChild(char c) {
+            if (isDense()) {
+                next[c - base] = null;
+                childCount--;
+                if (childCount <= SPARSE_LIMIT / 2) {
+                    toSparse();
+                }
+            } else {
+                int index = Arrays.binarySearch(labels, 0, childCount, c);
+                int tail = childCount - index - 1;
+                System.arraycopy(labels, index + 1, labels, index, tail);
+                System.arraycopy(next, index + 1, next, index, tail);
+                childCount--;
+                next[childCount] = null;
+                if (childCount == 0) {
+                    labels = null;
+                    next = null;
+                }
+            }
+        }
+
+        /**
+         * Get letter of child by its position in {@link #next}.
+         *
+         * @param index position in {@link #next}
+         * @return letter of child
+         */
+        private char label(int index) {
+            char result;
+            if (isDense()) {
+                result = (char) (base + index);
+            } else {
+                result = labels[index];
+            }
+            return result;
+        }
+
+        /**
+         * Number of positions in {@link #next} that can hold children.
+         *
+         * @return number of positions to check for children
+         */
+        private int slots() {
+            int result;
+            if (isDense()) {
+                result = next.length;
+            } else {
+                result = childCount;
+            }
+            return result;
+        }
+
+        private void addSparseChild(char c, Node child) {
+            if (labels == null) {
+                labels = new char[1];
+                next = new Node[1];
+            } else if (childCount == labels.length) {
+                labels = Arrays.copyOf(labels, childCount * 2);
+                next = Arrays.copyOf(next, childCount * 2);
+            }
+            int index = -Arrays.binarySearch(labels, 0, childCount, c) - 1;
+            int tail = childCount - index;
+            System.arraycopy(labels, index, labels, index + 1, tail);
+            System.arraycopy(next, index, next, index + 1, tail);
+            labels[index] = c;
+            next[index] = child;
+        }
+
+        private void addDenseChild(char c, Node child) {
+            int last = base + next.length - 1;
+            if (c < base || c > last) {
+                char newBase = (char) Math.min(c, base);
+                int newLast = Math.max(c, last);
+                Node[] newNext = new Node[newLast - newBase + 1];
+                System.arraycopy(next, 0, newNext, base - newBase,
+                        next.length);
+                next = newNext;
+                base = newBase;
+            }
+            next[c - base] = child;
+        }
+
+        private void toDense(char c) {
+            char first = (char) Math.min(labels[0], c);
+            int last = Math.max(labels[childCount - 1], c);
+            Node[] dense = new Node[last - first + 1];
+            for (int i = 0; i < childCount; i++) {
+                dense[labels[i] - first] = next[i];
+            }
+            labels = null;
+            next = dense;
+            base = first;
+        }
+
+        private void toSparse() {
+            int capacity = Math.max(childCount, SPARSE_LIMIT);
+            char[] sparseLabels = new char[capacity];
+            Node[] sparseNext = new Node[capacity];
+            int count = 0;
+            for (int i = 0; i < next.length; i++) {
+                if (next[i] != null) {
+                    sparseLabels[count] = (char) (base + i);
+                    sparseNext[count] = next[i];
+                    count++;
+                }
+            }
+            labels = sparseLabels;
+            next = sparseNext;
+            base = 0;
+        }
+
+        private static int span(char first, char last, char c) {
+            return Math.max(last, c) - Math.min(first, c) + 1;
+        }
+    }
+
+    /**
+     * Maximal number of children that are stored in sparse layout while they
+     * fit into {@link #DENSE_MAX_SPAN}.
+     */
+    private static final int SPARSE_LIMIT = 8;
+
+    /**
+     * Maximal distance between the smallest and the biggest letter of children
+     * that can be stored in dense layout.
+     * <p>
+     * Nodes with children letters spread wider stay sparse and use binary
+     * search.
+     * </p>
+     */
+    private static final int DENSE_MAX_SPAN = 64;
+
+    /**
+     * Empty prefix.
+     * <p>
+     * Empty prefix is prefix for all words.
+     * </p>
+     */
+    private static final String EMPTY_PREFIX = "";
+
+    /**
+     * Number of different lengths that does not limit search.
+     */
+    private static final int ALL_LENGTHS = Integer.MAX_VALUE;
+
+    /**
+     * Empty node root.
+     */
+    private final Node root;
+
+    /**
+     * Number of stored tuples.
+     */
+    private int size;
+
+    /**
+     * Stores number of modifications.
+     */
+    private int modCount;
+
+    /**
+     * Create empty CompactTrie.
+     */
+    public CompactTrie() {
+        root = new Node();
+        size = 0;
+    }
+
+    @Override
+    public void add(Tuple tuple) {
+        if (tuple.getWeight() == 0) {
+            return;
+        }
+        String term = tuple.getTerm();
+        Node node = root;
+        for (int d = 0; d < term.length(); d++) {
+            char c = term.charAt(d);
+            Node child = node.child(c);
+            if (child == null) {
+                child = new Node();
+                node.addChild(c, child);
+            }
+            node = child;
+        }
+        if (node.value == 0) {
+            updateModificationsCount();
+            node.value = tuple.getWeight();
+            size++;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only stored words are contained. Prefixes of stored words are not.
+     * </p>
+     */
+    @Override
+    public boolean contains(String word) {
+        Node node = get(word);
+        return node != null && node.value != 0;
+    }
+
+    @Override
+    public int weight(String word) {
+        int result = 0;
+        Node node = get(word);
+        if (node != null) {
+            result = node.value;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean delete(String word) {
+        if (!contains(word)) {
+            return false;
+        }
+        updateModificationsCount();
+        delete(root, word, 0);
+        size--;
+        return true;
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return wordsWithPrefix(EMPTY_PREFIX);
+    }
+
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return wordsWithPrefix(pref, ALL_LENGTHS);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Once the k-th length is found, nodes deeper than it are not queued.
+     * </p>
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref, int k) {
+        Node node = get(pref);
+        return new CompactTrieIterable(node, pref, k);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find node with given key.
+     *
+     * @param key key to find node by
+     * @return node with given key if found successfully. Otherwise -
+     * <code>null</code>
+     */
+    private Node get(String key) {
+        Node node = root;
+        for (int d = 0; d < key.length() && node != null; d++) {
+            node = node.child(key.charAt(d));
+        }
+        return node;
+    }
+
+    /**
+     * Deletes given key from given node.
+     *
+     * @param node node to delete given key
+     * @param key key to delete
+     * @param d index of char in key that is currently used to be pointed at
+     * @return <code>true</code> if given node became empty and should be
+     * removed from its parent
+     */
+    private boolean delete(Node node, String key, int d) {
+        if (d == key.length()) {
+            node.value = 0;
+        } else {
+            char c = key.charAt(d);
+            if (delete(node.child(c), key, d + 1)) {
+                node.removeChild(c);
+            }
+        }
+        return node.value == 0 && node.childCount == 0;
+    }
+
+    /**
+     * Updates modification count of CompactTrie.
+     */
+    private void updateModificationsCount() {
+        modCount++;
+    }
+
+    private class CompactTrieIterable implements Iterable<String> {
+
+        private Iterator<String> iterator;
+
+        public CompactTrieIterable(Node root, String prefix, int lengthCount) {
+            iterator = new CompactTrieIterator(root, prefix, lengthCount);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return iterator;
+        }
+
+    }
+
+    /**
+     * Local class used to associate node with prefix that is stored with given
+     * node.
+     */
+    private static class NodePrefixTuple {
+
+        /**
+         * Node to store in tuple.
+         */
+        private final Node node;
+
+        /**
+         * Prefix that is associated with given node.
+         */
+        private final String prefix;
+
+        /**
+         * Create tuple of node and associated prefix.
+         *
+         * @param node node to store
+         * @param prefix appropriate prefix
+         */
+        public NodePrefixTuple(Node node, String prefix) {
+            this.node = node;
+            this.prefix = prefix;
+        }
+    }
+
+    private class CompactTrieIterator implements Iterator<String> {
+
+        private final Queue<NodePrefixTuple> nodePrefixQueue =
+                new LinkedList<>();
+
+        private NodePrefixTuple next;
+
+        private int expectedModCount = modCount;
+
+        /**
+         * Number of different lengths of words that may still be found.
+         */
+        private int lengthsLeft;
+
+        /**
+         * Length of the last found word.
+         */
+        private int lastLength = -1;
+
+        /**
+         * Length of the longest word that may be found.
+         */
+        private int maxLength = ALL_LENGTHS;
+
+        public CompactTrieIterator(Node root, String prefix,
+                int lengthCount) {
+            if (root == null || prefix == null) {
+                next = null;
+                return;
+            }
+            lengthsLeft = Math.max(1, lengthCount);
+            nodePrefixQueue.offer(new NodePrefixTuple(root, prefix));
+            findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            checkForComodification();
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            NodePrefixTuple toReturn = next;
+            findNext();
+            return toReturn.prefix;
+        }
+
+        private void findNext() {
+            boolean found = false;
+            while (!found) {
+                if (nodePrefixQueue.isEmpty()) {
+                    next = null;
+                    return;
+                }
+                NodePrefixTuple tuple = nodePrefixQueue.remove();
+                Node node = tuple.node;
+                String prefix = tuple.prefix;
+                if (prefix.length() > maxLength) {
+                    nodePrefixQueue.clear();
+                    next = null;
+                    return;
+                }
+                if (node.value != 0) {
+                    next = tuple;
+                    found = true;
+                    countLength(prefix.length());
+                }
+                for (int i = 0; i < node.slots()
+                        && prefix.length() < maxLength; i++) {
+                    if (node.next[i] != null) {
+                        String newPref = prefix + node.label(i);
+                        nodePrefixQueue.offer(
+                                new NodePrefixTuple(node.next[i], newPref));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Count length of found word, and bound depth of search once the
+         * last allowed length is found.
+         *
+         * @param length length of found word
+         */
+        private void countLength(int length) {
+            if (length != lastLength) {
+                lastLength = length;
+                lengthsLeft--;
+                if (lengthsLeft == 0) {
+                    maxLength = length;
+                }
+            }
+        }
+
+        private void checkForComodification() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Class that represents read-only in-memory dictionary compiled from other
+ * {@link Trie}.
+ * <p>
+ * Nodes are stored in flat primitive arrays instead of node objects, as
+ * described in {@link FlatTrie}. Every node costs 14 bytes.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class CompiledTrie extends FlatTrie {
+
+    /**
+     * Letter on the link from parent to node, by number of node.
+     */
+    private final char[] labels;
+
+    /**
+     * Number of the first child, by number of node.
+     * <p>
+     * Children of node <code>i</code> are nodes from
+     * <code>firstChild[i]</code> inclusive to <code>firstChild[i + 1]</code>
+     * exclusive. Contains one more element than there are nodes.
+     * </p>
+     */
+    private final int[] firstChild;
+
+    /**
+     * Number of parent, by number of node.
+     */
+    private final int[] parents;
+
+    /**
+     * Weight of word that ends in node, by number of node. <code>0</code> if
+     * no word ends in node.
+     */
+    private final int[] weights;
+
+    /**
+     * Number of stored words.
+     */
+    private final int size;
+
+    private CompiledTrie(char[] labels, int[] firstChild, int[] parents,
+            int[] weights, int size) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.parents = parents;
+        this.weights = weights;
+        this.size = size;
+    }
+
+    /**
+     * Compile all words of given trie with their weights.
+     * <p>
+     * Given trie is not modified and can be discarded afterwards.
+     * </p>
+     *
+     * @param trie trie to compile
+     * @return read-only trie with the same words and weights
+     */
+    public static CompiledTrie compile(Trie trie) {
+        List<Tuple> tuples = new ArrayList<>(trie.size());
+        for (String word : trie.words()) {
+            tuples.add(new Tuple(word, trie.weight(word)));
+        }
+        tuples.sort(Comparator.comparing(Tuple::getTerm));
+        return new Compiler(tuples).compile();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    int nodeCount() {
+        return labels.length;
+    }
+
+    @Override
+    char label(int node) {
+        return labels[node];
+    }
+
+    @Override
+    int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    @Override
+    int parent(int node) {
+        return parents[node];
+    }
+
+    @Override
+    int nodeWeight(int node) {
+        return weights[node];
+    }
+
+    /**
+     * Builder of flat arrays from sorted tuples.
+     * <p>
+     * Every node corresponds to the range of sorted tuples that share node's
+     * prefix. Nodes are numbered in the order they are put in queue, which
+     * makes numbering breadth-first.
+     * </p>
+     */
+    private static class Compiler {
+
+        private final List<Tuple> tuples;
+
+        private char[] labels;
+        private int[] firstChild;
+        private int[] parents;
+        private int[] weights;
+
+        /**
+         * Queue of node ranges. Node <code>i</code> covers tuples from
+         * <code>from[i]</code> inclusive to <code>to[i]</code> exclusive and
+         * has depth <code>depth[i]</code>.
+         */
+        private int[] from;
+        private int[] to;
+        private int[] depth;
+
+        /**
+         * Number of nodes that are put in queue.
+         */
+        private int count;
+
+        Compiler(List<Tuple> tuples) {
+            this.tuples = tuples;
+            int capacity = 1;
+            for (Tuple tuple : tuples) {
+                capacity += tuple.getTerm().length();
+            }
+            labels = new char[capacity];
+            firstChild = new int[capacity + 1];
+            parents = new int[capacity];
+            weights = new int[capacity];
+            from = new int[capacity];
+            to = new int[capacity];
+            depth = new int[capacity];
+        }
+
+        CompiledTrie compile() {
+            enqueue(NO_NODE, (char) 0, 0, tuples.size(), 0);
+            for (int node = 0; node < count; node++) {
+                firstChild[node] = count;
+                int lo = from[node];
+                int hi = to[node];
+                int d = depth[node];
+                if (lo < hi && tuples.get(lo).getTerm().length() == d) {
+                    weights[node] = tuples.get(lo).getWeight();
+                    lo++;
+                }
+                while (lo < hi) {
+                    char c = tuples.get(lo).getTerm().charAt(d);
+                    int groupEnd = lo + 1;
+                    while (groupEnd < hi
+                            && tuples.get(groupEnd).getTerm().charAt(d) == c) {
+                        groupEnd++;
+                    }
+                    enqueue(node, c, lo, groupEnd, d + 1);
+                    lo = groupEnd;
+                }
+            }
+            firstChild[count] = count;
+            return new CompiledTrie(Arrays.copyOf(labels, count),
+                    Arrays.copyOf(firstChild, count + 1),
+                    Arrays.copyOf(parents, count),
+                    Arrays.copyOf(weights, count), countWords());
+        }
+
+        private void enqueue(int parent, char c, int lo, int hi, int d) {
+            labels[count] = c;
+            parents[count] = parent;
+            from[count] = lo;
+            to[count] = hi;
+            depth[count] = d;
+            count++;
+        }
+
+        private int countWords() {
+            int result = 0;
+            for (int i = 0; i < count; i++) {
+                if (weights[i] != 0) {
+                    result++;
+                }
+            }
+            return result;
+        }
+    }
+}
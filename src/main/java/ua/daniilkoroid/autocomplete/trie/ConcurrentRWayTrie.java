@@ -0,0 +1,474 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class that represents thread-safe in-memory dictionary using R-way trie.
+ * <p>
+ * Readers never block: {@link #contains(String)}, {@link #weight(String)} and
+ * {@link #wordsWithPrefix(String)} only read volatile node values and child
+ * links. Writers are serialized only with writers of words that start from the
+ * same char, as every first char has its own lock. Child links are
+ * published with compare-and-set, so readers always see fully constructed
+ * nodes.
+ * </p>
+ * <p>
+ * Iterators are weakly consistent: they never throw
+ * {@link java.util.ConcurrentModificationException} and may or may not
+ * reflect modifications made after their creation.
+ * </p>
+ * <p>
+ * Words can consist only of chars of {@link Alphabet} given on creation.
+ * Words with other chars are never contained, and adding them throws
+ * {@link IllegalArgumentException}.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public class ConcurrentRWayTrie implements Trie {
+
+    /**
+     * Inner class that represents node of trie.
+     *
+     * @author Daniil_Koroid
+     *
+     */
+    private static class Node {
+
+        /**
+         * Value to be stored.
+         * <p>
+         * Currently value is weight of term. <code>0</code> if node does not
+         * hold a word.
+         * </p>
+         */
+        private volatile int value;
+
+        /**
+         * Links to next nodes.
+         */
+        private final AtomicReferenceArray<Node> next;
+
+        /**
+         * Create node.
+         *
+         * @param alphabetSize size of used alphabet
+         */
+        Node(int alphabetSize) {
+            next = new AtomicReferenceArray<>(alphabetSize);
+        }
+    }
+
+    /**
+     * Empty prefix.
+     * <p>
+     * Empty prefix is prefix for all words.
+     * </p>
+     */
+    private static final String EMPTY_PREFIX = "";
+
+    /**
+     * Alphabet of stored words.
+     */
+    private final Alphabet alphabet;
+
+    /**
+     * Empty node root.
+     */
+    private final Node root;
+
+    /**
+     * Number of stored tuples.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Locks of writers by first char of word. The last lock is used for
+     * empty word.
+     */
+    private final ReentrantLock[] locks;
+
+    /**
+     * Create empty ConcurrentRWayTrie.
+     * <p>
+     * Currently supported alphabet is {@link Alphabet#ENGLISH}.
+     * </p>
+     */
+    public ConcurrentRWayTrie() {
+        this(Alphabet.ENGLISH);
+    }
+
+    /**
+     * Create empty ConcurrentRWayTrie for words of given alphabet.
+     * <p>
+     * Every node has as many links as there are chars in given alphabet, and
+     * every char has its own lock of writers.
+     * </p>
+     *
+     * @param alphabet alphabet of words to store
+     */
+    public ConcurrentRWayTrie(Alphabet alphabet) {
+        this.alphabet = alphabet;
+        root = new Node(alphabet.size());
+        locks = new ReentrantLock[alphabet.size() + 1];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet of this trie
+     */
+    @Override
+    public void add(Tuple tuple) {
+        putIfAbsent(tuple);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Term is looked up and added under lock of writers of term, so of
+     * concurrent calls with the same term only one adds it.
+     * </p>
+     *
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet of this trie
+     */
+    @Override
+    public int putIfAbsent(Tuple tuple) {
+        String term = tuple.getTerm();
+        checkSupported(term);
+        int previous;
+        ReentrantLock lock = lockOf(term);
+        lock.lock();
+        try {
+            if (tuple.getWeight() == 0) {
+                previous = weight(term);
+            } else {
+                Node node = getOrCreate(term);
+                previous = node.value;
+                if (previous == 0) {
+                    node.value = tuple.getWeight();
+                    size.incrementAndGet();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Weight is replaced in place under lock of writers of term, so readers
+     * see either old or new weight and never miss present term.
+     * </p>
+     *
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet of this trie
+     */
+    @Override
+    public int upsert(Tuple tuple) {
+        String term = tuple.getTerm();
+        checkSupported(term);
+        int previous;
+        ReentrantLock lock = lockOf(term);
+        lock.lock();
+        try {
+            if (tuple.getWeight() == 0) {
+                previous = weight(term);
+                delete(term);
+            } else {
+                Node node = getOrCreate(term);
+                previous = node.value;
+                node.value = tuple.getWeight();
+                if (previous == 0) {
+                    size.incrementAndGet();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Weight is updated in place under lock of writers of word, so
+     * concurrent additions to the same word are never lost, and readers see
+     * either old or new weight.
+     * </p>
+     *
+     * @throws IllegalArgumentException if word has char that is not in
+     * alphabet of this trie
+     */
+    @Override
+    public int addWeight(String word, int delta) {
+        if (delta <= 0) {
+            throw new IllegalArgumentException(
+                    "Delta must be positive: " + delta);
+        }
+        checkSupported(word);
+        int result;
+        ReentrantLock lock = lockOf(word);
+        lock.lock();
+        try {
+            Node node = getOrCreate(word);
+            if (node.value == 0) {
+                size.incrementAndGet();
+            }
+            result = node.value + delta;
+            node.value = result;
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only stored words are contained. Prefixes of stored words are not.
+     * </p>
+     */
+    @Override
+    public boolean contains(String word) {
+        return weight(word) != 0;
+    }
+
+    @Override
+    public int weight(String word) {
+        int result = 0;
+        Node node = get(word);
+        if (node != null) {
+            result = node.value;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean delete(String word) {
+        boolean result = false;
+        if (alphabet.supports(word)) {
+            ReentrantLock lock = lockOf(word);
+            lock.lock();
+            try {
+                result = contains(word);
+                if (result) {
+                    delete(root, word, 0);
+                    size.decrementAndGet();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return wordsWithPrefix(EMPTY_PREFIX);
+    }
+
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return () -> new ConcurrentRWayTrieIterator(get(pref), pref);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Find node with given key.
+     *
+     * @param key key to find node by
+     * @return node with given key if found successfully. Otherwise -
+     * <code>null</code>
+     */
+    private Node get(String key) {
+        Node node = root;
+        for (int d = 0; d < key.length() && node != null; d++) {
+            int c = alphabet.indexOf(key.charAt(d));
+            if (c == Alphabet.ABSENT) {
+                node = null;
+            } else {
+                node = node.next.get(c);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Find node with given key, creating missing nodes on its path.
+     * <p>
+     * Lock of writers of given key must be held.
+     * </p>
+     *
+     * @param key key to find node by
+     * @return existing or created node with given key
+     */
+    private Node getOrCreate(String key) {
+        Node node = root;
+        for (int d = 0; d < key.length(); d++) {
+            node = childOrCreate(node, index(key, d));
+        }
+        return node;
+    }
+
+    /**
+     * Get child of given node by given char index, creating it if absent.
+     *
+     * @param node parent node
+     * @param c index of char
+     * @return existing or created child
+     */
+    private Node childOrCreate(Node node, int c) {
+        Node child = node.next.get(c);
+        if (child == null) {
+            Node created = new Node(alphabet.size());
+            if (node.next.compareAndSet(c, null, created)) {
+                child = created;
+            } else {
+                child = node.next.get(c);
+            }
+        }
+        return child;
+    }
+
+    /**
+     * Deletes given key from given node.
+     *
+     * @param node node to delete given key
+     * @param key key to delete
+     * @param d index of char in key that is currently used to be pointed at
+     * @return <code>true</code> if given node became empty and should be
+     * unlinked from its parent
+     */
+    private boolean delete(Node node, String key, int d) {
+        if (d == key.length()) {
+            node.value = 0;
+        } else {
+            int c = index(key, d);
+            if (delete(node.next.get(c), key, d + 1)) {
+                node.next.set(c, null);
+            }
+        }
+        boolean empty = node.value == 0;
+        for (int c = 0; c < node.next.length() && empty; c++) {
+            empty = node.next.get(c) == null;
+        }
+        return empty;
+    }
+
+    /**
+     * Get lock of writers of given word.
+     *
+     * @param word word to modify
+     * @return lock to hold while modifying given word
+     */
+    private ReentrantLock lockOf(String word) {
+        ReentrantLock result;
+        if (word.isEmpty()) {
+            result = locks[alphabet.size()];
+        } else {
+            result = locks[index(word, 0)];
+        }
+        return result;
+    }
+
+    /**
+     * Index of char of given key in alphabet.
+     * <p>
+     * Key must be in alphabet.
+     * </p>
+     *
+     * @param key key to take char from
+     * @param d index of char in key
+     * @return index of char in alphabet
+     */
+    private int index(String key, int d) {
+        return alphabet.indexOf(key.charAt(d));
+    }
+
+    /**
+     * Checks that all chars of given term are in alphabet of this trie.
+     *
+     * @param term term to check
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet
+     */
+    private void checkSupported(String term) {
+        if (!alphabet.supports(term)) {
+            throw new IllegalArgumentException("Term " + term
+                    + " has chars that are not in alphabet");
+        }
+    }
+
+    /**
+     * Weakly consistent breadth-first iterator over words of subtree.
+     */
+    private class ConcurrentRWayTrieIterator
+            implements Iterator<String> {
+
+        private final Queue<Node> nodes = new ArrayDeque<>();
+
+        private final Queue<String> prefixes = new ArrayDeque<>();
+
+        private String next;
+
+        ConcurrentRWayTrieIterator(Node root, String prefix) {
+            if (root != null) {
+                nodes.offer(root);
+                prefixes.offer(prefix);
+            }
+            findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String result = next;
+            findNext();
+            return result;
+        }
+
+        private void findNext() {
+            next = null;
+            while (next == null && !nodes.isEmpty()) {
+                Node node = nodes.remove();
+                String prefix = prefixes.remove();
+                if (node.value != 0) {
+                    next = prefix;
+                }
+                for (int c = 0; c < node.next.length(); c++) {
+                    Node child = node.next.get(c);
+                    if (child != null) {
+                        nodes.offer(child);
+                        prefixes.offer(prefix + alphabet.charAt(c));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,568 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Class that represents read-only in-memory dictionary using minimal acyclic
+ * automaton, also known as DAWG.
+ * <p>
+ * Trie shares common prefixes of words, while automaton shares common
+ * suffixes as well: states with the same sets of word endings are merged
+ * into one, so endings like "-ing" or "-ness" are stored once for all words.
+ * Automaton is built from sorted words in one pass, keeping only states of
+ * the last word unminimized.
+ * </p>
+ * <p>
+ * Merged state does not belong to one word, so weights cannot be stored in
+ * states. Instead every state keeps number of words that end in it or below
+ * it, which gives index of word among sorted words while walking down to it,
+ * and weights are stored by that index.
+ * </p>
+ * <p>
+ * States and transitions are stored in flat primitive arrays. Every state
+ * costs 9 bytes, every transition 6 bytes, and every word 4 bytes for its
+ * weight. Dictionary cannot be modified: {@link #add(Tuple)} and
+ * {@link #delete(String)} throw {@link UnsupportedOperationException}.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class DawgTrie implements Trie {
+
+    /**
+     * Number that is used as absent state.
+     */
+    private static final int NO_STATE = -1;
+
+    /**
+     * Empty prefix.
+     * <p>
+     * Empty prefix is prefix for all words.
+     * </p>
+     */
+    private static final String EMPTY_PREFIX = "";
+
+    /**
+     * Initial number of states, transitions and words the builder has room
+     * for.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Number of bits in <code>char</code>.
+     */
+    private static final int CHAR_BITS = 16;
+
+    /**
+     * Number of start state.
+     */
+    private final int start;
+
+    /**
+     * <code>true</code> for states that end word, by number of state.
+     */
+    private final boolean[] finals;
+
+    /**
+     * Number of words that end in state or below it, by number of state.
+     */
+    private final int[] counts;
+
+    /**
+     * Number of the first transition, by number of state.
+     * <p>
+     * Transitions of state <code>i</code> are transitions from
+     * <code>firstTransition[i]</code> inclusive to
+     * <code>firstTransition[i + 1]</code> exclusive, sorted by letter.
+     * Contains one more element than there are states.
+     * </p>
+     */
+    private final int[] firstTransition;
+
+    /**
+     * Letter of transition, by number of transition.
+     */
+    private final char[] labels;
+
+    /**
+     * Number of target state, by number of transition.
+     */
+    private final int[] targets;
+
+    /**
+     * Weight of word, by index of word among sorted words.
+     */
+    private final int[] weights;
+
+    private DawgTrie(int start, boolean[] finals, int[] counts,
+            int[] firstTransition, char[] labels, int[] targets,
+            int[] weights) {
+        this.start = start;
+        this.finals = finals;
+        this.counts = counts;
+        this.firstTransition = firstTransition;
+        this.labels = labels;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Build automaton from all words of given trie with their weights.
+     * <p>
+     * Given trie is not modified and can be discarded afterwards.
+     * </p>
+     *
+     * @param trie trie to build automaton from
+     * @return read-only dictionary with the same words and weights
+     */
+    public static DawgTrie compile(Trie trie) {
+        List<Tuple> tuples = new ArrayList<>(trie.size());
+        for (String word : trie.words()) {
+            tuples.add(new Tuple(word, trie.weight(word)));
+        }
+        tuples.sort(Comparator.comparing(Tuple::getTerm));
+        return build(tuples);
+    }
+
+    /**
+     * Build automaton from given tuples sorted by term.
+     * <p>
+     * Tuples are read once, one by one, so they can be streamed from file
+     * without keeping all of them in memory. If several tuples have the same
+     * term - only the first of them is added.
+     * </p>
+     *
+     * @param sortedTuples tuples sorted by term
+     * @return read-only dictionary with given words and weights
+     * @throws IllegalArgumentException if tuples are not sorted by term
+     */
+    public static DawgTrie build(Iterable<Tuple> sortedTuples) {
+        Builder builder = new Builder();
+        for (Tuple tuple : sortedTuples) {
+            builder.add(tuple);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param tuple ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void add(Tuple tuple) {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " is read-only");
+    }
+
+    @Override
+    public boolean contains(String word) {
+        int state = get(word);
+        return state != NO_STATE && finals[state];
+    }
+
+    @Override
+    public int weight(String word) {
+        int result = 0;
+        int state = start;
+        int index = 0;
+        for (int d = 0; d < word.length() && state != NO_STATE; d++) {
+            if (finals[state]) {
+                index++;
+            }
+            int transition = transition(state, word.charAt(d));
+            if (transition == NO_STATE) {
+                state = NO_STATE;
+            } else {
+                for (int t = firstTransition[state]; t < transition; t++) {
+                    index += counts[targets[t]];
+                }
+                state = targets[transition];
+            }
+        }
+        if (state != NO_STATE && finals[state]) {
+            result = weights[index];
+        }
+        return result;
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param word ignored
+     * @return never returns
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean delete(String word) {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " is read-only");
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return wordsWithPrefix(EMPTY_PREFIX);
+    }
+
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+        int state = get(pref);
+        return () -> new DawgIterator(state, pref);
+    }
+
+    @Override
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * Number of states of automaton.
+     *
+     * @return number of states
+     */
+    int stateCount() {
+        return finals.length;
+    }
+
+    /**
+     * Find state that given key leads to.
+     *
+     * @param key key to find state by
+     * @return number of state if found successfully. Otherwise -
+     * {@link #NO_STATE}
+     */
+    private int get(String key) {
+        int state = start;
+        for (int d = 0; d < key.length() && state != NO_STATE; d++) {
+            int transition = transition(state, key.charAt(d));
+            if (transition == NO_STATE) {
+                state = NO_STATE;
+            } else {
+                state = targets[transition];
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Find transition of given state by letter.
+     *
+     * @param state number of state
+     * @param c letter of transition
+     * @return number of transition if found. Otherwise - {@link #NO_STATE}
+     */
+    private int transition(int state, char c) {
+        int lo = firstTransition[state];
+        int hi = firstTransition[state + 1] - 1;
+        int result = NO_STATE;
+        while (lo <= hi && result == NO_STATE) {
+            int mid = (lo + hi) >>> 1;
+            char label = labels[mid];
+            if (label < c) {
+                lo = mid + 1;
+            } else if (label > c) {
+                hi = mid - 1;
+            } else {
+                result = mid;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Local class used to associate state with prefix that leads to it.
+     */
+    private static class StatePrefixTuple {
+
+        /**
+         * Number of state.
+         */
+        private final int state;
+
+        /**
+         * Prefix that leads to state.
+         */
+        private final String prefix;
+
+        StatePrefixTuple(int state, String prefix) {
+            this.state = state;
+            this.prefix = prefix;
+        }
+    }
+
+    /**
+     * Breadth-first iterator over words that start from prefix.
+     * <p>
+     * State may be reached by many prefixes, so prefix is kept with every
+     * queued state.
+     * </p>
+     */
+    private class DawgIterator implements Iterator<String> {
+
+        private final Queue<StatePrefixTuple> queue = new ArrayDeque<>();
+
+        private String next;
+
+        DawgIterator(int state, String prefix) {
+            if (state != NO_STATE) {
+                queue.offer(new StatePrefixTuple(state, prefix));
+            }
+            findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String result = next;
+            findNext();
+            return result;
+        }
+
+        private void findNext() {
+            next = null;
+            while (next == null && !queue.isEmpty()) {
+                StatePrefixTuple tuple = queue.remove();
+                int state = tuple.state;
+                if (finals[state]) {
+                    next = tuple.prefix;
+                }
+                for (int t = firstTransition[state];
+                        t < firstTransition[state + 1]; t++) {
+                    queue.offer(new StatePrefixTuple(targets[t],
+                            tuple.prefix + labels[t]));
+                }
+            }
+        }
+    }
+
+    /**
+     * State of the last added word that is not minimized yet.
+     * <p>
+     * Its transitions lead to states that are already minimized, except
+     * transition by the next letter of the last word, which is added when
+     * the next state is minimized.
+     * </p>
+     */
+    private static class PendingState {
+
+        private boolean isFinal;
+
+        private char[] labels = new char[1];
+
+        private int[] targets = new int[1];
+
+        private int count;
+
+        private void reset() {
+            isFinal = false;
+            count = 0;
+        }
+
+        private void addTransition(char c, int target) {
+            if (count == labels.length) {
+                labels = Arrays.copyOf(labels, count * 2);
+                targets = Arrays.copyOf(targets, count * 2);
+            }
+            labels[count] = c;
+            targets[count] = target;
+            count++;
+        }
+
+        /**
+         * Key that is equal for states that accept the same word endings.
+         * <p>
+         * Targets are already minimized, so states are equivalent if they
+         * are both final or not and have the same transitions.
+         * </p>
+         *
+         * @return key of state
+         */
+        private String key() {
+            StringBuilder result = new StringBuilder(1 + count * 3);
+            if (isFinal) {
+                result.append('1');
+            } else {
+                result.append('0');
+            }
+            for (int i = 0; i < count; i++) {
+                result.append(labels[i])
+                        .append((char) (targets[i] >>> CHAR_BITS))
+                        .append((char) targets[i]);
+            }
+            return result.toString();
+        }
+    }
+
+    /**
+     * Builder of minimal automaton from sorted words.
+     * <p>
+     * Words that follow the last added one are not smaller, so states of the
+     * last word that are below its common prefix with the new word will
+     * never get new transitions. Such states are minimized: replaced with
+     * equivalent state that is already built if there is one, or built and
+     * registered otherwise. States are built after all their targets, so
+     * every built state only refers to built states.
+     * </p>
+     */
+    private static class Builder {
+
+        private final Map<String, Integer> built = new HashMap<>();
+
+        private final List<PendingState> pending = new ArrayList<>();
+
+        private String previous;
+
+        private boolean[] finals = new boolean[INITIAL_CAPACITY];
+        private int[] counts = new int[INITIAL_CAPACITY];
+        private int[] firstTransition = new int[INITIAL_CAPACITY];
+        private int stateCount;
+
+        private char[] labels = new char[INITIAL_CAPACITY];
+        private int[] targets = new int[INITIAL_CAPACITY];
+        private int transitionCount;
+
+        private int[] weights = new int[INITIAL_CAPACITY];
+        private int size;
+
+        Builder() {
+            pending.add(new PendingState());
+        }
+
+        void add(Tuple tuple) {
+            String term = tuple.getTerm();
+            int common = 0;
+            if (previous != null) {
+                int order = previous.compareTo(term);
+                if (order > 0) {
+                    throw new IllegalArgumentException(
+                            "Terms are not sorted: \"" + term
+                            + "\" goes after \"" + previous + "\"");
+                }
+                common = commonPrefixLength(previous, term);
+                if (order < 0) {
+                    minimize(common);
+                }
+            }
+            if (previous == null || !previous.equals(term)) {
+                for (int d = common + 1; d <= term.length(); d++) {
+                    pendingState(d).reset();
+                }
+                pendingState(term.length()).isFinal = true;
+                if (size == weights.length) {
+                    weights = Arrays.copyOf(weights, size * 2);
+                }
+                weights[size] = tuple.getWeight();
+                size++;
+                previous = term;
+            }
+        }
+
+        DawgTrie build() {
+            if (previous != null) {
+                minimize(0);
+            }
+            int start = register(pending.get(0));
+            ensureStateCapacity();
+            firstTransition[stateCount] = transitionCount;
+            return new DawgTrie(start, Arrays.copyOf(finals, stateCount),
+                    Arrays.copyOf(counts, stateCount),
+                    Arrays.copyOf(firstTransition, stateCount + 1),
+                    Arrays.copyOf(labels, transitionCount),
+                    Arrays.copyOf(targets, transitionCount),
+                    Arrays.copyOf(weights, size));
+        }
+
+        /**
+         * Minimize states of the last word that are deeper than given depth.
+         *
+         * @param depth depth of the deepest state to keep pending
+         */
+        private void minimize(int depth) {
+            for (int d = previous.length(); d > depth; d--) {
+                int state = register(pending.get(d));
+                pending.get(d - 1).addTransition(previous.charAt(d - 1),
+                        state);
+            }
+        }
+
+        /**
+         * Find built state that is equivalent to given pending state, or
+         * build new one.
+         *
+         * @param state pending state
+         * @return number of built state
+         */
+        private int register(PendingState state) {
+            String key = state.key();
+            Integer result = built.get(key);
+            if (result == null) {
+                result = stateCount;
+                ensureStateCapacity();
+                int count = 0;
+                if (state.isFinal) {
+                    count++;
+                }
+                firstTransition[stateCount] = transitionCount;
+                for (int i = 0; i < state.count; i++) {
+                    if (transitionCount == labels.length) {
+                        labels = Arrays.copyOf(labels, transitionCount * 2);
+                        targets = Arrays.copyOf(targets,
+                                transitionCount * 2);
+                    }
+                    labels[transitionCount] = state.labels[i];
+                    targets[transitionCount] = state.targets[i];
+                    transitionCount++;
+                    count += counts[state.targets[i]];
+                }
+                finals[stateCount] = state.isFinal;
+                counts[stateCount] = count;
+                stateCount++;
+                built.put(key, result);
+            }
+            return result;
+        }
+
+        private void ensureStateCapacity() {
+            if (stateCount == finals.length) {
+                finals = Arrays.copyOf(finals, stateCount * 2);
+                counts = Arrays.copyOf(counts, stateCount * 2);
+                firstTransition = Arrays.copyOf(firstTransition,
+                        stateCount * 2);
+            }
+        }
+
+        private PendingState pendingState(int depth) {
+            while (pending.size() <= depth) {
+                pending.add(new PendingState());
+            }
+            return pending.get(depth);
+        }
+
+        private static int commonPrefixLength(String a, String b) {
+            int limit = Math.min(a.length(), b.length());
+            int result = 0;
+            while (result < limit && a.charAt(result) == b.charAt(result)) {
+                result++;
+            }
+            return result;
+        }
+    }
+}
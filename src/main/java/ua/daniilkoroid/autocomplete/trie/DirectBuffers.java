@@ -0,0 +1,84 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Utility that frees memory of direct buffers without waiting for garbage
+ * collector.
+ * <p>
+ * There is no public API for it, so cleaner of buffer is run by reflection:
+ * by <code>sun.misc.Unsafe.invokeCleaner</code> since Java 9, and by
+ * <code>cleaner()</code> of buffer before that. If neither is available,
+ * memory is freed when buffer is garbage collected, as usual.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+final class DirectBuffers {
+
+    /**
+     * <code>sun.misc.Unsafe</code> instance, or <code>null</code> if it has
+     * no <code>invokeCleaner</code> method.
+     */
+    private static final Object UNSAFE;
+
+    /**
+     * <code>sun.misc.Unsafe.invokeCleaner</code>, or <code>null</code> if
+     * there is no such method.
+     */
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner",
+                    ByteBuffer.class);
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DirectBuffers() {
+    }
+
+    /**
+     * Free memory of given direct buffer.
+     * <p>
+     * Buffer and all its views must not be used after that: their memory may
+     * be given to anything else.
+     * </p>
+     *
+     * @param buffer direct buffer to free
+     * @return <code>true</code> if memory is freed. <code>false</code> if it
+     * is left to garbage collector
+     */
+    static boolean free(ByteBuffer buffer) {
+        boolean result;
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else {
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+            result = true;
+        } catch (InvocationTargetException | IllegalAccessException
+                | NoSuchMethodException | RuntimeException e) {
+            result = false;
+        }
+        return result;
+    }
+}
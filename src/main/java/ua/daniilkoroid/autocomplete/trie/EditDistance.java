@@ -0,0 +1,89 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+/**
+ * Utility class that computes Levenshtein distance from pattern row by row.
+ * <p>
+ * Row of text is array of distances from every prefix of pattern to the
+ * text: element <code>i</code> is distance from the first <code>i</code>
+ * chars of pattern. Row of text one char longer is computed from row of text
+ * only, so rows of all prefixes of a word, or of all nodes on a path in trie,
+ * are computed one after another.
+ * </p>
+ * <p>
+ * No element of the next row is smaller than the smallest element of the
+ * previous one, so once the smallest element exceeds allowed distance, no
+ * longer text can be close enough.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+final class EditDistance {
+
+    private EditDistance() {
+    }
+
+    /**
+     * Fill given row for empty text.
+     *
+     * @param row row as long as pattern plus one
+     */
+    static void firstRow(int[] row) {
+        for (int i = 0; i < row.length; i++) {
+            row[i] = i;
+        }
+    }
+
+    /**
+     * Compute row of text that is one char longer.
+     *
+     * @param pattern pattern
+     * @param previous row of text
+     * @param next row to fill for text followed by given char
+     * @param c the next char of text
+     * @return the smallest element of the next row
+     */
+    static int nextRow(CharSequence pattern, int[] previous, int[] next,
+            char c) {
+        next[0] = previous[0] + 1;
+        int result = next[0];
+        for (int i = 1; i < next.length; i++) {
+            int substitution = previous[i - 1];
+            if (pattern.charAt(i - 1) != c) {
+                substitution++;
+            }
+            int distance = Math.min(substitution,
+                    Math.min(previous[i], next[i - 1]) + 1);
+            next[i] = distance;
+            result = Math.min(result, distance);
+        }
+        return result;
+    }
+
+    /**
+     * The smallest distance from given pattern to any prefix of given word.
+     *
+     * @param pattern pattern
+     * @param word word
+     * @param maxDistance distance that is big enough
+     * @return the smallest distance or <code>maxDistance + 1</code> if it is
+     * bigger than given distance
+     */
+    static int prefixDistance(CharSequence pattern, CharSequence word,
+            int maxDistance) {
+        int[] row = new int[pattern.length() + 1];
+        int[] next = new int[row.length];
+        firstRow(row);
+        int best = row[pattern.length()];
+        int rowMin = 0;
+        for (int d = 0; d < word.length() && rowMin < best
+                && rowMin <= maxDistance; d++) {
+            rowMin = nextRow(pattern, row, next, word.charAt(d));
+            int[] swap = row;
+            row = next;
+            next = swap;
+            best = Math.min(best, row[pattern.length()]);
+        }
+        return Math.min(best, maxDistance + 1);
+    }
+}
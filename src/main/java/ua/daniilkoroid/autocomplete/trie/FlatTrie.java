@@ -0,0 +1,318 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class of read-only dictionaries that keep nodes numbered in
+ * breadth-first order in flat storage.
+ * <p>
+ * Because of such numbering children of every node occupy contiguous range of
+ * numbers, as well as every level of any subtree. Finding child is binary
+ * search over that range, and breadth-first iteration over words is a walk
+ * over consecutive ranges without any queue.
+ * </p>
+ * <p>
+ * Subclasses only tell where node data is stored. Dictionary cannot be
+ * modified: {@link #add(Tuple)} and {@link #delete(String)} throw
+ * {@link UnsupportedOperationException}.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public abstract class FlatTrie implements Trie {
+
+    /**
+     * Number of root node.
+     */
+    static final int ROOT = 0;
+
+    /**
+     * Number that is used as absent node.
+     */
+    static final int NO_NODE = -1;
+
+    /**
+     * Empty prefix.
+     * <p>
+     * Empty prefix is prefix for all words.
+     * </p>
+     */
+    private static final String EMPTY_PREFIX = "";
+
+    /**
+     * Only classes of this package can store nodes.
+     */
+    FlatTrie() {
+    }
+
+    /**
+     * Number of nodes.
+     *
+     * @return number of nodes
+     */
+    abstract int nodeCount();
+
+    /**
+     * Letter on the link from parent to given node.
+     *
+     * @param node number of node
+     * @return letter of node
+     */
+    abstract char label(int node);
+
+    /**
+     * Number of the first child of given node.
+     * <p>
+     * Children of node <code>i</code> are nodes from
+     * <code>firstChild(i)</code> inclusive to <code>firstChild(i + 1)</code>
+     * exclusive, so it is defined for number of nodes as well.
+     * </p>
+     *
+     * @param node number of node, up to number of nodes inclusive
+     * @return number of the first child
+     */
+    abstract int firstChild(int node);
+
+    /**
+     * Number of parent of given node.
+     *
+     * @param node number of node
+     * @return number of parent
+     */
+    abstract int parent(int node);
+
+    /**
+     * Weight of word that ends in given node.
+     *
+     * @param node number of node
+     * @return weight of word or <code>0</code> if no word ends in node
+     */
+    abstract int nodeWeight(int node);
+
+    /**
+     * Write this dictionary to given file in the format read by
+     * {@link MappedTrie#open(Path)}.
+     * <p>
+     * File is created or replaced.
+     * </p>
+     *
+     * @param file file to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            MappedTrie.writeHeader(out, nodeCount(), size());
+            for (int node = 0; node <= nodeCount(); node++) {
+                out.writeInt(firstChild(node));
+            }
+            for (int node = 0; node < nodeCount(); node++) {
+                out.writeInt(parent(node));
+            }
+            for (int node = 0; node < nodeCount(); node++) {
+                out.writeInt(nodeWeight(node));
+            }
+            for (int node = 0; node < nodeCount(); node++) {
+                out.writeChar(label(node));
+            }
+        }
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param tuple ignored
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void add(Tuple tuple) {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " is read-only");
+    }
+
+    @Override
+    public boolean contains(String word) {
+        return weight(word) != 0;
+    }
+
+    @Override
+    public int weight(String word) {
+        int result = 0;
+        int node = get(word);
+        if (node != NO_NODE) {
+            result = nodeWeight(node);
+        }
+        return result;
+    }
+
+    /**
+     * Not supported.
+     *
+     * @param word ignored
+     * @return never returns
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean delete(String word) {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " is read-only");
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return wordsWithPrefix(EMPTY_PREFIX);
+    }
+
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+        int node = get(pref);
+        return () -> new FlatTrieIterator(node, pref.length());
+    }
+
+    /**
+     * Find node with given key.
+     *
+     * @param key key to find node by
+     * @return number of node with given key if found successfully. Otherwise -
+     * {@link #NO_NODE}
+     */
+    private int get(String key) {
+        int node = ROOT;
+        for (int d = 0; d < key.length() && node != NO_NODE; d++) {
+            node = child(node, key.charAt(d));
+        }
+        return node;
+    }
+
+    /**
+     * Find child of given node by letter.
+     *
+     * @param node number of parent node
+     * @param c letter of child
+     * @return number of child if found. Otherwise - {@link #NO_NODE}
+     */
+    private int child(int node, char c) {
+        int lo = firstChild(node);
+        int hi = firstChild(node + 1) - 1;
+        int result = NO_NODE;
+        while (lo <= hi && result == NO_NODE) {
+            int mid = (lo + hi) >>> 1;
+            char label = label(mid);
+            if (label < c) {
+                lo = mid + 1;
+            } else if (label > c) {
+                hi = mid - 1;
+            } else {
+                result = mid;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Restore word that ends in given node.
+     *
+     * @param node number of node
+     * @param length length of word, which is depth of node
+     * @return word that ends in given node
+     */
+    private String word(int node, int length) {
+        char[] chars = new char[length];
+        int current = node;
+        for (int i = length - 1; i >= 0; i--) {
+            chars[i] = label(current);
+            current = parent(current);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Breadth-first iterator over words of subtree.
+     * <p>
+     * Every level of subtree is a range of node numbers, and the next level
+     * is the range of children of current level.
+     * </p>
+     */
+    private class FlatTrieIterator implements Iterator<String> {
+
+        /**
+         * Current node.
+         */
+        private int node;
+
+        /**
+         * Start of current level, inclusive.
+         */
+        private int levelStart;
+
+        /**
+         * End of current level, exclusive.
+         */
+        private int levelEnd;
+
+        /**
+         * Length of words on current level.
+         */
+        private int length;
+
+        FlatTrieIterator(int root, int prefixLength) {
+            if (root == NO_NODE) {
+                levelStart = 0;
+                levelEnd = 0;
+            } else {
+                levelStart = root;
+                levelEnd = root + 1;
+            }
+            node = levelStart;
+            length = prefixLength;
+            findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return node < levelEnd;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String result = word(node, length);
+            moveToNextNode();
+            findNext();
+            return result;
+        }
+
+        /**
+         * Move to the nearest node that holds word, starting from current one.
+         */
+        private void findNext() {
+            while (node < levelEnd && nodeWeight(node) == 0) {
+                moveToNextNode();
+            }
+        }
+
+        /**
+         * Move to the next node of current level or to the first node of the
+         * next level.
+         */
+        private void moveToNextNode() {
+            node++;
+            if (node == levelEnd) {
+                int nextStart = firstChild(levelStart);
+                levelEnd = firstChild(levelEnd);
+                levelStart = nextStart;
+                node = nextStart;
+                length++;
+            }
+        }
+    }
+}
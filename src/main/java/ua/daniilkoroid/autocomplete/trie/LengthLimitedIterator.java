@@ -0,0 +1,68 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator that passes words of other iterator until words of given number
+ * of different lengths are passed.
+ * <p>
+ * Words of other iterator must go in order of their lengths, as they do in
+ * breadth-first search. To know that the next word is too long, it is taken
+ * from other iterator, so other iterator goes one word past the bound.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+class LengthLimitedIterator implements Iterator<String> {
+
+    private final Iterator<String> words;
+
+    /**
+     * Number of different lengths that may still start.
+     */
+    private int lengthsLeft;
+
+    private String next;
+
+    /**
+     * Create iterator over words of given number of the shortest lengths.
+     * Words of the shortest length are passed even if given number is less
+     * than <code>1</code>.
+     *
+     * @param words words ordered by length
+     * @param lengthCount number of different lengths of passed words
+     */
+    LengthLimitedIterator(Iterator<String> words, int lengthCount) {
+        this.words = words;
+        lengthsLeft = Math.max(1, lengthCount) - 1;
+        if (words.hasNext()) {
+            next = words.next();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        String result = next;
+        next = null;
+        if (words.hasNext()) {
+            String candidate = words.next();
+            if (candidate.length() == result.length()) {
+                next = candidate;
+            } else if (lengthsLeft > 0) {
+                lengthsLeft--;
+                next = candidate;
+            }
+        }
+        return result;
+    }
+}
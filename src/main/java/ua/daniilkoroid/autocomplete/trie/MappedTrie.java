@@ -0,0 +1,200 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class that represents read-only dictionary served directly from file
+ * mapped into memory.
+ * <p>
+ * File is written by {@link FlatTrie#writeTo(Path)}, for example by
+ * <code>CompiledTrie.compile(trie).writeTo(file)</code>, and keeps nodes in
+ * the same flat layout as {@link CompiledTrie}. Opening file only maps it and
+ * checks its header: nothing is read into heap, and nodes are read from the
+ * mapping on every lookup. Pages that are never touched are never loaded, and
+ * processes that open the same file share its pages in page cache.
+ * </p>
+ * <p>
+ * File layout, all numbers are big-endian:
+ * </p>
+ * <ul>
+ * <li>header: magic number, format version, number of nodes <code>n</code>
+ * and number of words, each as <code>int</code></li>
+ * <li><code>n + 1</code> numbers of the first child, as <code>int</code></li>
+ * <li><code>n</code> numbers of parents, as <code>int</code></li>
+ * <li><code>n</code> weights, as <code>int</code></li>
+ * <li><code>n</code> labels, as <code>char</code></li>
+ * </ul>
+ * <p>
+ * Every node costs 14 bytes, so file can hold about 150 million nodes before
+ * reaching the 2 GB limit of one mapping.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class MappedTrie extends FlatTrie {
+
+    /**
+     * Number that every file starts with.
+     */
+    private static final int MAGIC = 0x54524945;
+
+    /**
+     * Version of file layout.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Offset of format version in header.
+     */
+    private static final int VERSION_OFFSET = Integer.BYTES;
+
+    /**
+     * Offset of number of nodes in header.
+     */
+    private static final int NODE_COUNT_OFFSET = 2 * Integer.BYTES;
+
+    /**
+     * Offset of number of words in header.
+     */
+    private static final int SIZE_OFFSET = 3 * Integer.BYTES;
+
+    /**
+     * Size of header in bytes.
+     */
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    /**
+     * Size of every node in bytes, not counting extra first child number.
+     */
+    private static final int NODE_BYTES = 3 * Integer.BYTES + Character.BYTES;
+
+    /**
+     * Mapped file.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Number of nodes.
+     */
+    private final int nodeCount;
+
+    /**
+     * Number of stored words.
+     */
+    private final int size;
+
+    /**
+     * Offset of numbers of parents.
+     */
+    private final int parentsOffset;
+
+    /**
+     * Offset of weights.
+     */
+    private final int weightsOffset;
+
+    /**
+     * Offset of labels.
+     */
+    private final int labelsOffset;
+
+    private MappedTrie(ByteBuffer buffer, int nodeCount, int size) {
+        this.buffer = buffer;
+        this.nodeCount = nodeCount;
+        this.size = size;
+        parentsOffset = HEADER_BYTES + (nodeCount + 1) * Integer.BYTES;
+        weightsOffset = parentsOffset + nodeCount * Integer.BYTES;
+        labelsOffset = weightsOffset + nodeCount * Integer.BYTES;
+    }
+
+    /**
+     * Map given file written by {@link FlatTrie#writeTo(Path)}.
+     * <p>
+     * Mapping stays valid after file is closed, and is released when returned
+     * trie is garbage collected. File must not be modified while it is mapped.
+     * </p>
+     *
+     * @param file file to map
+     * @return read-only trie served from given file
+     * @throws IOException if file cannot be read or is not a trie file
+     */
+    public static MappedTrie open(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES
+                    || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a trie file: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+        int magic = buffer.getInt(0);
+        int version = buffer.getInt(VERSION_OFFSET);
+        int nodeCount = buffer.getInt(NODE_COUNT_OFFSET);
+        int size = buffer.getInt(SIZE_OFFSET);
+        long expectedBytes = HEADER_BYTES + Integer.BYTES
+                + (long) nodeCount * NODE_BYTES;
+        if (magic != MAGIC || nodeCount <= 0
+                || buffer.capacity() != expectedBytes) {
+            throw new IOException("Not a trie file: " + file);
+        }
+        if (version != VERSION) {
+            throw new IOException("Unsupported trie file version " + version
+                    + ": " + file);
+        }
+        return new MappedTrie(buffer, nodeCount, size);
+    }
+
+    /**
+     * Write header of file.
+     *
+     * @param out stream to write to
+     * @param nodeCount number of nodes
+     * @param size number of words
+     * @throws IOException if writing fails
+     */
+    static void writeHeader(DataOutputStream out, int nodeCount, int size)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(nodeCount);
+        out.writeInt(size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    char label(int node) {
+        return buffer.getChar(labelsOffset + node * Character.BYTES);
+    }
+
+    @Override
+    int firstChild(int node) {
+        return buffer.getInt(HEADER_BYTES + node * Integer.BYTES);
+    }
+
+    @Override
+    int parent(int node) {
+        return buffer.getInt(parentsOffset + node * Integer.BYTES);
+    }
+
+    @Override
+    int nodeWeight(int node) {
+        return buffer.getInt(weightsOffset + node * Integer.BYTES);
+    }
+}
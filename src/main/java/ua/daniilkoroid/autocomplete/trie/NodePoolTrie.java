@@ -0,0 +1,722 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class of dictionaries that use R-way trie whose nodes are records of
+ * a pool and are referred to by <code>int</code> ids.
+ * <p>
+ * Record of node holds weight of its word, number of its children and as
+ * many links as there are chars in alphabet. Link <code>0</code> means no
+ * child, since root is node <code>0</code> and is never a child. There are
+ * no node objects, so garbage collector has nothing to mark but the pool.
+ * </p>
+ * <p>
+ * Pool grows when all its records are used. Nodes left without word and
+ * children by {@link #delete(String)} are unlinked and their ids are reused
+ * by the next nodes created.
+ * </p>
+ * <p>
+ * Subclasses only tell where records are stored.
+ * </p>
+ * <p>
+ * Words can consist only of chars of {@link Alphabet} given on creation.
+ * Words with other chars are never contained, and adding them throws
+ * {@link IllegalArgumentException}.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public abstract class NodePoolTrie implements Trie {
+
+    /**
+     * Empty prefix.
+     * <p>
+     * Empty prefix is prefix for all words.
+     * </p>
+     */
+    private static final String EMPTY_PREFIX = "";
+
+    /**
+     * Id of root node.
+     */
+    static final int ROOT = 0;
+
+    /**
+     * Link to absent child.
+     */
+    static final int NO_CHILD = 0;
+
+    /**
+     * Id of node that is not found, and end of list of free ids.
+     */
+    private static final int NO_NODE = -1;
+
+    /**
+     * Number of different lengths that does not limit search.
+     */
+    private static final int ALL_LENGTHS = Integer.MAX_VALUE;
+
+    /**
+     * Number of nodes that arrays of traversed level are created for.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Initial depth that path array is created for.
+     */
+    private static final int INITIAL_DEPTH = 16;
+
+    /**
+     * Alphabet of stored words.
+     */
+    private final Alphabet alphabet;
+
+    /**
+     * Number of links of every node, which is size of alphabet.
+     */
+    final int radix;
+
+    /**
+     * Number of ids ever given to nodes. Ids from it up are not used yet.
+     */
+    private int usedCount;
+
+    /**
+     * The last freed id, or {@link #NO_NODE} if there are no free ids.
+     * <p>
+     * Weight of free id is the next free id, so free ids make a list without
+     * any other storage.
+     * </p>
+     */
+    private int freeHead = NO_NODE;
+
+    /**
+     * Number of free ids.
+     */
+    private int freeCount;
+
+    /**
+     * Number of stored tuples.
+     */
+    private int size;
+
+    /**
+     * Stores number of modifications.
+     */
+    private int modCount;
+
+    /**
+     * Ids of nodes on the path of the last modified word, by depth.
+     * <p>
+     * Array is reused by every modification, so it may hold nodes of the
+     * last modified word until the next one.
+     * </p>
+     */
+    private int[] path;
+
+    /**
+     * Only classes of this package can store nodes.
+     * <p>
+     * Subclass must create storage of at least one record, which is root.
+     * </p>
+     *
+     * @param alphabet alphabet of words to store
+     */
+    NodePoolTrie(Alphabet alphabet) {
+        this.alphabet = alphabet;
+        this.radix = alphabet.size();
+        path = new int[INITIAL_DEPTH];
+        usedCount = 1;
+    }
+
+    /**
+     * Id of child of given node by given index of char.
+     *
+     * @param node id of node
+     * @param c index of char in alphabet
+     * @return id of child, or {@link #NO_CHILD} if there is no such child
+     */
+    abstract int child(int node, int c);
+
+    /**
+     * Set child of given node by given index of char.
+     *
+     * @param node id of node
+     * @param c index of char in alphabet
+     * @param child id of child, or {@link #NO_CHILD} to unlink child
+     */
+    abstract void setChild(int node, int c, int child);
+
+    /**
+     * Weight of word of given node.
+     *
+     * @param node id of node
+     * @return weight of word, or <code>0</code> if node holds no word
+     */
+    abstract int nodeWeight(int node);
+
+    /**
+     * Set weight of word of given node.
+     *
+     * @param node id of node
+     * @param weight weight of word, or <code>0</code> for no word
+     */
+    abstract void setNodeWeight(int node, int weight);
+
+    /**
+     * Number of children of given node.
+     *
+     * @param node id of node
+     * @return number of children
+     */
+    abstract int childCount(int node);
+
+    /**
+     * Set number of children of given node.
+     *
+     * @param node id of node
+     * @param count number of children
+     */
+    abstract void setChildCount(int node, int count);
+
+    /**
+     * Add storage for at least one more record. Records of new storage must
+     * be all zeros.
+     *
+     * @throws IllegalStateException if storage cannot grow
+     */
+    abstract void grow();
+
+    /**
+     * Number of nodes that storage can hold before it grows.
+     *
+     * @return capacity of storage in nodes
+     */
+    public abstract int capacity();
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet of this trie
+     * @throws IllegalStateException if storage cannot grow to hold new nodes
+     */
+    @Override
+    public void add(Tuple tuple) {
+        putIfAbsent(tuple);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Path of term is walked once, creating missing nodes.
+     * </p>
+     *
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet of this trie
+     * @throws IllegalStateException if storage cannot grow to hold new nodes
+     */
+    @Override
+    public int putIfAbsent(Tuple tuple) {
+        String term = tuple.getTerm();
+        checkSupported(term);
+        walk(term, true);
+        int node = path[term.length()];
+        int previous = nodeWeight(node);
+        if (previous == 0) {
+            updateModificationsCount();
+            store(term, node, tuple.getWeight());
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Weight is replaced in the same walk that finds or creates node of term.
+     * </p>
+     *
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet of this trie
+     * @throws IllegalStateException if storage cannot grow to hold new nodes
+     */
+    @Override
+    public int upsert(Tuple tuple) {
+        String term = tuple.getTerm();
+        checkSupported(term);
+        walk(term, true);
+        updateModificationsCount();
+        int node = path[term.length()];
+        int previous = nodeWeight(node);
+        if (previous != 0) {
+            size--;
+        }
+        store(term, node, tuple.getWeight());
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Weight is updated in the same walk that finds or creates node of word.
+     * </p>
+     *
+     * @throws IllegalArgumentException if word has char that is not in
+     * alphabet of this trie
+     * @throws IllegalStateException if storage cannot grow to hold new nodes
+     */
+    @Override
+    public int addWeight(String word, int delta) {
+        if (delta <= 0) {
+            throw new IllegalArgumentException(
+                    "Delta must be positive: " + delta);
+        }
+        checkSupported(word);
+        walk(word, true);
+        updateModificationsCount();
+        int node = path[word.length()];
+        int result = nodeWeight(node);
+        if (result == 0) {
+            size++;
+        }
+        result += delta;
+        setNodeWeight(node, result);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only stored words are contained. Prefixes of stored words are not.
+     * </p>
+     */
+    @Override
+    public boolean contains(String word) {
+        return weight(word) != 0;
+    }
+
+    @Override
+    public int weight(String word) {
+        int result = 0;
+        int node = find(word);
+        if (node != NO_NODE) {
+            result = nodeWeight(node);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Path of word is walked once, keeping its nodes, which are then
+     * visited from the deepest one up: nodes left without word and children
+     * are unlinked and their ids are freed for reuse.
+     * </p>
+     */
+    @Override
+    public boolean delete(String word) {
+        boolean result = walk(word, false) == word.length()
+                && nodeWeight(path[word.length()]) != 0;
+        if (result) {
+            updateModificationsCount();
+            setNodeWeight(path[word.length()], 0);
+            size--;
+            prune(word, word.length());
+        }
+        return result;
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return wordsWithPrefix(EMPTY_PREFIX);
+    }
+
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return wordsWithPrefix(pref, ALL_LENGTHS);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Traversal stops as soon as the level of the k-th length is visited, so
+     * deeper levels are never built.
+     * </p>
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref, int k) {
+        return () -> new NodePoolTrieIterator(find(pref), pref, k);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of nodes in trie, including root.
+     *
+     * @return number of nodes in trie
+     */
+    public int nodeCount() {
+        return usedCount - freeCount;
+    }
+
+
+    /**
+     * Find node by given key.
+     *
+     * @param key key to find node by
+     * @return id of node with given key if found successfully. Otherwise -
+     * {@link #NO_NODE}
+     */
+    private int find(String key) {
+        int node = ROOT;
+        for (int d = 0; d < key.length() && node != NO_NODE; d++) {
+            int c = alphabet.indexOf(key.charAt(d));
+            int child = NO_CHILD;
+            if (c != Alphabet.ABSENT) {
+                child = child(node, c);
+            }
+            node = NO_NODE;
+            if (child != NO_CHILD) {
+                node = child;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Walk path of given word from root, keeping ids of its nodes by depth
+     * in {@link #path}.
+     *
+     * @param word word to walk path of
+     * @param create <code>true</code> to create missing nodes. All chars of
+     * word must be in alphabet then
+     * @return depth of the deepest node on the path, which is length of word
+     * if node of word exists or is created
+     * @throws IllegalStateException if storage cannot grow to hold new nodes.
+     * Nodes created by this walk are freed then
+     */
+    private int walk(String word, boolean create) {
+        if (word.length() >= path.length) {
+            path = new int[Math.max(word.length() + 1, path.length * 2)];
+        }
+        int node = ROOT;
+        path[0] = node;
+        int d = 0;
+        while (node != NO_NODE && d < word.length()) {
+            int c = alphabet.indexOf(word.charAt(d));
+            int child = NO_CHILD;
+            if (c != Alphabet.ABSENT) {
+                child = child(node, c);
+                if (child == NO_CHILD && create) {
+                    child = allocateOrPrune(word, d);
+                    setChild(node, c, child);
+                    setChildCount(node, childCount(node) + 1);
+                }
+            }
+            node = NO_NODE;
+            if (child != NO_CHILD) {
+                node = child;
+                d++;
+                path[d] = node;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Store given weight in node of given term, which holds no word.
+     * <p>
+     * Zero weight stores no word, so nodes of the path that are left without
+     * word and children are unlinked.
+     * </p>
+     *
+     * @param term term of node, whose path is kept in {@link #path}
+     * @param node id of node of term
+     * @param weight weight to store
+     */
+    private void store(String term, int node, int weight) {
+        setNodeWeight(node, weight);
+        if (weight == 0) {
+            prune(term, term.length());
+        } else {
+            size++;
+        }
+    }
+
+    /**
+     * Unlink nodes of path of given word that hold no word and have no
+     * children, from node of given depth up, and free their ids.
+     *
+     * @param word word whose path is kept in {@link #path}
+     * @param depth depth of the deepest node to unlink
+     */
+    private void prune(String word, int depth) {
+        int d = depth;
+        while (d > 0 && nodeWeight(path[d]) == 0 && childCount(path[d]) == 0) {
+            int parent = path[d - 1];
+            int c = alphabet.indexOf(word.charAt(d - 1));
+            setChild(parent, c, NO_CHILD);
+            setChildCount(parent, childCount(parent) - 1);
+            free(path[d]);
+            d--;
+        }
+    }
+
+    /**
+     * Take id for new child of node of given depth on path of given word.
+     * If storage cannot grow, nodes of the path that were left empty are
+     * freed before exception is thrown.
+     *
+     * @param word word whose path is kept in {@link #path}
+     * @param depth depth of parent of new node
+     * @return id of new node
+     * @throws IllegalStateException if storage cannot grow
+     */
+    private int allocateOrPrune(String word, int depth) {
+        try {
+            return allocate();
+        } catch (IllegalStateException e) {
+            prune(word, depth);
+            throw e;
+        }
+    }
+
+    /**
+     * Take id for new node: the last freed one if there is any, or the next
+     * unused one, growing storage if it is full.
+     *
+     * @return id of new node, which holds no word and has no children
+     * @throws IllegalStateException if storage cannot grow
+     */
+    private int allocate() {
+        int node;
+        if (freeHead == NO_NODE) {
+            if (usedCount == capacity()) {
+                grow();
+            }
+            node = usedCount;
+            usedCount++;
+        } else {
+            node = freeHead;
+            freeHead = nodeWeight(node);
+            setNodeWeight(node, 0);
+            freeCount--;
+        }
+        return node;
+    }
+
+    /**
+     * Put id of given node to list of free ids.
+     * <p>
+     * Node must have no children, so its links are all empty already.
+     * </p>
+     *
+     * @param node id of node to free
+     */
+    private void free(int node) {
+        setNodeWeight(node, freeHead);
+        freeHead = node;
+        freeCount++;
+    }
+
+    /**
+     * Check that all chars of given term are in alphabet of this trie.
+     *
+     * @param term term to check
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet
+     */
+    private void checkSupported(String term) {
+        if (!alphabet.supports(term)) {
+            throw new IllegalArgumentException("Term " + term
+                    + " has chars that are not in alphabet");
+        }
+    }
+
+    /**
+     * Increase number of modifications of this trie.
+     */
+    private void updateModificationsCount() {
+        modCount++;
+    }
+
+    /**
+     * Iterator over words of subtree that visits nodes level by level.
+     * <p>
+     * Ids and paths of nodes of current and next levels are kept in arrays
+     * that are reused for every level.
+     * </p>
+     */
+    private class NodePoolTrieIterator implements Iterator<String> {
+
+        /**
+         * Ids of nodes of current level.
+         */
+        private int[] nodes = new int[INITIAL_CAPACITY];
+
+        /**
+         * Paths of nodes of current level.
+         */
+        private char[] paths;
+
+        /**
+         * Number of nodes on current level.
+         */
+        private int count;
+
+        /**
+         * Length of paths on current level.
+         */
+        private int pathLength;
+
+        /**
+         * Ids of nodes of next level.
+         */
+        private int[] nextNodes = new int[INITIAL_CAPACITY];
+
+        /**
+         * Paths of nodes of next level.
+         */
+        private char[] nextPaths = new char[INITIAL_CAPACITY];
+
+        /**
+         * Position of current node on current level.
+         */
+        private int position = -1;
+
+        /**
+         * Number of levels with words that may still be visited, including
+         * current one.
+         */
+        private int lengthsLeft;
+
+        /**
+         * <code>true</code> if a word is found on current level.
+         */
+        private boolean levelHasWord;
+
+        private boolean hasNext;
+
+        private final int expectedModCount = modCount;
+
+        /**
+         * Create iterator over words of subtree of given node.
+         *
+         * @param root id of subtree root, or {@link #NO_NODE} for no words
+         * @param prefix path of subtree root
+         * @param lengthCount number of different lengths of words to visit
+         */
+        NodePoolTrieIterator(int root, String prefix, int lengthCount) {
+            pathLength = prefix.length();
+            paths = new char[Math.max(INITIAL_CAPACITY, pathLength)];
+            prefix.getChars(0, pathLength, paths, 0);
+            lengthsLeft = Math.max(1, lengthCount);
+            if (root != NO_NODE) {
+                nodes[0] = root;
+                count = 1;
+            }
+            hasNext = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public String next() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            String result = new String(paths, position * pathLength,
+                    pathLength);
+            hasNext = advance();
+            return result;
+        }
+
+        /**
+         * Move to the next node that holds word.
+         *
+         * @return <code>true</code> if such node is found. <code>false</code>
+         * if traversal is over
+         */
+        private boolean advance() {
+            boolean found = false;
+            boolean exhausted = count == 0;
+            while (!found && !exhausted) {
+                position++;
+                if (position == count) {
+                    if (levelHasWord) {
+                        lengthsLeft--;
+                        levelHasWord = false;
+                    }
+                    if (lengthsLeft == 0) {
+                        count = 0;
+                    } else {
+                        nextLevel();
+                    }
+                    position = 0;
+                }
+                if (count == 0) {
+                    exhausted = true;
+                } else {
+                    found = nodeWeight(nodes[position]) != 0;
+                }
+            }
+            levelHasWord |= found;
+            return found;
+        }
+
+        /**
+         * Replace current level with children of its nodes.
+         */
+        private void nextLevel() {
+            int nextLength = pathLength + 1;
+            int nextCount = 0;
+            for (int i = 0; i < count; i++) {
+                for (int c = 0; c < radix; c++) {
+                    int child = child(nodes[i], c);
+                    if (child != NO_CHILD) {
+                        ensureNextCapacity(nextCount + 1, nextLength);
+                        nextNodes[nextCount] = child;
+                        int offset = nextCount * nextLength;
+                        System.arraycopy(paths, i * pathLength, nextPaths,
+                                offset, pathLength);
+                        nextPaths[offset + pathLength] = alphabet.charAt(c);
+                        nextCount++;
+                    }
+                }
+            }
+            int[] swapNodes = nodes;
+            nodes = nextNodes;
+            nextNodes = swapNodes;
+            char[] swapPaths = paths;
+            paths = nextPaths;
+            nextPaths = swapPaths;
+            count = nextCount;
+            pathLength = nextLength;
+        }
+
+        private void ensureNextCapacity(int nodeCount, int length) {
+            if (nodeCount > nextNodes.length) {
+                nextNodes = Arrays.copyOf(nextNodes, nextNodes.length * 2);
+            }
+            int charCount = nodeCount * length;
+            if (charCount > nextPaths.length) {
+                nextPaths = Arrays.copyOf(nextPaths,
+                        Math.max(charCount, nextPaths.length * 2));
+            }
+        }
+    }
+}
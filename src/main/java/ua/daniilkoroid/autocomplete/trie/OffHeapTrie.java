@@ -0,0 +1,273 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Class that represents dictionary using R-way trie whose nodes are kept
+ * outside of heap, in direct buffers.
+ * <p>
+ * Nodes are records of fixed size in arenas, which are direct buffers of the
+ * same number of records each. Node id tells both arena and record in it.
+ * Record is weight of word, number of children and links to children, all of
+ * them <code>int</code>. New arena is added when all records are used, so
+ * stored records are never copied, and trie takes at most given number of
+ * nodes. The only objects on heap are arenas themselves.
+ * </p>
+ * <p>
+ * Memory of arenas is freed by {@link #close()} at once. Trie cannot be used
+ * after that: every operation that reads or writes nodes throws
+ * {@link IllegalStateException}. Unclosed trie is freed when it is garbage
+ * collected, as any direct buffer is.
+ * </p>
+ * <p>
+ * Words can consist only of chars of {@link Alphabet} given on creation.
+ * Words with other chars are never contained, and adding them throws
+ * {@link IllegalArgumentException}.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public final class OffHeapTrie extends NodePoolTrie implements AutoCloseable {
+
+    /**
+     * Number of nodes in arena by default.
+     */
+    private static final int DEFAULT_ARENA_NODES = 1 << 16;
+
+    /**
+     * Offset of weight in record.
+     */
+    private static final int WEIGHT_OFFSET = 0;
+
+    /**
+     * Offset of number of children in record.
+     */
+    private static final int CHILD_COUNT_OFFSET = Integer.BYTES;
+
+    /**
+     * Offset of links in record.
+     */
+    private static final int LINKS_OFFSET = 2 * Integer.BYTES;
+
+    /**
+     * Number of arenas that array of arenas is created for.
+     */
+    private static final int INITIAL_ARENA_SLOTS = 4;
+
+    /**
+     * Size of record in bytes.
+     */
+    private final int recordBytes;
+
+    /**
+     * Number of bits of node id that tell record in arena.
+     */
+    private final int arenaShift;
+
+    /**
+     * Mask of bits of node id that tell record in arena.
+     */
+    private final int arenaMask;
+
+    /**
+     * The biggest number of nodes.
+     */
+    private final int maxNodes;
+
+    /**
+     * Arenas of records, by id of their first node shifted by
+     * {@link #arenaShift}. <code>null</code> if trie is closed.
+     */
+    private ByteBuffer[] arenas;
+
+    /**
+     * Number of created arenas.
+     */
+    private int arenaCount;
+
+    /**
+     * Create OffHeapTrie.
+     * <p>
+     * Currently supported alphabet is {@link Alphabet#ENGLISH}. Arenas hold
+     * 65536 nodes each, and number of nodes is not limited.
+     * </p>
+     */
+    public OffHeapTrie() {
+        this(Alphabet.ENGLISH, DEFAULT_ARENA_NODES, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Create OffHeapTrie for words of given alphabet with given size of arena
+     * and limit of nodes.
+     * <p>
+     * Number of nodes in arena is rounded up to power of two. Arena is
+     * created when the first node of it is needed, so limit is reached in
+     * whole arenas too: once all arenas that hold up to given number of nodes
+     * are full, adding new nodes throws {@link IllegalStateException}.
+     * </p>
+     *
+     * @param alphabet alphabet of words to store
+     * @param arenaNodes number of nodes in arena
+     * @param maxNodes the biggest number of nodes, including root
+     * @throws IllegalArgumentException if either number is not positive, or
+     * arena would be bigger than direct buffer can be
+     */
+    public OffHeapTrie(Alphabet alphabet, int arenaNodes, int maxNodes) {
+        super(alphabet);
+        if (arenaNodes <= 0 || maxNodes <= 0) {
+            throw new IllegalArgumentException("Number of nodes must be"
+                    + " positive: " + arenaNodes + ", " + maxNodes);
+        }
+        recordBytes = LINKS_OFFSET + radix * Integer.BYTES;
+        arenaShift = Integer.SIZE - Integer.numberOfLeadingZeros(
+                arenaNodes - 1);
+        if ((long) recordBytes << arenaShift > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Arena of " + arenaNodes + " nodes is too big");
+        }
+        arenaMask = (1 << arenaShift) - 1;
+        this.maxNodes = maxNodes;
+        arenas = new ByteBuffer[INITIAL_ARENA_SLOTS];
+        grow();
+    }
+
+    @Override
+    int child(int node, int c) {
+        return arena(node).getInt(
+                offset(node) + LINKS_OFFSET + c * Integer.BYTES);
+    }
+
+    @Override
+    void setChild(int node, int c, int child) {
+        arena(node).putInt(offset(node) + LINKS_OFFSET + c * Integer.BYTES,
+                child);
+    }
+
+    @Override
+    int nodeWeight(int node) {
+        return arena(node).getInt(offset(node) + WEIGHT_OFFSET);
+    }
+
+    @Override
+    void setNodeWeight(int node, int weight) {
+        arena(node).putInt(offset(node) + WEIGHT_OFFSET, weight);
+    }
+
+    @Override
+    int childCount(int node) {
+        return arena(node).getInt(offset(node) + CHILD_COUNT_OFFSET);
+    }
+
+    @Override
+    void setChildCount(int node, int count) {
+        arena(node).putInt(offset(node) + CHILD_COUNT_OFFSET, count);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * One arena is added.
+     * </p>
+     *
+     * @throws IllegalStateException if trie is closed or is as big as it may
+     * be
+     * @throws OutOfMemoryError if there is no direct memory for arena
+     */
+    @Override
+    void grow() {
+        checkOpen();
+        if (capacity() >= maxNodes) {
+            throw new IllegalStateException(
+                    "Trie cannot hold more than " + maxNodes + " nodes");
+        }
+        if (arenaCount == arenas.length) {
+            arenas = Arrays.copyOf(arenas, arenas.length * 2);
+        }
+        arenas[arenaCount] = ByteBuffer.allocateDirect(
+                recordBytes << arenaShift).order(ByteOrder.nativeOrder());
+        arenaCount++;
+    }
+
+    @Override
+    public int capacity() {
+        return (int) Math.min((long) arenaCount << arenaShift,
+                Integer.MAX_VALUE);
+    }
+
+    /**
+     * Add arenas until given number of nodes fits in them, so that adding
+     * words does not allocate memory until that number is reached.
+     *
+     * @param nodes number of nodes to hold, including root
+     * @throws IllegalStateException if trie is closed or cannot hold given
+     * number of nodes
+     * @throws OutOfMemoryError if there is no direct memory for arenas
+     */
+    public void ensureCapacity(int nodes) {
+        while (capacity() < nodes) {
+            grow();
+        }
+    }
+
+    /**
+     * Number of bytes of direct memory taken by arenas.
+     *
+     * @return size of all arenas in bytes
+     */
+    public long reservedBytes() {
+        return (long) arenaCount * recordBytes << arenaShift;
+    }
+
+    /**
+     * Free memory of all arenas.
+     * <p>
+     * Trie cannot be used after that. Closing closed trie does nothing.
+     * </p>
+     */
+    @Override
+    public void close() {
+        if (arenas != null) {
+            for (int i = 0; i < arenaCount; i++) {
+                DirectBuffers.free(arenas[i]);
+            }
+            arenas = null;
+            arenaCount = 0;
+        }
+    }
+
+    /**
+     * Arena that holds given node.
+     *
+     * @param node id of node
+     * @return arena of node
+     * @throws IllegalStateException if trie is closed
+     */
+    private ByteBuffer arena(int node) {
+        checkOpen();
+        return arenas[node >>> arenaShift];
+    }
+
+    /**
+     * Offset of record of given node in its arena.
+     *
+     * @param node id of node
+     * @return offset of record in bytes
+     */
+    private int offset(int node) {
+        return (node & arenaMask) * recordBytes;
+    }
+
+    /**
+     * Check that memory of arenas is not freed yet.
+     *
+     * @throws IllegalStateException if trie is closed
+     */
+    private void checkOpen() {
+        if (arenas == null) {
+            throw new IllegalStateException("Trie is closed");
+        }
+    }
+}
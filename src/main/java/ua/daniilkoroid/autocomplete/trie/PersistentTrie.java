@@ -0,0 +1,519 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * Class that represents in-memory dictionary using persistent trie.
+ * <p>
+ * Nodes are never modified. Adding or deleting a word copies only nodes on its
+ * path and shares all other nodes with the previous version, after which the
+ * new version is published at once. Every {@link #wordsWithPrefix(String)}
+ * call iterates the version that was current at the moment of the call, so
+ * iterators never throw {@link java.util.ConcurrentModificationException} and
+ * never see partial modifications.
+ * </p>
+ * <p>
+ * Readers never block and are never blocked. Writers are serialized with each
+ * other.
+ * </p>
+ * <p>
+ * Any <code>char</code> can be used in stored words.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public class PersistentTrie implements Trie {
+
+    /**
+     * Inner class that represents immutable node of trie.
+     * <p>
+     * Children are stored in arrays sorted by letter, so that copying node
+     * costs as much as number of its children.
+     * </p>
+     *
+     * @author Daniil_Koroid
+     *
+     */
+    private static final class Node {
+
+        /**
+         * Value to be stored.
+         * <p>
+         * Currently value is weight of term. <code>0</code> if node does not
+         * hold a word.
+         * </p>
+         */
+        private final int value;
+
+        /**
+         * Sorted letters of children.
+         */
+        private final char[] labels;
+
+        /**
+         * Children in the order of {@link #labels}.
+         */
+        private final Node[] next;
+
+        /**
+         * Create node.
+         *
+         * @param value weight of word or <code>0</code>
+         * @param labels sorted letters of children
+         * @param next children in the order of letters
+         */
+        Node(int value, char[] labels, Node[] next) {
+            this.value = value;
+            this.labels = labels;
+            this.next = next;
+        }
+
+        /**
+         * Find child by given letter.
+         *
+         * @param c letter of child
+         * @return child node if present. Otherwise - <code>null</code>
+         */
+        Node child(char c) {
+            Node result = null;
+            int index = Arrays.binarySearch(labels, c);
+            if (index >= 0) {
+                result = next[index];
+            }
+            return result;
+        }
+
+        /**
+         * Copy of this node with given value.
+         *
+         * @param newValue value of copy
+         * @return copy of this node
+         */
+        Node withValue(int newValue) {
+            return new Node(newValue, labels, next);
+        }
+
+        /**
+         * Copy of this node with child of given letter replaced.
+         *
+         * @param c letter of child
+         * @param child new child. <code>null</code> to remove child
+         * @return copy of this node
+         */
+        Node withChild(char c, Node child) {
+            int index = Arrays.binarySearch(labels, c);
+            Node result;
+            if (index >= 0 && child != null) {
+                Node[] newNext = next.clone();
+                newNext[index] = child;
+                result = new Node(value, labels, newNext);
+            } else if (index >= 0) {
+                result = new Node(value, remove(labels, index),
+                        remove(next, index));
+            } else {
+                int insertion = -index - 1;
+                char[] newLabels = new char[labels.length + 1];
+                Node[] newNext = new Node[next.length + 1];
+                System.arraycopy(labels, 0, newLabels, 0, insertion);
+                System.arraycopy(next, 0, newNext, 0, insertion);
+                newLabels[insertion] = c;
+                newNext[insertion] = child;
+                System.arraycopy(labels, insertion, newLabels, insertion + 1,
+                        labels.length - insertion);
+                System.arraycopy(next, insertion, newNext, insertion + 1,
+                        next.length - insertion);
+                result = new Node(value, newLabels, newNext);
+            }
+            return result;
+        }
+
+        /**
+         * Checks if node holds neither word nor children.
+         *
+         * @return <code>true</code> if node is empty
+         */
+        boolean isEmpty() {
+            return value == 0 && next.length == 0;
+        }
+
+        private static char[] remove(char[] array, int index) {
+            char[] result = new char[array.length - 1];
+            System.arraycopy(array, 0, result, 0, index);
+            System.arraycopy(array, index + 1, result, index,
+                    result.length - index);
+            return result;
+        }
+
+        private static Node[] remove(Node[] array, int index) {
+            Node[] result = new Node[array.length - 1];
+            System.arraycopy(array, 0, result, 0, index);
+            System.arraycopy(array, index + 1, result, index,
+                    result.length - index);
+            return result;
+        }
+    }
+
+    /**
+     * Inner class that represents version of trie: its root and number of
+     * words in it.
+     */
+    private static final class Version {
+
+        /**
+         * Root of version.
+         */
+        private final Node root;
+
+        /**
+         * Number of words in version.
+         */
+        private final int size;
+
+        Version(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Empty prefix.
+     * <p>
+     * Empty prefix is prefix for all words.
+     * </p>
+     */
+    private static final String EMPTY_PREFIX = "";
+
+    /**
+     * Empty node.
+     */
+    private static final Node EMPTY_NODE = new Node(0, new char[0],
+            new Node[0]);
+
+    /**
+     * Lock of writers.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Current version.
+     */
+    private volatile Version current;
+
+    /**
+     * Create empty PersistentTrie.
+     */
+    public PersistentTrie() {
+        this(new Version(EMPTY_NODE, 0));
+    }
+
+    private PersistentTrie(Version version) {
+        current = version;
+    }
+
+    /**
+     * Independent copy of current version of this trie.
+     * <p>
+     * Copy is made in constant time as it shares all nodes with this trie.
+     * Modifications of copy do not affect this trie and vice versa.
+     * </p>
+     *
+     * @return copy of this trie
+     */
+    public PersistentTrie snapshot() {
+        return new PersistentTrie(current);
+    }
+
+    @Override
+    public void add(Tuple tuple) {
+        putIfAbsent(tuple);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Term is looked up and added under lock of writers, so of concurrent
+     * calls with the same term only one adds it.
+     * </p>
+     */
+    @Override
+    public int putIfAbsent(Tuple tuple) {
+        int previous;
+        synchronized (writeLock) {
+            Version version = current;
+            previous = valueOf(get(version.root, tuple.getTerm()));
+            if (previous == 0 && tuple.getWeight() != 0) {
+                current = new Version(put(version.root, tuple.getTerm(),
+                        tuple.getWeight(), 0), version.size + 1);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * New weight is put in new version under lock of writers, so readers see
+     * either old or new weight and never miss present term.
+     * </p>
+     */
+    @Override
+    public int upsert(Tuple tuple) {
+        int previous;
+        synchronized (writeLock) {
+            Version version = current;
+            previous = valueOf(get(version.root, tuple.getTerm()));
+            if (tuple.getWeight() == 0) {
+                delete(tuple.getTerm());
+            } else {
+                int newSize = version.size;
+                if (previous == 0) {
+                    newSize++;
+                }
+                current = new Version(put(version.root, tuple.getTerm(),
+                        tuple.getWeight(), 0), newSize);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * New weight is put in new version under lock of writers, so concurrent
+     * additions to the same word are never lost, and readers see either old
+     * or new weight.
+     * </p>
+     */
+    @Override
+    public int addWeight(String word, int delta) {
+        if (delta <= 0) {
+            throw new IllegalArgumentException(
+                    "Delta must be positive: " + delta);
+        }
+        int result;
+        synchronized (writeLock) {
+            Version version = current;
+            int previous = valueOf(get(version.root, word));
+            result = previous + delta;
+            int newSize = version.size;
+            if (previous == 0) {
+                newSize++;
+            }
+            current = new Version(put(version.root, word, result, 0),
+                    newSize);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only stored words are contained. Prefixes of stored words are not.
+     * </p>
+     */
+    @Override
+    public boolean contains(String word) {
+        return weight(word) != 0;
+    }
+
+    @Override
+    public int weight(String word) {
+        return valueOf(get(current.root, word));
+    }
+
+    @Override
+    public boolean delete(String word) {
+        boolean result;
+        synchronized (writeLock) {
+            Version version = current;
+            Node root = delete(version.root, word, 0);
+            result = root != version.root;
+            if (result) {
+                if (root == null) {
+                    root = EMPTY_NODE;
+                }
+                current = new Version(root, version.size - 1);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return wordsWithPrefix(EMPTY_PREFIX);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returned iterable always iterates over words that were stored at the
+     * moment of this call.
+     * </p>
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+        Node node = get(current.root, pref);
+        return () -> new PersistentTrieIterator(node, pref);
+    }
+
+    @Override
+    public int size() {
+        return current.size;
+    }
+
+    /**
+     * Find node with given key.
+     *
+     * @param root root of version to search in
+     * @param key key to find node by
+     * @return node with given key if found successfully. Otherwise -
+     * <code>null</code>
+     */
+    private static Node get(Node root, String key) {
+        Node node = root;
+        for (int d = 0; d < key.length() && node != null; d++) {
+            node = node.child(key.charAt(d));
+        }
+        return node;
+    }
+
+    /**
+     * Value of given node.
+     *
+     * @param node node or <code>null</code>
+     * @return value of given node, or <code>0</code> if there is no node
+     */
+    private static int valueOf(Node node) {
+        int result = 0;
+        if (node != null) {
+            result = node.value;
+        }
+        return result;
+    }
+
+    /**
+     * Set value of node of given key in copy of given node.
+     *
+     * @param node node to set value in or parent (can be indirect) of node
+     * to set value in. <code>null</code> if there is no such node yet
+     * @param key key of node to set value of
+     * @param value value to set
+     * @param d number of char in key to currently watch for
+     * @return copy of given node with given value set. Given node itself if
+     * node of key already has given value
+     */
+    private static Node put(Node node, String key, int value, int d) {
+        Node current = node;
+        if (current == null) {
+            current = EMPTY_NODE;
+        }
+        Node result;
+        if (d == key.length()) {
+            if (current.value == value) {
+                result = current;
+            } else {
+                result = current.withValue(value);
+            }
+        } else {
+            char c = key.charAt(d);
+            Node child = current.child(c);
+            Node newChild = put(child, key, value, d + 1);
+            if (newChild == child) {
+                result = current;
+            } else {
+                result = current.withChild(c, newChild);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Delete given key from copy of given node.
+     *
+     * @param node node to delete given key
+     * @param key key to delete
+     * @param d index of char in key that is currently used to be pointed at
+     * @return given node itself if key is absent. <code>null</code> if copy
+     * becomes empty. Otherwise - copy of given node without given key
+     */
+    private static Node delete(Node node, String key, int d) {
+        Node result;
+        if (node == null) {
+            result = null;
+        } else if (d == key.length()) {
+            if (node.value == 0) {
+                result = node;
+            } else {
+                result = node.withValue(0);
+            }
+        } else {
+            char c = key.charAt(d);
+            Node child = node.child(c);
+            Node newChild = delete(child, key, d + 1);
+            if (newChild == child) {
+                result = node;
+            } else {
+                result = node.withChild(c, newChild);
+            }
+        }
+        if (result != null && result != node && result.isEmpty()) {
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Breadth-first iterator over words of immutable subtree.
+     */
+    private static class PersistentTrieIterator implements Iterator<String> {
+
+        private final Queue<Node> nodes = new ArrayDeque<>();
+
+        private final Queue<String> prefixes = new ArrayDeque<>();
+
+        private String next;
+
+        PersistentTrieIterator(Node root, String prefix) {
+            if (root != null) {
+                nodes.offer(root);
+                prefixes.offer(prefix);
+            }
+            findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String result = next;
+            findNext();
+            return result;
+        }
+
+        private void findNext() {
+            next = null;
+            while (next == null && !nodes.isEmpty()) {
+                Node node = nodes.remove();
+                String prefix = prefixes.remove();
+                if (node.value != 0) {
+                    next = prefix;
+                }
+                for (int i = 0; i < node.next.length; i++) {
+                    nodes.offer(node.next[i]);
+                    prefixes.offer(prefix + node.labels[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.Arrays;
+
+/**
+ * Class that represents in-memory dictionary using R-way trie whose nodes
+ * are kept in primitive arrays.
+ * <p>
+ * Node id is index of its row in array of links and of its weight and number
+ * of children in two other arrays. So the whole trie is a few arrays on heap.
+ * Arrays grow twice when they are full.
+ * </p>
+ * <p>
+ * Words can consist only of chars of {@link Alphabet} given on creation.
+ * Words with other chars are never contained, and adding them throws
+ * {@link IllegalArgumentException}.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public class PooledTrie extends NodePoolTrie {
+
+    /**
+     * Number of nodes that arrays are created for.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The biggest length of array that every virtual machine can create.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * Links to children, in rows of {@link #radix} cells by node id.
+     */
+    private int[] children;
+
+    /**
+     * Weights of words by node id.
+     */
+    private int[] weights;
+
+    /**
+     * Number of children by node id.
+     */
+    private int[] childCounts;
+
+    /**
+     * Create PooledTrie.
+     * <p>
+     * Currently supported alphabet is {@link Alphabet#ENGLISH}. Created
+     * in-memory dictionary is created empty.
+     * </p>
+     */
+    public PooledTrie() {
+        this(Alphabet.ENGLISH);
+    }
+
+    /**
+     * Create PooledTrie for words of given alphabet.
+     * <p>
+     * Every node takes as many cells as there are chars in given alphabet,
+     * so alphabet built by {@link Alphabet#fromWords(Iterable)} from the
+     * words to store keeps arrays as small as possible.
+     * </p>
+     *
+     * @param alphabet alphabet of words to store
+     */
+    public PooledTrie(Alphabet alphabet) {
+        super(alphabet);
+        children = new int[INITIAL_CAPACITY * radix];
+        weights = new int[INITIAL_CAPACITY];
+        childCounts = new int[INITIAL_CAPACITY];
+    }
+
+    @Override
+    int child(int node, int c) {
+        return children[node * radix + c];
+    }
+
+    @Override
+    void setChild(int node, int c, int child) {
+        children[node * radix + c] = child;
+    }
+
+    @Override
+    int nodeWeight(int node) {
+        return weights[node];
+    }
+
+    @Override
+    void setNodeWeight(int node, int weight) {
+        weights[node] = weight;
+    }
+
+    @Override
+    int childCount(int node) {
+        return childCounts[node];
+    }
+
+    @Override
+    void setChildCount(int node, int count) {
+        childCounts[node] = count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Capacity of arrays is doubled, or raised to the biggest one that array
+     * of links can have.
+     * </p>
+     */
+    @Override
+    void grow() {
+        int maxCapacity = MAX_ARRAY_LENGTH / radix;
+        int capacity = weights.length;
+        if (capacity >= maxCapacity) {
+            throw new IllegalStateException(
+                    "Trie cannot hold more than " + maxCapacity + " nodes");
+        }
+        int newCapacity = (int) Math.min((long) capacity * 2, maxCapacity);
+        children = Arrays.copyOf(children, newCapacity * radix);
+        weights = Arrays.copyOf(weights, newCapacity);
+        childCounts = Arrays.copyOf(childCounts, newCapacity);
+    }
+
+    @Override
+    public int capacity() {
+        return weights.length;
+    }
+}
@@ -0,0 +1,57 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+/**
+ * Cursor that keeps prefix only and asks trie for words by the whole prefix.
+ * <p>
+ * Used by tries that cannot keep their position.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+class PrefixCursor implements TrieCursor {
+
+    /**
+     * Trie to find words in.
+     */
+    private final Trie trie;
+
+    /**
+     * Current prefix.
+     */
+    private final StringBuilder prefix;
+
+    /**
+     * Create cursor at empty prefix.
+     *
+     * @param trie trie to find words in
+     */
+    PrefixCursor(Trie trie) {
+        this.trie = trie;
+        prefix = new StringBuilder();
+    }
+
+    @Override
+    public boolean push(char c) {
+        prefix.append(c);
+        return true;
+    }
+
+    @Override
+    public void pop() {
+        if (prefix.length() == 0) {
+            throw new IllegalStateException("Prefix is empty");
+        }
+        prefix.setLength(prefix.length() - 1);
+    }
+
+    @Override
+    public String prefix() {
+        return prefix.toString();
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return trie.wordsWithPrefix(prefix.toString());
+    }
+}
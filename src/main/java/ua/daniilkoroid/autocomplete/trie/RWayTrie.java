@@ -1,12 +1,26 @@
 package ua.daniilkoroid.autocomplete.trie;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class that represents in-memory dictionary using R-way trie.
+ * <p>
+ * Words can consist only of chars of {@link Alphabet} given on creation.
+ * Words with other chars are never contained, and adding them throws
+ * {@link IllegalArgumentException}.
+ * </p>
  *
  * @author Daniil_Koroid
  *
@@ -16,8 +30,8 @@ public class RWayTrie implements Trie {
     /**
      * Inner class that represents node of trie.
      * <p>
-     * This node stores given value and also link to all next nodes. Size of
-     * used alphabet is determined by {@link #ALPHABET_SIZE}.
+     * This node stores given value and also link to all next nodes. Number of
+     * links is size of used {@link Alphabet}.
      * </p>
      *
      * @author Daniil_Koroid
@@ -33,6 +47,24 @@ public class RWayTrie implements Trie {
          */
         private int value;
 
+        /**
+         * The biggest value stored in this node or any of its descendants.
+         * <p>
+         * Used to visit the heaviest subtrees first when searching for top
+         * words.
+         * </p>
+         */
+        private int maxWeight;
+
+        /**
+         * The heaviest tuples stored in this node or any of its descendants,
+         * ordered by {@link Tuple#HEAVIEST_FIRST}.
+         * <p>
+         * <code>null</code> if this node does not cache top tuples.
+         * </p>
+         */
+        private Tuple[] top;
+
         /**
          * Links to next nodes.
          */
@@ -40,20 +72,14 @@ public class RWayTrie implements Trie {
 
         /**
          * Create empty node.
+         *
+         * @param alphabetSize size of used alphabet
          */
-        public Node() {
-            next = new Node[ALPHABET_SIZE];
+        public Node(int alphabetSize) {
+            next = new Node[alphabetSize];
         }
     }
 
-    /**
-     * Size of used alphabet.
-     * <p>
-     * Currently used alphabet is English alphabet which size is 26.
-     * </p>
-     */
-    private static final int ALPHABET_SIZE = 26;
-
     /**
      * Empty prefix.
      * <p>
@@ -63,14 +89,29 @@ public class RWayTrie implements Trie {
     private static final String EMPTY_PREFIX = "";
 
     /**
-     * First letter in used alphabet.
+     * Number of different lengths that does not limit search.
      */
-    private static final char FIRST_ALPHABET_LETTER = 'a';
+    private static final int ALL_LENGTHS = Integer.MAX_VALUE;
+
+    /**
+     * Cached top tuples of node that has no words in its subtree.
+     */
+    private static final Tuple[] NO_TOP = new Tuple[0];
+
+    /**
+     * Top counts used when no top words are cached.
+     */
+    private static final int[] NO_TOP_COUNTS = new int[0];
+
+    /**
+     * Initial depth that arrays indexed by depth are created for.
+     */
+    private static final int INITIAL_DEPTH = 16;
 
     /**
      * Empty node root.
      */
-    private Node root;
+    private final Node root;
 
     /**
      * Number of stored tuples.
@@ -82,40 +123,270 @@ public class RWayTrie implements Trie {
      */
     private int modCount;
 
+    /**
+     * Number of top tuples cached in every node, by node depth.
+     * <p>
+     * Nodes that are deeper than length of this array do not cache top tuples.
+     * </p>
+     */
+    private final int[] topCounts;
+
+    /**
+     * Alphabet of stored words.
+     */
+    private final Alphabet alphabet;
+
+    /**
+     * Nodes on the path of the last modified word, by depth.
+     * <p>
+     * Array is reused by every modification, so it may hold nodes of the
+     * last modified word until the next one.
+     * </p>
+     */
+    private Node[] path;
+
     /**
      * Create RWayTrie.
      * <p>
-     * Currently supported alphabet size is {@link #ALPHABET_SIZE}. Created
+     * Currently supported alphabet is {@link Alphabet#ENGLISH}. Created
      * in-memory dictionary is created empty.
      * </p>
      */
     public RWayTrie() {
-        this.root = new Node();
+        this(Alphabet.ENGLISH, NO_TOP_COUNTS);
+    }
+
+    /**
+     * Create RWayTrie for words of given alphabet.
+     * <p>
+     * Every node has as many links as there are chars in given alphabet, so
+     * alphabet built by {@link Alphabet#fromWords(Iterable)} from the words
+     * to store keeps nodes as small as possible.
+     * </p>
+     *
+     * @param alphabet alphabet of words to store
+     */
+    public RWayTrie(Alphabet alphabet) {
+        this(alphabet, NO_TOP_COUNTS);
+    }
+
+    /**
+     * Create RWayTrie that caches top words in nodes of small depth.
+     * <p>
+     * Currently supported alphabet is {@link Alphabet#ENGLISH}.
+     * </p>
+     *
+     * @param topCounts number of top words to cache in node, by node depth
+     * @throws IllegalArgumentException if any count is negative
+     * @see #RWayTrie(Alphabet, int[])
+     */
+    public RWayTrie(int[] topCounts) {
+        this(Alphabet.ENGLISH, topCounts);
+    }
+
+    /**
+     * Create RWayTrie that caches top words in nodes of small depth.
+     * <p>
+     * Every node of depth <code>d</code> keeps the
+     * <code>topCounts[d]</code> heaviest words of its subtree, so
+     * {@link #topK(String, int)} for prefixes of length <code>d</code> with
+     * <code>k</code> not greater than that count is answered without search.
+     * Cached words are kept up to date on every modification. Nodes deeper
+     * than length of given array cache nothing.
+     * </p>
+     *
+     * @param alphabet alphabet of words to store
+     * @param topCounts number of top words to cache in node, by node depth
+     * @throws IllegalArgumentException if any count is negative
+     */
+    public RWayTrie(Alphabet alphabet, int[] topCounts) {
+        for (int topCount : topCounts) {
+            if (topCount < 0) {
+                throw new IllegalArgumentException(
+                        "Top count must not be negative: " + topCount);
+            }
+        }
+        this.alphabet = alphabet;
+        this.topCounts = topCounts.clone();
+        this.root = createNode(0);
+        this.path = new Node[INITIAL_DEPTH];
         size = 0;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet of this trie
+     */
     @Override
     public void add(Tuple tuple) {
-        if (!contains(tuple.getTerm())) {
+        putIfAbsent(tuple);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Path of term is walked once: missing nodes are created on the way
+     * down, and biggest weights and cached top words of nodes on the path
+     * are updated only if term turns out to be new.
+     * </p>
+     *
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet of this trie
+     */
+    @Override
+    public int putIfAbsent(Tuple tuple) {
+        String term = tuple.getTerm();
+        checkSupported(term);
+        int previous;
+        if (tuple.getWeight() == 0) {
+            previous = weight(term);
+        } else {
+            walk(term, true);
+            previous = path[term.length()].value;
+        }
+        if (previous == 0 && tuple.getWeight() != 0) {
             updateModificationsCount();
-            put(root, tuple, 0);
+            path[term.length()].value = tuple.getWeight();
+            size++;
+            for (int d = 0; d <= term.length(); d++) {
+                Node node = path[d];
+                node.maxWeight = Math.max(node.maxWeight, tuple.getWeight());
+                if (node.top != null) {
+                    node.top = insertTop(node.top, tuple, topCount(d));
+                }
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Path of term is walked once. If weight grows, biggest weights and
+     * cached top words of nodes on the path are updated on the way down, as
+     * by {@link #addWeight(String, int)}. If it drops, they are recomputed
+     * from the deepest node up, as by {@link #delete(String)}.
+     * </p>
+     *
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet of this trie
+     */
+    @Override
+    public int upsert(Tuple tuple) {
+        String term = tuple.getTerm();
+        checkSupported(term);
+        if (tuple.getWeight() == 0) {
+            int previous = weight(term);
+            delete(term);
+            return previous;
+        }
+        walk(term, true);
+        updateModificationsCount();
+        int previous = path[term.length()].value;
+        if (previous == 0) {
+            size++;
+        }
+        path[term.length()].value = tuple.getWeight();
+        if (tuple.getWeight() >= previous) {
+            for (int d = 0; d <= term.length(); d++) {
+                Node node = path[d];
+                node.maxWeight = Math.max(node.maxWeight, tuple.getWeight());
+                if (node.top != null) {
+                    node.top = insertTop(removeTerm(node.top, term), tuple,
+                            topCount(d));
+                }
+            }
+        } else {
+            summarizePath(term);
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Terms are checked before anything is added, and then tuples are added
+     * one by one.
+     * </p>
+     *
+     * @throws IllegalArgumentException if any term has char that is not in
+     * alphabet of this trie. Nothing is added in that case
+     */
+    @Override
+    public void addAll(Collection<Tuple> tuples) {
+        for (Tuple tuple : tuples) {
+            checkSupported(tuple.getTerm());
+        }
+        for (Tuple tuple : tuples) {
+            putIfAbsent(tuple);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Weight is updated in the same walk that finds or creates node of word,
+     * together with biggest weights and cached top words of nodes on the
+     * way.
+     * </p>
+     *
+     * @throws IllegalArgumentException if word has char that is not in
+     * alphabet of this trie
+     */
+    @Override
+    public int addWeight(String word, int delta) {
+        if (delta <= 0) {
+            throw new IllegalArgumentException(
+                    "Delta must be positive: " + delta);
         }
+        checkSupported(word);
+        updateModificationsCount();
+        return addWeightOnPath(word, delta);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only stored words are contained. Prefixes of stored words are not.
+     * </p>
+     */
     @Override
     public boolean contains(String word) {
-        Node node = get(root, word, 0);
-        return node != null;
+        Node node = get(word);
+        return node != null && node.value != 0;
+    }
+
+    @Override
+    public int weight(String word) {
+        int result = 0;
+        Node node = get(word);
+        if (node != null) {
+            result = node.value;
+        }
+        return result;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Path of word is walked once, keeping its nodes, which are then
+     * visited from the deepest one up: biggest weights and cached top words
+     * are recomputed, and nodes left without word and children are
+     * unlinked.
+     * </p>
+     */
     @Override
     public boolean delete(String word) {
-        if (!contains(word)) {
+        if (walk(word, false) < word.length()
+                || path[word.length()].value == 0) {
             return false;
         }
         updateModificationsCount();
-        root = delete(root, word, 0);
+        path[word.length()].value = 0;
         size--;
+        summarizePath(word);
         return true;
     }
 
@@ -126,203 +397,1131 @@ public class RWayTrie implements Trie {
 
     @Override
     public Iterable<String> wordsWithPrefix(String pref) {
-        Node node = get(root, pref, 0);
-        return new RWayTrieIterable(node, pref);
+        return wordsWithPrefix(pref, ALL_LENGTHS);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Traversal stops as soon as the level of the k-th length is visited, so
+     * deeper levels are never built.
+     * </p>
+     */
     @Override
-    public int size() {
-        return size;
+    public Iterable<String> wordsWithPrefix(String pref, int k) {
+        Node node = get(pref);
+        return new RWayTrieIterable(node, pref, k);
     }
 
     /**
-     * Find node with given key.
-     *
-     * @param node parent node to find node with given key among parent node
-     * children
-     * @param key key to find node by
-     * @param d number of char in key to currently watch for
-     * @return node with given key if found successfully. Otherwise -
-     * <code>null</code>
+     * {@inheritDoc}
+     * <p>
+     * Spliterator of returned stream splits subtree of prefix at ranges of
+     * children of its nodes, so parallel stream visits different subtrees in
+     * different threads.
+     * </p>
      */
-    private Node get(Node node, String key, int d) {
-        Node result;
+    @Override
+    public Stream<String> streamWithPrefix(String pref) {
+        Node node = get(pref);
+        Spliterator<String> spliterator;
         if (node == null) {
-            result = null;
-        } else if (d == key.length()) {
-            result = node;
+            spliterator = Spliterators.emptySpliterator();
         } else {
-            int c = key.charAt(d) - FIRST_ALPHABET_LETTER;
-            result = get(node.next[c], key, d + 1);
+            spliterator = new RWayTrieSpliterator(node, pref, 0,
+                    alphabet.size(), true, size, modCount);
         }
-        return result;
+        return StreamSupport.stream(spliterator, false);
     }
 
     /**
-     * Put given tuple in given node or in one of it's children.
+     * {@inheritDoc}
      * <p>
-     * If given node is not correct for putting given tuple in - tries to put
-     * given tuple in appropriate child of given node.
+     * Cursor keeps node of every prefix length, so appending char is one step
+     * to child and removing it is one step back. If trie is modified, nodes
+     * are found again from the root on the next call.
      * </p>
-     *
-     * @param node node to put given tuple in or parent (can be indirect) of
-     * node to put given tuple in
-     * @param tuple tuple to put
-     * @param d number of char in word to currently watch for
-     * @return
      */
-    private Node put(Node node, Tuple tuple, int d) {
-        if (node == null) {
-            node = new Node();
-        }
-        String term = tuple.getTerm();
-        if (d == term.length()) {
-            node.value = tuple.getWeight();
-            size++;
-            return node;
-        }
-        int c = term.charAt(d) - FIRST_ALPHABET_LETTER;
-        node.next[c] = put(node.next[c], tuple, d + 1);
-        return node;
+    @Override
+    public TrieCursor cursor() {
+        return new RWayTrieCursor();
     }
 
     /**
-     * Deletes given key from given node.
+     * {@inheritDoc}
+     * <p>
+     * Passed word is a view over buffer that is reused for the next word. No
+     * string is created.
+     * </p>
      *
-     * @param node node to delete given key
-     * @param key key to delete
-     * @param d index of char in key that is currently used to be pointed at
-     * @return <code>null</code> if given node and all of the links in given
-     * node are null. Otherwise return given node
+     * @throws ConcurrentModificationException if trie is modified by visitor
      */
-    private Node delete(Node node, String key, int d) {
+    @Override
+    public void visitWordsWithPrefix(String pref, WordVisitor visitor) {
+        Node node = get(pref);
         if (node == null) {
-            return null;
+            return;
         }
-        if (d == key.length()) {
-            node.value = 0;
-        } else {
-            int c = key.charAt(d) - FIRST_ALPHABET_LETTER;
-            node.next[c] = delete(node.next[c], key, d + 1);
+        int expectedModCount = modCount;
+        Traversal traversal = new Traversal(node, pref, alphabet);
+        CharArraySequence word = new CharArraySequence();
+        boolean proceed = true;
+        while (proceed && traversal.advance()) {
+            traversal.path(word);
+            proceed = visitor.visit(word, traversal.node().value);
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
         }
+    }
 
-        if (node.value != 0) {
-            return node;
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Trie is walked depth-first with a row of edit distances per node, and
+     * subtree is skipped as soon as the smallest distance in row is too big.
+     * Words are searched in passes, one for every distance starting from
+     * <code>0</code>, and search stops as soon as enough words are found, so
+     * words with bigger distances are not searched for if they are not
+     * needed.
+     * </p>
+     */
+    @Override
+    public Iterable<String> wordsWithFuzzyPrefix(String pref, int maxEdits,
+            int limit) {
+        FuzzySearch search = new FuzzySearch(pref, maxEdits, limit);
+        for (int d = 0; d <= maxEdits && !search.isFull(); d++) {
+            search.pass(d);
         }
+        return search.result;
+    }
 
-        for (char c = 0; c < ALPHABET_SIZE; c++) {
-            if (node.next[c] != null) {
-                return node;
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Subtrees are visited best-first by the biggest weight stored in them, so
+     * only subtrees that can contain one of the top words are expanded.
+     * </p>
+     */
+    @Override
+    public Iterable<String> topK(String pref, int k) {
+        List<String> result = new ArrayList<>();
+        Node node = get(pref);
+        if (node == null || k <= 0) {
+            return result;
+        }
+        if (node.top != null && k <= topCount(pref.length())) {
+            for (int i = 0; i < k && i < node.top.length; i++) {
+                result.add(node.top[i].getTerm());
+            }
+        } else {
+            for (Tuple tuple : heaviest(node, pref, k)) {
+                result.add(tuple.getTerm());
             }
         }
-        return null;
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
     }
 
     /**
-     * Updates modification count of RWayTrie.
+     * Find the heaviest tuples in subtree of given node.
+     * <p>
+     * Subtrees are visited best-first by the biggest weight stored in them, so
+     * only subtrees that can contain one of the top words are expanded.
+     * </p>
+     *
+     * @param node subtree root
+     * @param prefix prefix of given node
+     * @param k maximum number of tuples to find
+     * @return at most k heaviest tuples ordered by
+     * {@link Tuple#HEAVIEST_FIRST}
      */
-    private void updateModificationsCount() {
-        modCount++;
+    private List<Tuple> heaviest(Node node, String prefix, int k) {
+        List<Tuple> result = new ArrayList<>();
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+        candidates.offer(new Candidate(node, prefix, node.maxWeight));
+        while (!candidates.isEmpty() && result.size() < k) {
+            Candidate candidate = candidates.poll();
+            if (candidate.node == null) {
+                result.add(new Tuple(candidate.prefix, candidate.weight));
+            } else {
+                expand(candidate, candidates);
+            }
+        }
+        return result;
     }
 
-    private class RWayTrieIterable implements Iterable<String> {
-
-        private Iterator<String> iterator;
-
-        public RWayTrieIterable(Node root, String prefix) {
-            iterator = new RWayTrieIterator(root, prefix);
+    /**
+     * Put word of given subtree candidate and candidates of its children to
+     * given queue.
+     *
+     * @param candidate subtree candidate to expand
+     * @param candidates queue of candidates
+     */
+    private void expand(Candidate candidate,
+            PriorityQueue<Candidate> candidates) {
+        Node node = candidate.node;
+        if (node.value != 0) {
+            candidates.offer(new Candidate(null, candidate.prefix, node.value));
         }
-
-        @Override
-        public Iterator<String> iterator() {
-            return iterator;
+        for (int c = 0; c < node.next.length; c++) {
+            Node child = node.next[c];
+            if (child != null) {
+                String childPrefix = candidate.prefix + alphabet.charAt(c);
+                candidates.offer(
+                        new Candidate(child, childPrefix, child.maxWeight));
+            }
         }
-
     }
 
     /**
-     * Local class used to associate node with prefix that is stored with given
-     * node.
+     * Find node with given key.
+     * <p>
+     * Trie is walked down in a loop, so keys of any length are found without
+     * growing call stack.
+     * </p>
+     *
+     * @param key key to find node by
+     * @return node with given key if found successfully. Otherwise -
+     * <code>null</code>
      */
-    private static class NodePrefixTuple {
-
-        /**
-         * Node to store in tuple.
-         */
-        private final Node node;
-
-        /**
-         * Prefix that is associated with given node.
-         */
-        private final String prefix;
-
-        /**
-         * Create tuple of node and associated prefix.
-         *
-         * @param node node to store
-         * @param prefix appropriate prefix
-         */
-        public NodePrefixTuple(Node node, String prefix) {
-            this.node = node;
-            this.prefix = prefix;
+    private Node get(String key) {
+        Node node = root;
+        for (int d = 0; d < key.length() && node != null; d++) {
+            int c = alphabet.indexOf(key.charAt(d));
+            if (c == Alphabet.ABSENT) {
+                node = null;
+            } else {
+                node = node.next[c];
+            }
         }
+        return node;
     }
 
-    private class RWayTrieIterator implements Iterator<String> {
-
-        private Queue<NodePrefixTuple> nodePrefixQueue;
-
-        private NodePrefixTuple next;
-
-        private int expectedModCount = modCount;
-
-        public RWayTrieIterator(Node root, String prefix) {
-            if (root == null || prefix == null) {
-                next = null;
-                return;
+    /**
+     * Walk path of given word from root, keeping its nodes by depth in
+     * {@link #path}.
+     *
+     * @param word word to walk path of
+     * @param create <code>true</code> to create missing nodes. All chars of
+     * word must be in alphabet then
+     * @return depth of the deepest node on the path, which is length of word
+     * if node of word exists or is created
+     */
+    private int walk(String word, boolean create) {
+        if (word.length() >= path.length) {
+            path = new Node[Math.max(word.length() + 1, path.length * 2)];
+        }
+        Node[] nodes = path;
+        Node node = root;
+        nodes[0] = node;
+        int d = 0;
+        while (node != null && d < word.length()) {
+            int c = alphabet.indexOf(word.charAt(d));
+            Node child = null;
+            if (c != Alphabet.ABSENT) {
+                child = node.next[c];
+                if (child == null && create) {
+                    child = createNode(d + 1);
+                    node.next[c] = child;
+                }
+            }
+            node = child;
+            if (node != null) {
+                d++;
+                nodes[d] = node;
             }
-            nodePrefixQueue = new LinkedList<>();
-            nodePrefixQueue.offer(new NodePrefixTuple(root, prefix));
-            findNext();
         }
+        return d;
+    }
 
-        @Override
-        public boolean hasNext() {
-            return next != null;
+    /**
+     * Checks that all chars of given term are in alphabet of this trie.
+     *
+     * @param term term to check
+     * @throws IllegalArgumentException if term has char that is not in
+     * alphabet
+     */
+    private void checkSupported(String term) {
+        if (!alphabet.supports(term)) {
+            throw new IllegalArgumentException("Term " + term
+                    + " has chars that are not in alphabet");
         }
+    }
 
-        @Override
-        public String next() {
-            checkForComodification();
-            NodePrefixTuple toReturn = next;
-            findNext();
-            return toReturn.prefix;
+    /**
+     * Add given delta to weight of given word, creating missing nodes on its
+     * path.
+     * <p>
+     * New weight is known only at the end of the path, so biggest weights
+     * and cached top tuples of nodes of the path are updated afterwards.
+     * </p>
+     *
+     * @param word word to add weight to
+     * @param delta weight to add
+     * @return new weight of given word
+     */
+    private int addWeightOnPath(String word, int delta) {
+        walk(word, true);
+        Node node = path[word.length()];
+        if (node.value == 0) {
+            size++;
         }
+        node.value += delta;
+        int result = node.value;
+        Tuple tuple = new Tuple(word, result);
+        for (int d = 0; d <= word.length(); d++) {
+            path[d].maxWeight = Math.max(path[d].maxWeight, result);
+            if (path[d].top != null) {
+                path[d].top = insertTop(removeTerm(path[d].top, word), tuple,
+                        topCount(d));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove tuple with given term from given cached top tuples.
+     *
+     * @param top cached top tuples
+     * @param term term to remove
+     * @return cached top tuples without given term
+     */
+    private static Tuple[] removeTerm(Tuple[] top, String term) {
+        Tuple[] result = top;
+        for (int i = 0; i < top.length && result == top; i++) {
+            if (top[i].getTerm().equals(term)) {
+                result = new Tuple[top.length - 1];
+                System.arraycopy(top, 0, result, 0, i);
+                System.arraycopy(top, i + 1, result, i, top.length - i - 1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recompute nodes on the path of given word after its weight dropped or
+     * it was deleted.
+     * <p>
+     * Nodes kept in {@link #path} are visited from the deepest one up:
+     * biggest weight of every node is recomputed from its children, node
+     * that is left without word and children is unlinked from its parent,
+     * and cached top tuples that contain given word are recomputed.
+     * </p>
+     *
+     * @param word word whose weight dropped or that was deleted
+     */
+    private void summarizePath(String word) {
+        for (int d = word.length(); d >= 0; d--) {
+            Node node = path[d];
+            boolean hasChildren = false;
+            node.maxWeight = node.value;
+            for (int c = 0; c < node.next.length; c++) {
+                if (node.next[c] != null) {
+                    hasChildren = true;
+                    node.maxWeight = Math.max(node.maxWeight,
+                            node.next[c].maxWeight);
+                }
+            }
+            if (d > 0 && node.value == 0 && !hasChildren) {
+                path[d - 1].next[alphabet.indexOf(word.charAt(d - 1))] = null;
+            } else if (node.top != null && containsTerm(node.top, word)) {
+                List<Tuple> top = heaviest(node, word.substring(0, d),
+                        topCount(d));
+                node.top = top.toArray(new Tuple[top.size()]);
+            }
+        }
+    }
+
+    /**
+     * Create node for given depth.
+     * <p>
+     * Node caches top tuples if {@link #topCounts} requires it for given
+     * depth.
+     * </p>
+     *
+     * @param d depth of node
+     * @return created node
+     */
+    private Node createNode(int d) {
+        Node node = new Node(alphabet.size());
+        if (topCount(d) > 0) {
+            node.top = NO_TOP;
+        }
+        return node;
+    }
+
+    /**
+     * Number of top tuples that node of given depth caches.
+     *
+     * @param d depth of node
+     * @return number of top tuples to cache
+     */
+    private int topCount(int d) {
+        int result = 0;
+        if (d < topCounts.length) {
+            result = topCounts[d];
+        }
+        return result;
+    }
+
+    /**
+     * Insert given tuple into given cached top tuples.
+     *
+     * @param top cached top tuples
+     * @param tuple tuple to insert
+     * @param capacity maximum number of top tuples to cache
+     * @return new cached top tuples
+     */
+    private static Tuple[] insertTop(Tuple[] top, Tuple tuple, int capacity) {
+        int index = -Arrays.binarySearch(top, tuple, Tuple.HEAVIEST_FIRST) - 1;
+        if (index < 0 || index >= capacity) {
+            return top;
+        }
+        int length = Math.min(top.length + 1, capacity);
+        Tuple[] result = new Tuple[length];
+        System.arraycopy(top, 0, result, 0, index);
+        result[index] = tuple;
+        System.arraycopy(top, index, result, index + 1, length - index - 1);
+        return result;
+    }
+
+    /**
+     * Checks if given tuples contain given term.
+     *
+     * @param tuples tuples to look in
+     * @param term term to look for
+     * @return <code>true</code> if one of tuples has given term
+     */
+    private static boolean containsTerm(Tuple[] tuples, String term) {
+        for (Tuple tuple : tuples) {
+            if (tuple.getTerm().equals(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Updates modification count of RWayTrie.
+     */
+    private void updateModificationsCount() {
+        modCount++;
+    }
+
+    private class RWayTrieIterable implements Iterable<String> {
+
+        private Iterator<String> iterator;
+
+        public RWayTrieIterable(Node root, String prefix, int lengthCount) {
+            iterator = new RWayTrieIterator(root, prefix, lengthCount);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return iterator;
+        }
+
+    }
+
+    /**
+     * Local class used to order subtrees and words while searching for top
+     * words.
+     * <p>
+     * Candidate with bigger weight goes first. Candidates with equal weights
+     * go alphabetically by prefix. All words of subtree are not less than its
+     * prefix, so every word that should go before returned one is found
+     * earlier, and only subtrees on the way to it are expanded.
+     * </p>
+     */
+    private static class Candidate implements Comparable<Candidate> {
+
+        /**
+         * Subtree root. <code>null</code> if candidate is a word.
+         */
+        private final Node node;
+
+        /**
+         * Prefix of subtree or the word itself.
+         */
+        private final String prefix;
+
+        /**
+         * The biggest weight in subtree or weight of the word.
+         */
+        private final int weight;
+
+        /**
+         * Create candidate.
+         *
+         * @param node subtree root or <code>null</code> for word
+         * @param prefix prefix of subtree or the word
+         * @param weight the biggest weight in subtree or weight of the word
+         */
+        public Candidate(Node node, String prefix, int weight) {
+            this.node = node;
+            this.prefix = prefix;
+            this.weight = weight;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int result = Integer.compare(other.weight, weight);
+            if (result == 0) {
+                result = prefix.compareTo(other.prefix);
+            }
+            if (result == 0) {
+                result = Boolean.compare(node == null, other.node == null);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Cursor that keeps stack of nodes of all prefixes of current prefix.
+     */
+    private class RWayTrieCursor implements TrieCursor {
+
+        /**
+         * Node of prefix by its length. <code>null</code> if there is no such
+         * node.
+         */
+        private Node[] nodes;
+
+        /**
+         * Chars of current prefix.
+         */
+        private char[] chars;
+
+        /**
+         * Length of current prefix.
+         */
+        private int depth;
+
+        /**
+         * Modification count of trie that nodes were found at.
+         */
+        private int expectedModCount;
+
+        /**
+         * Create cursor at empty prefix.
+         */
+        RWayTrieCursor() {
+            nodes = new Node[INITIAL_DEPTH];
+            chars = new char[INITIAL_DEPTH];
+            nodes[0] = root;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean push(char c) {
+            refresh();
+            if (depth + 1 == nodes.length) {
+                nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+            chars[depth] = c;
+            nodes[depth + 1] = child(nodes[depth], c);
+            depth++;
+            return nodes[depth] != null;
+        }
+
+        @Override
+        public void pop() {
+            if (depth == 0) {
+                throw new IllegalStateException("Prefix is empty");
+            }
+            depth--;
+        }
+
+        @Override
+        public String prefix() {
+            return new String(chars, 0, depth);
+        }
+
+        @Override
+        public Iterable<String> words() {
+            refresh();
+            return new RWayTrieIterable(nodes[depth], prefix(), ALL_LENGTHS);
+        }
+
+        /**
+         * Find child of given node by char.
+         *
+         * @param node parent node or <code>null</code>
+         * @param c char of child
+         * @return child or <code>null</code> if there is no such child
+         */
+        private Node child(Node node, char c) {
+            Node result = null;
+            int index = alphabet.indexOf(c);
+            if (node != null && index != Alphabet.ABSENT) {
+                result = node.next[index];
+            }
+            return result;
+        }
+
+        /**
+         * Find nodes of prefixes again if trie was modified.
+         */
+        private void refresh() {
+            if (expectedModCount != modCount) {
+                for (int d = 0; d < depth; d++) {
+                    nodes[d + 1] = child(nodes[d], chars[d]);
+                }
+                expectedModCount = modCount;
+            }
+        }
+    }
+
+    /**
+     * Search of words that start from prefix close to given one.
+     * <p>
+     * Every pass finds words of one distance. Distance of word is the
+     * smallest of distances of nodes on its path. Once the smallest distance
+     * in row of node is not smaller than the smallest distance on the path,
+     * no node below can be closer, so all words of its subtree have that
+     * distance and are taken without computing rows.
+     * </p>
+     */
+    private class FuzzySearch {
+
+        /**
+         * Prefix to search for.
+         */
+        private final String pattern;
+
+        /**
+         * Maximum number of words to find.
+         */
+        private final int limit;
+
+        /**
+         * Rows of distances by depth of node.
+         */
+        private final int[][] rows;
+
+        /**
+         * Path of current node.
+         */
+        private final char[] path;
+
+        /**
+         * Found words.
+         */
+        private final List<String> result;
+
+        /**
+         * Distance of words that current pass looks for.
+         */
+        private int distance;
 
-        private void findNext() {
+        /**
+         * Create search.
+         *
+         * @param pattern prefix to search for
+         * @param maxEdits maximum number of edits
+         * @param limit maximum number of words to find
+         */
+        FuzzySearch(String pattern, int maxEdits, int limit) {
+            this.pattern = pattern;
+            this.limit = limit;
+            int maxDepth = pattern.length() + maxEdits + 1;
+            rows = new int[maxDepth + 1][pattern.length() + 1];
+            path = new char[maxDepth];
+            result = new ArrayList<>();
+            EditDistance.firstRow(rows[0]);
+        }
+
+        /**
+         * Checks if enough words are found.
+         *
+         * @return <code>true</code> if limit is reached
+         */
+        boolean isFull() {
+            return result.size() >= limit;
+        }
+
+        /**
+         * Find words of given distance.
+         *
+         * @param d distance of words to find
+         */
+        void pass(int d) {
+            distance = d;
+            visit(root, 0, rows[0][pattern.length()], 0);
+        }
+
+        /**
+         * Find words of current distance in subtree of given node.
+         *
+         * @param node subtree root
+         * @param depth depth of subtree root
+         * @param pathDistance the smallest distance of nodes on path to given
+         * node, including it
+         * @param rowMin the smallest distance in row of given node
+         */
+        private void visit(Node node, int depth, int pathDistance,
+                int rowMin) {
+            if (rowMin >= pathDistance) {
+                if (pathDistance == distance) {
+                    addSubtree(node, depth);
+                }
+            } else if (rowMin <= distance) {
+                if (pathDistance == distance && node.value != 0) {
+                    result.add(new String(path, 0, depth));
+                }
+                int[] row = rows[depth];
+                int[] next = rows[depth + 1];
+                for (int c = 0; c < node.next.length && !isFull(); c++) {
+                    Node child = node.next[c];
+                    if (child != null) {
+                        char letter = alphabet.charAt(c);
+                        path[depth] = letter;
+                        int nextMin = EditDistance.nextRow(pattern, row, next,
+                                letter);
+                        visit(child, depth + 1, Math.min(pathDistance,
+                                next[pattern.length()]), nextMin);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Add words of subtree of given node in breadth-first order until
+         * limit is reached.
+         *
+         * @param node subtree root
+         * @param depth depth of subtree root
+         */
+        private void addSubtree(Node node, int depth) {
+            Traversal traversal = new Traversal(node,
+                    new String(path, 0, depth), alphabet);
+            while (!isFull() && traversal.advance()) {
+                result.add(traversal.path());
+            }
+        }
+    }
+
+    /**
+     * Breadth-first traversal of subtree that does not allocate per node.
+     * <p>
+     * Nodes are visited level by level. Only current and next levels are
+     * stored, each as array of nodes and one char array with paths of all
+     * nodes of the level placed one after another. Since all paths on a level
+     * have the same length, path of node is found by its position. The next
+     * level is built only after current one is fully visited, and arrays of
+     * the two levels are swapped and reused.
+     * </p>
+     */
+    private static class Traversal {
+
+        /**
+         * Initial number of nodes that level arrays can hold.
+         */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * Alphabet of traversed trie.
+         */
+        private final Alphabet alphabet;
+
+        /**
+         * Nodes of current level.
+         */
+        private Node[] nodes;
+
+        /**
+         * Paths of nodes of current level.
+         */
+        private char[] paths;
+
+        /**
+         * Number of nodes on current level.
+         */
+        private int count;
+
+        /**
+         * Length of paths on current level.
+         */
+        private int pathLength;
+
+        /**
+         * Nodes of next level.
+         */
+        private Node[] nextNodes;
+
+        /**
+         * Paths of nodes of next level.
+         */
+        private char[] nextPaths;
+
+        /**
+         * Position of current node on current level.
+         */
+        private int position;
+
+        /**
+         * Number of levels with words that may still be visited, including
+         * current one.
+         */
+        private int lengthsLeft = ALL_LENGTHS;
+
+        /**
+         * <code>true</code> if a word is found on current level.
+         */
+        private boolean levelHasWord;
+
+        /**
+         * Create traversal of subtree of given node.
+         *
+         * @param root subtree root
+         * @param prefix path of subtree root
+         * @param alphabet alphabet of traversed trie
+         */
+        Traversal(Node root, String prefix, Alphabet alphabet) {
+            this.alphabet = alphabet;
+            pathLength = prefix.length();
+            nodes = new Node[INITIAL_CAPACITY];
+            nextNodes = new Node[INITIAL_CAPACITY];
+            paths = new char[Math.max(INITIAL_CAPACITY, pathLength)];
+            nextPaths = new char[INITIAL_CAPACITY];
+            nodes[0] = root;
+            prefix.getChars(0, pathLength, paths, 0);
+            count = 1;
+            position = -1;
+        }
+
+        /**
+         * Create traversal of subtrees of given range of children of given
+         * node.
+         * <p>
+         * Given node itself is not visited.
+         * </p>
+         *
+         * @param parent parent of subtrees
+         * @param prefix path of parent
+         * @param from index of the first child, inclusive
+         * @param to index of the last child, exclusive
+         * @param alphabet alphabet of traversed trie
+         */
+        Traversal(Node parent, String prefix, int from, int to,
+                Alphabet alphabet) {
+            this.alphabet = alphabet;
+            pathLength = prefix.length() + 1;
+            int capacity = Math.max(INITIAL_CAPACITY, to - from);
+            nodes = new Node[capacity];
+            nextNodes = new Node[INITIAL_CAPACITY];
+            paths = new char[capacity * pathLength];
+            nextPaths = new char[INITIAL_CAPACITY];
+            for (int c = from; c < to; c++) {
+                if (parent.next[c] != null) {
+                    nodes[count] = parent.next[c];
+                    int offset = count * pathLength;
+                    prefix.getChars(0, prefix.length(), paths, offset);
+                    paths[offset + prefix.length()] = alphabet.charAt(c);
+                    count++;
+                }
+            }
+            position = -1;
+        }
+
+        /**
+         * Move to the next node that holds word.
+         *
+         * @return <code>true</code> if such node is found. <code>false</code>
+         * if traversal is over
+         */
+        boolean advance() {
             boolean found = false;
-            while (!found) {
-                if (nodePrefixQueue.isEmpty()) {
-                    next = null;
-                    return;
+            boolean exhausted = false;
+            while (!found && !exhausted) {
+                position++;
+                if (position == count) {
+                    if (levelHasWord) {
+                        lengthsLeft--;
+                        levelHasWord = false;
+                    }
+                    if (lengthsLeft == 0) {
+                        count = 0;
+                    } else {
+                        nextLevel();
+                    }
+                    position = 0;
+                }
+                if (count == 0) {
+                    exhausted = true;
+                } else {
+                    found = nodes[position].value != 0;
                 }
-                NodePrefixTuple tuple = nodePrefixQueue.remove();
-                Node node = tuple.node;
-                String prefix = tuple.prefix;
+            }
+            levelHasWord |= found;
+            return found;
+        }
+
+        /**
+         * Stop traversal after levels of given number of different lengths
+         * of words are visited. Level of the shortest words is visited even if
+         * given number is less than <code>1</code>.
+         *
+         * @param lengthCount number of different lengths of words to visit
+         */
+        void limitLengths(int lengthCount) {
+            lengthsLeft = Math.max(1, lengthCount);
+        }
+
+        /**
+         * Current node.
+         *
+         * @return current node
+         */
+        Node node() {
+            return nodes[position];
+        }
+
+        /**
+         * Create string of path of current node.
+         *
+         * @return path of current node
+         */
+        String path() {
+            return new String(paths, position * pathLength, pathLength);
+        }
+
+        /**
+         * Point given view to path of current node.
+         *
+         * @param view view to point
+         */
+        void path(CharArraySequence view) {
+            view.set(paths, position * pathLength, pathLength);
+        }
+
+        /**
+         * Replace current level with children of its nodes.
+         */
+        private void nextLevel() {
+            int nextLength = pathLength + 1;
+            int nextCount = 0;
+            for (int i = 0; i < count; i++) {
+                Node node = nodes[i];
+                for (int c = 0; c < node.next.length; c++) {
+                    if (node.next[c] != null) {
+                        ensureNextCapacity(nextCount + 1, nextLength);
+                        nextNodes[nextCount] = node.next[c];
+                        int offset = nextCount * nextLength;
+                        System.arraycopy(paths, i * pathLength, nextPaths,
+                                offset, pathLength);
+                        nextPaths[offset + pathLength] = alphabet.charAt(c);
+                        nextCount++;
+                    }
+                }
+            }
+            Node[] swapNodes = nodes;
+            nodes = nextNodes;
+            nextNodes = swapNodes;
+            char[] swapPaths = paths;
+            paths = nextPaths;
+            nextPaths = swapPaths;
+            count = nextCount;
+            pathLength = nextLength;
+        }
+
+        private void ensureNextCapacity(int nodeCount, int length) {
+            if (nodeCount > nextNodes.length) {
+                nextNodes = Arrays.copyOf(nextNodes, nextNodes.length * 2);
+            }
+            int charCount = nodeCount * length;
+            if (charCount > nextPaths.length) {
+                nextPaths = Arrays.copyOf(nextPaths,
+                        Math.max(charCount, nextPaths.length * 2));
+            }
+        }
+    }
+
+    /**
+     * Spliterator over words of subtree that splits at ranges of children.
+     * <p>
+     * Spliterator covers word of one node, unless it is passed to other
+     * spliterator, and subtrees of a range of its children. Splitting gives
+     * half of children of the range to new spliterator, and node that has
+     * one child is replaced with the child, so splitting goes on below it.
+     * Spliterators that are not split visit their words breadth-first, so
+     * sequential stream returns words in the same order as
+     * {@link RWayTrie#wordsWithPrefix(String)}. Spliterator cannot be split
+     * once it has started traversal.
+     * </p>
+     * <p>
+     * Number of words is not known, so every split halves the estimate,
+     * starting from size of trie.
+     * </p>
+     */
+    private class RWayTrieSpliterator implements Spliterator<String> {
+
+        private Node node;
+
+        private String prefix;
+
+        private int from;
+
+        private int to;
+
+        /**
+         * <code>true</code> if word of {@link #node} is not visited or
+         * passed to other spliterator yet.
+         */
+        private boolean includeNode;
+
+        private long estimate;
+
+        private Traversal traversal;
+
+        private final int expectedModCount;
+
+        RWayTrieSpliterator(Node node, String prefix, int from, int to,
+                boolean includeNode, long estimate, int expectedModCount) {
+            this.node = node;
+            this.prefix = prefix;
+            this.from = from;
+            this.to = to;
+            this.includeNode = includeNode;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            boolean result = false;
+            if (includeNode) {
+                includeNode = false;
                 if (node.value != 0) {
-                    next = tuple;
-                    found = true;
+                    action.accept(prefix);
+                    result = true;
+                }
+            }
+            if (!result) {
+                if (traversal == null) {
+                    traversal = new Traversal(node, prefix, from, to,
+                            alphabet);
                 }
-                for (int c = 0; c < ALPHABET_SIZE; c++) {
+                result = traversal.advance();
+                if (result) {
+                    action.accept(traversal.path());
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            RWayTrieSpliterator result = null;
+            boolean searching = traversal == null;
+            while (searching) {
+                int children = 0;
+                int last = to;
+                for (int c = from; c < to; c++) {
                     if (node.next[c] != null) {
-                        String newPref = new StringBuilder(prefix)
-                                .append((char) (FIRST_ALPHABET_LETTER + c))
-                                .toString();
-                        nodePrefixQueue.offer(
-                                new NodePrefixTuple(node.next[c], newPref));
+                        children++;
+                        last = c;
+                    }
+                }
+                if (children > 1) {
+                    int middle = middleChild(children / 2);
+                    estimate /= 2;
+                    result = new RWayTrieSpliterator(node, prefix, from,
+                            middle, includeNode, estimate, expectedModCount);
+                    from = middle;
+                    includeNode = false;
+                    searching = false;
+                } else if (children == 1) {
+                    if (includeNode && node.value != 0) {
+                        result = new RWayTrieSpliterator(node, prefix, from,
+                                from, true, 1, expectedModCount);
+                        estimate--;
                     }
+                    node = node.next[last];
+                    prefix = prefix + alphabet.charAt(last);
+                    from = 0;
+                    to = alphabet.size();
+                    includeNode = true;
+                    searching = result == null;
+                } else {
+                    searching = false;
                 }
             }
+            return result;
+        }
+
+        /**
+         * Index of child that has given number of children before it in
+         * range.
+         *
+         * @param before number of children before returned one
+         * @return index of child
+         */
+        private int middleChild(int before) {
+            int result = from;
+            int seen = 0;
+            while (seen < before || node.next[result] == null) {
+                if (node.next[result] != null) {
+                    seen++;
+                }
+                result++;
+            }
+            return result;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL;
+        }
+    }
+
+    private class RWayTrieIterator implements Iterator<String> {
+
+        private final Traversal traversal;
+
+        private boolean hasNext;
+
+        private int expectedModCount = modCount;
+
+        public RWayTrieIterator(Node root, String prefix, int lengthCount) {
+            if (root == null || prefix == null) {
+                traversal = null;
+                hasNext = false;
+                return;
+            }
+            traversal = new Traversal(root, prefix, alphabet);
+            traversal.limitLengths(lengthCount);
+            hasNext = traversal.advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public String next() {
+            checkForComodification();
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            String result = traversal.path();
+            hasNext = traversal.advance();
+            return result;
         }
 
         private void checkForComodification() {
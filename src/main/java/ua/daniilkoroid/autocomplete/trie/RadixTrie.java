@@ -0,0 +1,626 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Queue;
+
+/**
+ * Class that represents in-memory dictionary using path-compressed trie.
+ * <p>
+ * Unlike {@link RWayTrie} chain of nodes that have one child each is
+ * collapsed into one node, and edge into node is labeled with several chars
+ * instead of one. Only nodes where words branch or end are kept, so long
+ * words cost few nodes, and walking down to them follows few links.
+ * </p>
+ * <p>
+ * Labels are not stored as separate strings: every label is a slice of one
+ * shared char buffer given by offset and length. Splitting label when new
+ * word branches in the middle of it only splits the slice. Labels that are
+ * no longer used stay in buffer until it runs out of space, and then all
+ * labels in use are copied into new buffer.
+ * </p>
+ * <p>
+ * Any <code>char</code> can be used in stored words.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public class RadixTrie implements Trie {
+
+    /**
+     * Inner class that represents node of trie.
+     * <p>
+     * Children are kept in arrays sorted by the first char of their labels,
+     * so no two children start from the same char.
+     * </p>
+     *
+     * @author Daniil_Koroid
+     *
+     */
+    private static class Node {
+
+        /**
+         * Value to be stored.
+         * <p>
+         * Currently value is weight of term.
+         * </p>
+         */
+        private int value;
+
+        /**
+         * Offset of label of edge into this node in shared buffer.
+         */
+        private int offset;
+
+        /**
+         * Length of label of edge into this node.
+         */
+        private int length;
+
+        /**
+         * Sorted first chars of labels of children. <code>null</code> if
+         * node has no children.
+         */
+        private char[] labels;
+
+        /**
+         * Links to children. <code>null</code> if node has no children.
+         */
+        private Node[] next;
+
+        /**
+         * Number of children.
+         */
+        private int childCount;
+
+        Node(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * Find position of child by the first char of its label.
+         *
+         * @param c the first char of label
+         * @return position of child if present. Otherwise - negative number
+         */
+        private int indexOf(char c) {
+            int result = -1;
+            if (childCount > 0) {
+                result = Arrays.binarySearch(labels, 0, childCount, c);
+            }
+            return result;
+        }
+
+        /**
+         * Find child by the first char of its label.
+         *
+         * @param c the first char of label
+         * @return child node if present. Otherwise - <code>null</code>
+         */
+        private Node child(char c) {
+            Node result = null;
+            int index = indexOf(c);
+            if (index >= 0) {
+                result = next[index];
+            }
+            return result;
+        }
+
+        /**
+         * Add new child.
+         * <p>
+         * Node must not already have child that starts from given char.
+         * </p>
+         *
+         * @param c the first char of label of child
+         * @param child child to add
+         */
+        private void addChild(char c, Node child) {
+            if (labels == null) {
+                labels = new char[1];
+                next = new Node[1];
+            } else if (childCount == labels.length) {
+                labels = Arrays.copyOf(labels, childCount * 2);
+                next = Arrays.copyOf(next, childCount * 2);
+            }
+            int index = -Arrays.binarySearch(labels, 0, childCount, c) - 1;
+            int tail = childCount - index;
+            System.arraycopy(labels, index, labels, index + 1, tail);
+            System.arraycopy(next, index, next, index + 1, tail);
+            labels[index] = c;
+            next[index] = child;
+            childCount++;
+        }
+
+        /**
+         * Put given child in place of child that starts from given char.
+         *
+         * @param c the first char of label of both children
+         * @param child new child
+         */
+        private void replaceChild(char c, Node child) {
+            next[indexOf(c)] = child;
+        }
+
+        /**
+         * Remove child that starts from given char.
+         *
+         * @param c the first char of label of child to remove
+         */
+        private void removeChild(char c) {
+            int index = indexOf(c);
+            int tail = childCount - index - 1;
+            System.arraycopy(labels, index + 1, labels, index, tail);
+            System.arraycopy(next, index + 1, next, index, tail);
+            childCount--;
+            next[childCount] = null;
+            if (childCount == 0) {
+                labels = null;
+                next = null;
+            }
+        }
+    }
+
+    /**
+     * Initial size of shared buffer of labels.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Empty prefix.
+     * <p>
+     * Empty prefix is prefix for all words.
+     * </p>
+     */
+    private static final String EMPTY_PREFIX = "";
+
+    /**
+     * Empty node root.
+     */
+    private final Node root;
+
+    /**
+     * Shared buffer that labels are slices of.
+     */
+    private char[] chars;
+
+    /**
+     * Number of chars used in {@link #chars}, including labels that are no
+     * longer in use.
+     */
+    private int used;
+
+    /**
+     * Total length of labels in use.
+     */
+    private int liveChars;
+
+    /**
+     * Number of stored tuples.
+     */
+    private int size;
+
+    /**
+     * Stores number of modifications.
+     */
+    private int modCount;
+
+    /**
+     * Create empty RadixTrie.
+     */
+    public RadixTrie() {
+        root = new Node(0, 0);
+        chars = new char[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    @Override
+    public void add(Tuple tuple) {
+        if (tuple.getWeight() == 0) {
+            return;
+        }
+        String term = tuple.getTerm();
+        Node node = root;
+        int d = 0;
+        while (d < term.length()) {
+            char c = term.charAt(d);
+            Node child = node.child(c);
+            if (child == null) {
+                child = new Node(append(term, d), term.length() - d);
+                node.addChild(c, child);
+                d = term.length();
+            } else {
+                int common = match(child, term, d);
+                if (common < child.length) {
+                    child = split(node, child, common);
+                }
+                d += common;
+            }
+            node = child;
+        }
+        if (node.value == 0) {
+            updateModificationsCount();
+            node.value = tuple.getWeight();
+            size++;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only stored words are contained. Prefixes of stored words are not.
+     * </p>
+     */
+    @Override
+    public boolean contains(String word) {
+        Node node = get(word);
+        return node != null && node.value != 0;
+    }
+
+    @Override
+    public int weight(String word) {
+        int result = 0;
+        Node node = get(word);
+        if (node != null) {
+            result = node.value;
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Node of deleted word is removed if it has no children, and its parent
+     * or the node itself is merged with its only child if it is left with
+     * one child and holds no word, so trie stays path-compressed.
+     * </p>
+     */
+    @Override
+    public boolean delete(String word) {
+        Node grandparent = null;
+        Node parent = null;
+        Node node = root;
+        int d = 0;
+        while (node != null && d < word.length()) {
+            Node child = node.child(word.charAt(d));
+            if (child != null && match(child, word, d) == child.length) {
+                d += child.length;
+            } else {
+                child = null;
+            }
+            grandparent = parent;
+            parent = node;
+            node = child;
+        }
+        if (node == null || node.value == 0) {
+            return false;
+        }
+        updateModificationsCount();
+        node.value = 0;
+        size--;
+        if (node != root && node.childCount == 0) {
+            parent.removeChild(chars[node.offset]);
+            liveChars -= node.length;
+            if (parent != root && parent.value == 0
+                    && parent.childCount == 1) {
+                merge(grandparent, parent);
+            }
+        } else if (node != root && node.childCount == 1) {
+            merge(parent, node);
+        }
+        return true;
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return wordsWithPrefix(EMPTY_PREFIX);
+    }
+
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+        Node parent = root;
+        Node node = root;
+        int d = 0;
+        int consumed = 0;
+        while (node != null && d < pref.length()) {
+            parent = node;
+            node = parent.child(pref.charAt(d));
+            if (node != null) {
+                consumed = match(node, pref, d);
+                if (consumed < node.length
+                        && d + consumed < pref.length()) {
+                    node = null;
+                } else {
+                    d += consumed;
+                }
+            }
+        }
+        String base = null;
+        if (node != null) {
+            base = pref.substring(0, pref.length() - consumed);
+        }
+        return new RadixTrieIterable(node, base, consumed);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find node with given key.
+     *
+     * @param key key to find node by
+     * @return node that given key ends at if found successfully. Otherwise -
+     * <code>null</code>
+     */
+    private Node get(String key) {
+        Node node = root;
+        int d = 0;
+        while (node != null && d < key.length()) {
+            node = node.child(key.charAt(d));
+            if (node != null && match(node, key, d) == node.length) {
+                d += node.length;
+            } else {
+                node = null;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Number of first chars of label of given node that are equal to chars of
+     * given key starting from given index.
+     *
+     * @param node node to compare label of
+     * @param key key to compare with
+     * @param d index of char in key to compare with the first char of label
+     * @return length of common part of label and key
+     */
+    private int match(Node node, String key, int d) {
+        int limit = Math.min(node.length, key.length() - d);
+        int result = 0;
+        while (result < limit
+                && chars[node.offset + result] == key.charAt(d + result)) {
+            result++;
+        }
+        return result;
+    }
+
+    /**
+     * Split label of given child, so that its first part leads to new node.
+     *
+     * @param parent parent of child to split
+     * @param child child to split
+     * @param length length of the first part of label
+     * @return new node between parent and child
+     */
+    private Node split(Node parent, Node child, int length) {
+        Node middle = new Node(child.offset, length);
+        parent.replaceChild(chars[child.offset], middle);
+        child.offset += length;
+        child.length -= length;
+        middle.addChild(chars[child.offset], child);
+        return middle;
+    }
+
+    /**
+     * Replace given node that holds no word and has one child with this
+     * child, joining their labels.
+     *
+     * @param parent parent of node to remove
+     * @param node node to remove
+     */
+    private void merge(Node parent, Node node) {
+        Node child = node.next[0];
+        char first = chars[node.offset];
+        if (node.offset + node.length != child.offset) {
+            int length = node.length + child.length;
+            int offset = reserve(length);
+            System.arraycopy(chars, node.offset, chars, offset, node.length);
+            System.arraycopy(chars, child.offset, chars,
+                    offset + node.length, child.length);
+            child.offset = offset;
+        } else {
+            child.offset = node.offset;
+        }
+        child.length += node.length;
+        parent.replaceChild(first, child);
+    }
+
+    /**
+     * Append chars of given term starting from given index to buffer.
+     *
+     * @param term term to append the rest of
+     * @param d index of the first char to append
+     * @return offset of appended chars
+     */
+    private int append(String term, int d) {
+        int offset = reserve(term.length() - d);
+        term.getChars(d, term.length(), chars, offset);
+        liveChars += term.length() - d;
+        return offset;
+    }
+
+    /**
+     * Reserve space for label of given length at the end of buffer.
+     * <p>
+     * If buffer has no space left, labels in use are copied into new buffer
+     * that is twice as big as they need together with new label, and unused
+     * labels are dropped.
+     * </p>
+     *
+     * @param length length of label
+     * @return offset of reserved space
+     */
+    private int reserve(int length) {
+        if (chars.length - used < length) {
+            compact(Math.max(INITIAL_CAPACITY, (liveChars + length) * 2));
+        }
+        int result = used;
+        used += length;
+        return result;
+    }
+
+    /**
+     * Copy labels in use into new buffer of given size.
+     *
+     * @param capacity size of new buffer
+     */
+    private void compact(int capacity) {
+        char[] compacted = new char[capacity];
+        int count = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            System.arraycopy(chars, node.offset, compacted, count,
+                    node.length);
+            node.offset = count;
+            count += node.length;
+            for (int i = node.childCount - 1; i >= 0; i--) {
+                stack.push(node.next[i]);
+            }
+        }
+        chars = compacted;
+        used = count;
+    }
+
+    /**
+     * Updates modification count of RadixTrie.
+     */
+    private void updateModificationsCount() {
+        modCount++;
+    }
+
+    private class RadixTrieIterable implements Iterable<String> {
+
+        private Iterator<String> iterator;
+
+        public RadixTrieIterable(Node root, String prefix, int consumed) {
+            iterator = new RadixTrieIterator(root, prefix, consumed);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return iterator;
+        }
+
+    }
+
+    /**
+     * Local class used to point at position inside label of node.
+     * <p>
+     * Position stands for node of uncompressed trie, so words are found in
+     * the same order as in {@link RWayTrie}: word is found once position
+     * reaches the end of label, no matter how long label is.
+     * </p>
+     */
+    private static class Position {
+
+        /**
+         * Node that label belongs to.
+         */
+        private final Node node;
+
+        /**
+         * Prefix that ends right before label.
+         */
+        private final String base;
+
+        /**
+         * Number of chars of label that are passed.
+         */
+        private int consumed;
+
+        /**
+         * Create position inside label of given node.
+         *
+         * @param node node that label belongs to
+         * @param base prefix that ends right before label
+         * @param consumed number of chars of label that are passed
+         */
+        Position(Node node, String base, int consumed) {
+            this.node = node;
+            this.base = base;
+            this.consumed = consumed;
+        }
+    }
+
+    private class RadixTrieIterator implements Iterator<String> {
+
+        private Queue<Position> positionQueue;
+
+        private String next;
+
+        private int expectedModCount = modCount;
+
+        public RadixTrieIterator(Node root, String prefix, int consumed) {
+            if (root == null || prefix == null) {
+                next = null;
+                return;
+            }
+            positionQueue = new ArrayDeque<>();
+            positionQueue.offer(new Position(root, prefix, consumed));
+            findNext();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            checkForComodification();
+            String toReturn = next;
+            findNext();
+            return toReturn;
+        }
+
+        /**
+         * Move positions one char down until a word is found.
+         * <p>
+         * Position inside label is moved by one char and queued again, so
+         * single position stands for all nodes of collapsed chain.
+         * </p>
+         */
+        private void findNext() {
+            boolean found = false;
+            while (!found) {
+                if (positionQueue.isEmpty()) {
+                    next = null;
+                    return;
+                }
+                Position position = positionQueue.remove();
+                Node node = position.node;
+                if (position.consumed < node.length) {
+                    position.consumed++;
+                    positionQueue.offer(position);
+                } else {
+                    String word = position.base
+                            + new String(chars, node.offset, node.length);
+                    if (node.value != 0) {
+                        next = word;
+                        found = true;
+                    }
+                    for (int i = 0; i < node.childCount; i++) {
+                        positionQueue.offer(
+                                new Position(node.next[i], word, 1));
+                    }
+                }
+            }
+        }
+
+        private void checkForComodification() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,629 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Class that represents thread-safe in-memory dictionary split into
+ * independent tries.
+ * <p>
+ * Every word belongs to one shard chosen by hash of its first
+ * <code>routeLength</code> chars, so all words that start from a prefix of
+ * at least that length are in the same shard. Every shard has its own trie,
+ * read-write lock and modification counter: writers of different shards
+ * never wait for each other, and a big dictionary is split into several
+ * smaller object graphs.
+ * </p>
+ * <p>
+ * Searches by prefix that is shorter than <code>routeLength</code> go to
+ * all shards. Their words are merged by length and then alphabetically,
+ * which is breadth-first order of a single trie.
+ * </p>
+ * <p>
+ * Iterators lock their shard only while moving to the next word. They fail
+ * fast with {@link ConcurrentModificationException} if their shard is
+ * modified, and never notice modification of other shards.
+ * </p>
+ * <p>
+ * Every shard can be replaced by {@link #reload(int, Collection)} or
+ * {@link #rebuild(int)} while other shards keep serving reads and writes.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public class ShardedTrie implements Trie {
+
+    /**
+     * Inner class that represents one shard.
+     *
+     * @author Daniil_Koroid
+     *
+     */
+    private static class Shard {
+
+        /**
+         * Lock that guards trie and modification counter.
+         */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /**
+         * Trie that stores words of shard.
+         */
+        private Trie trie;
+
+        /**
+         * Number of writes to shard.
+         */
+        private int modCount;
+
+        /**
+         * Number of words in shard as of the last write.
+         * <p>
+         * Kept outside of lock so that size of the whole dictionary is summed
+         * without locking.
+         * </p>
+         */
+        private volatile int size;
+    }
+
+    /**
+     * Orders words by length and then alphabetically.
+     */
+    private static final Comparator<String> BREADTH_FIRST = Comparator
+            .comparingInt(String::length)
+            .thenComparing(Comparator.naturalOrder());
+
+    /**
+     * Multiplier of polynomial hash of routed chars.
+     */
+    private static final int HASH_MULTIPLIER = 31;
+
+    /**
+     * Default number of chars that choose shard of word.
+     */
+    private static final int DEFAULT_ROUTE_LENGTH = 1;
+
+    /**
+     * Empty prefix.
+     * <p>
+     * Empty prefix is prefix for all words.
+     * </p>
+     */
+    private static final String EMPTY_PREFIX = "";
+
+    /**
+     * Number of different lengths that does not limit search.
+     */
+    private static final int ALL_LENGTHS = Integer.MAX_VALUE;
+
+    /**
+     * Shards by their index.
+     */
+    private final Shard[] shards;
+
+    /**
+     * Number of first chars of word that choose its shard.
+     */
+    private final int routeLength;
+
+    /**
+     * Factory of tries of shards.
+     */
+    private final Supplier<Trie> factory;
+
+    /**
+     * Create empty ShardedTrie of given number of {@link RWayTrie} shards
+     * chosen by first char of word.
+     *
+     * @param shardCount number of shards
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public ShardedTrie(int shardCount) {
+        this(shardCount, DEFAULT_ROUTE_LENGTH, RWayTrie::new);
+    }
+
+    /**
+     * Create empty ShardedTrie.
+     *
+     * @param shardCount number of shards
+     * @param routeLength number of first chars of word that choose its shard
+     * @param factory factory of empty tries of shards
+     * @throws IllegalArgumentException if shardCount or routeLength is not
+     * positive
+     */
+    public ShardedTrie(int shardCount, int routeLength,
+            Supplier<Trie> factory) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException(
+                    "Shard count must be positive: " + shardCount);
+        }
+        if (routeLength <= 0) {
+            throw new IllegalArgumentException(
+                    "Route length must be positive: " + routeLength);
+        }
+        this.routeLength = routeLength;
+        this.factory = factory;
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard();
+            shards[i].trie = factory.get();
+        }
+    }
+
+    /**
+     * Number of shards.
+     *
+     * @return number of shards
+     */
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Index of shard that given word belongs to.
+     *
+     * @param word word to route
+     * @return index of shard of given word
+     */
+    public int shardOf(String word) {
+        int hash = 0;
+        int routed = Math.min(routeLength, word.length());
+        for (int i = 0; i < routed; i++) {
+            hash = HASH_MULTIPLIER * hash + word.charAt(i);
+        }
+        return Math.floorMod(hash, shards.length);
+    }
+
+    /**
+     * Number of words in given shard.
+     *
+     * @param shard index of shard
+     * @return number of words in given shard
+     */
+    public int shardSize(int shard) {
+        return shards[shard].size;
+    }
+
+    /**
+     * Replace all words of given shard with given tuples.
+     * <p>
+     * New trie is built without locking, so shard keeps serving reads and
+     * writes until it is replaced. Writes that are made to shard meanwhile
+     * are lost. Other shards are not touched.
+     * </p>
+     *
+     * @param shard index of shard
+     * @param tuples tuples to be stored in shard
+     * @throws IllegalArgumentException if some tuple belongs to another shard
+     */
+    public void reload(int shard, Collection<Tuple> tuples) {
+        for (Tuple tuple : tuples) {
+            if (shardOf(tuple.getTerm()) != shard) {
+                throw new IllegalArgumentException("Term " + tuple.getTerm()
+                        + " does not belong to shard " + shard);
+            }
+        }
+        Trie trie = factory.get();
+        trie.addAll(tuples);
+        Shard target = shards[shard];
+        target.lock.writeLock().lock();
+        try {
+            install(target, trie);
+        } finally {
+            target.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Build trie of given shard anew from its words.
+     * <p>
+     * Useful to release memory of nodes of deleted words. Words are copied
+     * under read lock and new trie is built without locking. If shard is
+     * modified meanwhile - it is built again under write lock, so no write is
+     * lost. Other shards are not touched.
+     * </p>
+     *
+     * @param shard index of shard
+     */
+    public void rebuild(int shard) {
+        Shard target = shards[shard];
+        List<Tuple> tuples;
+        int expectedModCount;
+        target.lock.readLock().lock();
+        try {
+            tuples = tuples(target.trie);
+            expectedModCount = target.modCount;
+        } finally {
+            target.lock.readLock().unlock();
+        }
+        Trie trie = factory.get();
+        trie.addAll(tuples);
+        target.lock.writeLock().lock();
+        try {
+            if (target.modCount != expectedModCount) {
+                trie = factory.get();
+                trie.addAll(tuples(target.trie));
+            }
+            install(target, trie);
+        } finally {
+            target.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(Tuple tuple) {
+        putIfAbsent(tuple);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tuples are grouped by shard, and every shard adds its group at once.
+     * </p>
+     */
+    @Override
+    public void addAll(Collection<Tuple> tuples) {
+        List<List<Tuple>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (Tuple tuple : tuples) {
+            byShard.get(shardOf(tuple.getTerm())).add(tuple);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            List<Tuple> group = byShard.get(i);
+            if (!group.isEmpty()) {
+                write(shards[i], trie -> {
+                    trie.addAll(group);
+                    return null;
+                });
+            }
+        }
+    }
+
+    @Override
+    public int addWeight(String word, int delta) {
+        return write(shards[shardOf(word)],
+                trie -> trie.addWeight(word, delta));
+    }
+
+    @Override
+    public int putIfAbsent(Tuple tuple) {
+        return write(shards[shardOf(tuple.getTerm())],
+                trie -> trie.putIfAbsent(tuple));
+    }
+
+    @Override
+    public int upsert(Tuple tuple) {
+        return write(shards[shardOf(tuple.getTerm())],
+                trie -> trie.upsert(tuple));
+    }
+
+    @Override
+    public boolean contains(String word) {
+        return read(shards[shardOf(word)], trie -> trie.contains(word));
+    }
+
+    @Override
+    public int weight(String word) {
+        return read(shards[shardOf(word)], trie -> trie.weight(word));
+    }
+
+    @Override
+    public boolean delete(String word) {
+        return write(shards[shardOf(word)], trie -> trie.delete(word));
+    }
+
+    @Override
+    public Iterable<String> words() {
+        return wordsWithPrefix(EMPTY_PREFIX);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Prefix that is not shorter than <code>routeLength</code> is searched
+     * in its shard only.
+     * </p>
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref) {
+        return wordsWithPrefix(pref, ALL_LENGTHS);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Bound is passed to every searched shard. Words of k shortest lengths
+     * of all shards are among words of k shortest lengths of every shard, so
+     * merged words are only cut at the k-th length.
+     * </p>
+     */
+    @Override
+    public Iterable<String> wordsWithPrefix(String pref, int k) {
+        Iterable<String> result;
+        if (pref.length() >= routeLength) {
+            Shard shard = shards[shardOf(pref)];
+            result = () -> new ShardIterator(shard, pref, k);
+        } else {
+            result = () -> new LengthLimitedIterator(
+                    new MergingIterator(pref, k), k);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Typo may change the first chars of word, so all shards are searched.
+     * Distance of every found word is computed once, and words of the same
+     * distance go in breadth-first order, as in a single trie.
+     * </p>
+     */
+    @Override
+    public Iterable<String> wordsWithFuzzyPrefix(String pref, int maxEdits,
+            int limit) {
+        List<List<String>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxEdits; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+        for (Shard shard : shards) {
+            read(shard, trie -> {
+                for (String word : trie.wordsWithFuzzyPrefix(pref, maxEdits,
+                        limit)) {
+                    byDistance.get(EditDistance.prefixDistance(pref, word,
+                            maxEdits)).add(word);
+                }
+                return null;
+            });
+        }
+        List<String> result = new ArrayList<>();
+        for (List<String> words : byDistance) {
+            words.sort(BREADTH_FIRST);
+            for (int i = 0; i < words.size() && result.size() < limit; i++) {
+                result.add(words.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Prefix that is shorter than <code>routeLength</code> takes the top
+     * words of every shard.
+     * </p>
+     */
+    @Override
+    public Iterable<String> topK(String pref, int k) {
+        List<Tuple> found = new ArrayList<>();
+        if (pref.length() >= routeLength) {
+            collectTop(shards[shardOf(pref)], pref, k, found);
+        } else {
+            for (Shard shard : shards) {
+                collectTop(shard, pref, k, found);
+            }
+        }
+        found.sort(Tuple.HEAVIEST_FIRST);
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < found.size() && i < k; i++) {
+            result.add(found.get(i).getTerm());
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sizes of shards are summed without locking, so size may miss writes
+     * that are in progress.
+     * </p>
+     */
+    @Override
+    public int size() {
+        int result = 0;
+        for (Shard shard : shards) {
+            result += shard.size;
+        }
+        return result;
+    }
+
+    /**
+     * Add the heaviest words of given shard with their weights to given
+     * list.
+     *
+     * @param shard shard to search
+     * @param pref prefix for all words to find
+     * @param k maximum number of words to add
+     * @param found list to add words to
+     */
+    private static void collectTop(Shard shard, String pref, int k,
+            List<Tuple> found) {
+        read(shard, trie -> {
+            for (String word : trie.topK(pref, k)) {
+                found.add(new Tuple(word, trie.weight(word)));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Apply given operation to trie of given shard under read lock.
+     *
+     * @param <R> type of result
+     * @param shard shard to read
+     * @param operation operation to apply
+     * @return result of operation
+     */
+    private static <R> R read(Shard shard, Function<Trie, R> operation) {
+        shard.lock.readLock().lock();
+        try {
+            return operation.apply(shard.trie);
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Apply given operation to trie of given shard under write lock.
+     *
+     * @param <R> type of result
+     * @param shard shard to write
+     * @param operation operation to apply
+     * @return result of operation
+     */
+    private static <R> R write(Shard shard, Function<Trie, R> operation) {
+        shard.lock.writeLock().lock();
+        try {
+            R result = operation.apply(shard.trie);
+            shard.modCount++;
+            shard.size = shard.trie.size();
+            return result;
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make given trie the trie of given shard. Must be called under write
+     * lock.
+     *
+     * @param shard shard to change
+     * @param trie new trie of shard
+     */
+    private static void install(Shard shard, Trie trie) {
+        shard.trie = trie;
+        shard.modCount++;
+        shard.size = trie.size();
+    }
+
+    /**
+     * Copy all words of given trie with their weights.
+     *
+     * @param trie trie to copy
+     * @return tuples of all words of given trie
+     */
+    private static List<Tuple> tuples(Trie trie) {
+        List<Tuple> result = new ArrayList<>(trie.size());
+        for (String word : trie.words()) {
+            result.add(new Tuple(word, trie.weight(word)));
+        }
+        return result;
+    }
+
+    /**
+     * Iterator over words of one shard that start from given prefix.
+     */
+    private static class ShardIterator implements Iterator<String> {
+
+        private final Shard shard;
+        private final Iterator<String> words;
+        private final int expectedModCount;
+
+        ShardIterator(Shard shard, String pref, int lengthCount) {
+            this.shard = shard;
+            shard.lock.readLock().lock();
+            try {
+                expectedModCount = shard.modCount;
+                words = shard.trie.wordsWithPrefix(pref, lengthCount)
+                        .iterator();
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            shard.lock.readLock().lock();
+            try {
+                checkForComodification();
+                return words.hasNext();
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public String next() {
+            shard.lock.readLock().lock();
+            try {
+                checkForComodification();
+                return words.next();
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+        }
+
+        private void checkForComodification() {
+            if (shard.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Next word of one shard together with the rest of its words.
+     */
+    private static class Head {
+
+        private String word;
+        private final Iterator<String> rest;
+
+        Head(Iterator<String> rest) {
+            this.rest = rest;
+            this.word = rest.next();
+        }
+    }
+
+    /**
+     * Iterator that merges words of all shards that start from given prefix
+     * and have one of given number of the shortest lengths in every shard, in
+     * breadth-first order.
+     */
+    private class MergingIterator implements Iterator<String> {
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>(
+                shards.length,
+                (a, b) -> BREADTH_FIRST.compare(a.word, b.word));
+
+        MergingIterator(String pref, int lengthCount) {
+            for (Shard shard : shards) {
+                Iterator<String> words = new ShardIterator(shard, pref,
+                        lengthCount);
+                if (words.hasNext()) {
+                    heads.add(new Head(words));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (heads.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Head head = heads.poll();
+            String result = head.word;
+            if (head.rest.hasNext()) {
+                head.word = head.rest.next();
+                heads.add(head);
+            }
+            return result;
+        }
+    }
+}
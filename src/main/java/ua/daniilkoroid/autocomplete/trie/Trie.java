@@ -1,5 +1,14 @@
 package ua.daniilkoroid.autocomplete.trie;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Interface that represents in-memory dictionary.
  *
@@ -10,11 +19,108 @@ public interface Trie {
 
     /**
      * Adds given {@link ua.daniilkoroid.autocomplete.trie.Tuple} to this trie.
+     * <p>
+     * Zero weight means no word, so tuple with zero weight is not added.
+     * </p>
      *
      * @param tuple tuple to be added
      */
     void add(Tuple tuple);
 
+    /**
+     * Adds all given tuples to this trie.
+     * <p>
+     * Tuples may be given in any order. If several tuples have the same term
+     * - only the first of them is added. Terms that are already stored keep
+     * their weights.
+     * </p>
+     * <p>
+     * Default implementation adds tuples one by one. Implementations are
+     * encouraged to build the trie in bulk.
+     * </p>
+     *
+     * @param tuples tuples to be added
+     */
+    default void addAll(Collection<Tuple> tuples) {
+        for (Tuple tuple : tuples) {
+            add(tuple);
+        }
+    }
+
+    /**
+     * Adds given delta to weight of given word.
+     * <p>
+     * If given word is not present in trie - it is added with given delta as
+     * its weight. Useful to weight words by number of their occurrences.
+     * </p>
+     * <p>
+     * Default implementation deletes word and adds it again with new weight.
+     * Implementations are encouraged to update weight in place.
+     * </p>
+     *
+     * @param word word to add weight to
+     * @param delta weight to add
+     * @return new weight of given word
+     * @throws IllegalArgumentException if delta is not positive
+     */
+    default int addWeight(String word, int delta) {
+        if (delta <= 0) {
+            throw new IllegalArgumentException(
+                    "Delta must be positive: " + delta);
+        }
+        int result = weight(word) + delta;
+        delete(word);
+        add(new Tuple(word, result));
+        return result;
+    }
+
+    /**
+     * Adds given tuple unless its term is already present, and tells which
+     * of the two happened.
+     * <p>
+     * Behaves as {@link #add(Tuple)}: present term keeps its weight.
+     * </p>
+     * <p>
+     * Default implementation looks term up before adding it.
+     * Implementations are encouraged to do both in one walk.
+     * </p>
+     *
+     * @param tuple tuple to be added
+     * @return previous weight of term, or <code>0</code> if term was not
+     * present and tuple was added
+     */
+    default int putIfAbsent(Tuple tuple) {
+        int previous = weight(tuple.getTerm());
+        if (previous == 0) {
+            add(tuple);
+        }
+        return previous;
+    }
+
+    /**
+     * Adds given tuple, replacing weight of its term if it is already
+     * present.
+     * <p>
+     * Zero weight means no word, so tuple with zero weight deletes its term.
+     * </p>
+     * <p>
+     * Default implementation deletes present term and adds it again.
+     * Implementations are encouraged to update weight in place.
+     * </p>
+     *
+     * @param tuple tuple to be stored
+     * @return previous weight of term, or <code>0</code> if term was not
+     * present
+     */
+    default int upsert(Tuple tuple) {
+        int previous = weight(tuple.getTerm());
+        if (previous != 0) {
+            delete(tuple.getTerm());
+        }
+        add(tuple);
+        return previous;
+    }
+
     /**
      * Checks if given word is contained in trie.
      * <p>
@@ -28,6 +134,19 @@ public interface Trie {
      */
     boolean contains(String word);
 
+    /**
+     * Get weight of given word.
+     * <p>
+     * Returns weight that given word was added with. If given word is not
+     * present in trie - returns <code>0</code>.
+     * </p>
+     *
+     * @param word word to get weight of
+     * @return weight of given word if it is contained in this trie. Otherwise
+     * returns <code>0</code>
+     */
+    int weight(String word);
+
     /**
      * Deletes given word from trie.
      * <p>
@@ -65,6 +184,163 @@ public interface Trie {
      */
     Iterable<String> wordsWithPrefix(String pref);
 
+    /**
+     * Iterator over words that start from given prefix and have one of k
+     * shortest lengths of such words.
+     * <p>
+     * Words are returned in the same order as by
+     * {@link #wordsWithPrefix(String)}. Words of the shortest length are
+     * returned even if k is less than <code>1</code>.
+     * </p>
+     * <p>
+     * Default implementation stops taking words of
+     * {@link #wordsWithPrefix(String)} at the first word that is too long, so
+     * search goes on until that word is found. Implementations are encouraged
+     * to stop search at the k-th length.
+     * </p>
+     *
+     * @param pref prefix for all words to find
+     * @param k maximum number of different lengths of words
+     * @return iterator over words of k shortest lengths that start from given
+     * prefix
+     */
+    default Iterable<String> wordsWithPrefix(String pref, int k) {
+        return () -> new LengthLimitedIterator(
+                wordsWithPrefix(pref).iterator(), k);
+    }
+
+    /**
+     * Stream of all words that start from given prefix.
+     * <p>
+     * Sequential stream returns words in the same order as
+     * {@link #wordsWithPrefix(String)}. Parallel stream may visit them in
+     * any order.
+     * </p>
+     * <p>
+     * Default implementation streams words of
+     * {@link #wordsWithPrefix(String)}, which splits poorly for parallel
+     * processing. Implementations are encouraged to split by subtrees.
+     * </p>
+     *
+     * @param pref prefix for all words to find
+     * @return stream of all words that start from given prefix
+     */
+    default Stream<String> streamWithPrefix(String pref) {
+        return StreamSupport.stream(wordsWithPrefix(pref).spliterator(),
+                false);
+    }
+
+    /**
+     * Words that start from a prefix that differs from given one by at most
+     * given number of edits.
+     * <p>
+     * Edit is insertion, deletion or substitution of one char, so distance
+     * of word is the smallest Levenshtein distance from given prefix to any
+     * prefix of word. Words with smaller distance go first, so words that
+     * start from given prefix itself go before all others. At most given
+     * number of words is returned.
+     * </p>
+     * <p>
+     * Default implementation computes distance of every word.
+     * Implementations are encouraged to skip subtrees that are too far.
+     * </p>
+     *
+     * @param pref prefix for all words to find
+     * @param maxEdits maximum number of edits
+     * @param limit maximum number of words to return
+     * @return at most limit words ordered by distance
+     */
+    default Iterable<String> wordsWithFuzzyPrefix(String pref, int maxEdits,
+            int limit) {
+        List<List<String>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxEdits; d++) {
+            byDistance.add(new ArrayList<>());
+        }
+        for (String word : words()) {
+            int distance = EditDistance.prefixDistance(pref, word, maxEdits);
+            if (distance <= maxEdits) {
+                byDistance.get(distance).add(word);
+            }
+        }
+        List<String> result = new ArrayList<>();
+        for (List<String> words : byDistance) {
+            for (int i = 0; i < words.size() && result.size() < limit; i++) {
+                result.add(words.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create cursor at empty prefix.
+     * <p>
+     * Default implementation finds words by the whole prefix every time.
+     * Implementations are encouraged to keep position in trie instead.
+     * </p>
+     *
+     * @return cursor at empty prefix
+     */
+    default TrieCursor cursor() {
+        return new PrefixCursor(this);
+    }
+
+    /**
+     * Pass all words that start from given prefix to given visitor until it
+     * asks to stop.
+     * <p>
+     * Words are passed in the same order as returned by
+     * {@link #wordsWithPrefix(String)}. Implementations may pass views over
+     * internal buffers instead of strings.
+     * </p>
+     *
+     * @param pref prefix for all words to find
+     * @param visitor visitor to pass words to
+     */
+    default void visitWordsWithPrefix(String pref, WordVisitor visitor) {
+        boolean proceed = true;
+        Iterator<String> words = wordsWithPrefix(pref).iterator();
+        while (proceed && words.hasNext()) {
+            String word = words.next();
+            proceed = visitor.visit(word, weight(word));
+        }
+    }
+
+    /**
+     * Words with the biggest weights among words that start from given
+     * prefix.
+     * <p>
+     * Words are returned from the heaviest to the lightest. Words with equal
+     * weights are ordered alphabetically. If there are fewer than k such words
+     * - all of them are returned.
+     * </p>
+     * <p>
+     * Default implementation checks weight of every word that starts from
+     * given prefix. Implementations are encouraged to avoid that.
+     * </p>
+     *
+     * @param pref prefix for all words to find
+     * @param k maximum number of words to return
+     * @return at most k heaviest words that start from given prefix
+     */
+    default Iterable<String> topK(String pref, int k) {
+        PriorityQueue<Tuple> lightestFirst = new PriorityQueue<>(
+                Tuple.HEAVIEST_FIRST.reversed());
+        if (k > 0) {
+            for (String word : wordsWithPrefix(pref)) {
+                lightestFirst.offer(new Tuple(word, weight(word)));
+                if (lightestFirst.size() > k) {
+                    lightestFirst.poll();
+                }
+            }
+        }
+        List<String> result = new ArrayList<>(lightestFirst.size());
+        while (!lightestFirst.isEmpty()) {
+            result.add(lightestFirst.poll().getTerm());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
     /**
      * Number of stored words in trie.
      *
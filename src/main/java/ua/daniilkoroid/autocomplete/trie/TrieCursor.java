@@ -0,0 +1,50 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+/**
+ * Interface that represents position in {@link Trie} that follows prefix
+ * typed char by char.
+ * <p>
+ * Cursor starts at empty prefix. Appending and removing the last char of
+ * prefix are meant to take one step in trie instead of finding the whole
+ * prefix again.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+public interface TrieCursor {
+
+    /**
+     * Append given char to prefix.
+     *
+     * @param c char to append
+     * @return <code>true</code> if there may be words that start from new
+     * prefix. <code>false</code> if there are none
+     */
+    boolean push(char c);
+
+    /**
+     * Remove the last char of prefix.
+     *
+     * @throws IllegalStateException if prefix is empty
+     */
+    void pop();
+
+    /**
+     * Current prefix.
+     *
+     * @return current prefix
+     */
+    String prefix();
+
+    /**
+     * Iterable over all words that start from current prefix.
+     * <p>
+     * Words go in the same order as returned by
+     * {@link Trie#wordsWithPrefix(String)}.
+     * </p>
+     *
+     * @return iterable over all words that start from current prefix
+     */
+    Iterable<String> words();
+}
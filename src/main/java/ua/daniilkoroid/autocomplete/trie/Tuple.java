@@ -1,5 +1,7 @@
 package ua.daniilkoroid.autocomplete.trie;
 
+import java.util.Comparator;
+
 /**
  * Class that represents such tuple:
  * <ul>
@@ -15,11 +17,19 @@ package ua.daniilkoroid.autocomplete.trie;
  */
 public class Tuple {
 
+    /**
+     * Comparator that orders tuples from the heaviest to the lightest. Tuples
+     * with equal weights are ordered by term.
+     */
+    public static final Comparator<Tuple> HEAVIEST_FIRST = Comparator
+            .comparingInt(Tuple::getWeight).reversed()
+            .thenComparing(Tuple::getTerm);
+
     /**
      * Default weight.
      */
     private static final int DEFAULT_WEIGHT = 0;
-    
+
     /**
      * Term to be stored in tuple.
      */
@@ -0,0 +1,26 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+/**
+ * Callback that receives words found in {@link Trie} one by one.
+ * <p>
+ * Given word may be a view over internal buffer of trie that is reused for the
+ * next word. It is valid only until method returns. Use
+ * {@link CharSequence#toString()} to keep it.
+ * </p>
+ *
+ * @author Daniil_Koroid
+ *
+ */
+@FunctionalInterface
+public interface WordVisitor {
+
+    /**
+     * Receive found word.
+     *
+     * @param word found word, valid only until this method returns
+     * @param weight weight of found word
+     * @return <code>true</code> to continue search. <code>false</code> to stop
+     * it
+     */
+    boolean visit(CharSequence word, int weight);
+}
@@ -0,0 +1,60 @@
+package ua.daniilkoroid.autocomplete;
+
+import static org.junit.Assert.assertEquals;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class CachingPrefixMatchesTest {
+
+    /**
+     * Test that repeated search is served from cache.
+     */
+    @Test
+    public void testRepeatedSearchHitsCache() {
+        System.out.println("test repeated search hits cache");
+        CachingPrefixMatches instance = new CachingPrefixMatches(100);
+        instance.add("word", "wordy", "words", "river");
+        assertEquals(Arrays.asList("word", "words", "wordy"), toList(instance.wordsWithPrefix("wor")));
+        assertEquals(Arrays.asList("word", "words", "wordy"), toList(instance.wordsWithPrefix("wor")));
+        assertEquals(Arrays.asList("word"), toList(instance.wordsWithPrefix("wor", 1)));
+        assertEquals(1, instance.cache().hitCount());
+        assertEquals(2, instance.cache().missCount());
+    }
+
+    /**
+     * Test that every way of modification invalidates prefixes of modified
+     * word only.
+     */
+    @Test
+    public void testModificationInvalidatesPrefixesOfWord() throws IOException {
+        System.out.println("test modification invalidates prefixes of word");
+        CachingPrefixMatches instance = new CachingPrefixMatches(100);
+        instance.add("word", "river");
+        toList(instance.wordsWithPrefix("wo"));
+        toList(instance.wordsWithPrefix("ri"));
+        instance.add("worse");
+        assertEquals(1, instance.cache().invalidationCount());
+        assertEquals(Arrays.asList("word", "worse"), toList(instance.wordsWithPrefix("wo")));
+        instance.add("wolf");
+        assertEquals(Arrays.asList("wolf", "word", "worse"), toList(instance.wordsWithPrefix("wo")));
+        instance.addAll(new StringReader("wood, wood"));
+        assertEquals(Arrays.asList("wolf", "wood", "word", "worse"), toList(instance.wordsWithPrefix("wo")));
+        instance.delete("wolf");
+        assertEquals(Arrays.asList("wood", "word", "worse"), toList(instance.wordsWithPrefix("wo")));
+        instance.addOccurrences(Stream.of("word word"));
+        assertEquals(Arrays.asList("wood", "word", "worse"), toList(instance.wordsWithPrefix("wo")));
+        assertEquals(Arrays.asList("river"), toList(instance.wordsWithPrefix("ri")));
+        assertEquals(2, instance.cache().hitCount());
+        assertEquals(4, instance.cache().invalidationCount());
+    }
+}
@@ -0,0 +1,94 @@
+package ua.daniilkoroid.autocomplete;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ua.daniilkoroid.autocomplete.trie.CompactTrie;
+import ua.daniilkoroid.autocomplete.trie.RWayTrie;
+import ua.daniilkoroid.autocomplete.trie.Trie;
+import ua.daniilkoroid.autocomplete.trie.Tuple;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class CompletionSessionTest {
+
+    /**
+     * Test of type and backspace methods, of class CompletionSession.
+     */
+    @Test
+    public void testTypeAndBackspace() {
+        System.out.println("test type and backspace");
+        PrefixMatches prefixMatches = new PrefixMatches();
+        prefixMatches.add("car", "cart", "care", "cargo", "cat", "dog");
+        CompletionSession instance = prefixMatches.startSession(3);
+        assertEquals(Arrays.asList("car", "cat", "dog"), instance.completions());
+        assertEquals(Arrays.asList("car", "cat", "care"), instance.type('c'));
+        assertEquals(Arrays.asList("car", "cat", "care"), instance.type('a'));
+        assertEquals(Arrays.asList("car", "care", "cart"), instance.type('r'));
+        assertEquals(Arrays.asList("care"), instance.type('e'));
+        assertEquals(Arrays.asList(), instance.type('x'));
+        assertEquals(Arrays.asList(), instance.type('y'));
+        assertEquals("carexy", instance.prefix());
+        instance.backspace();
+        assertEquals(Arrays.asList(), instance.completions());
+        instance.backspace();
+        assertEquals(Arrays.asList("care"), instance.completions());
+        assertEquals(Arrays.asList("car", "care", "cart"), instance.backspace());
+        for (int i = 0; i < 5; i++) {
+            instance.backspace();
+        }
+        assertEquals("", instance.prefix());
+        assertEquals(Arrays.asList("car", "cat", "dog"), instance.completions());
+    }
+
+    /**
+     * Test that completions are the same as the first words with typed prefix
+     * while chars are typed and removed at random.
+     */
+    @Test
+    public void testCompletionsMatchWordsWithPrefix() {
+        System.out.println("test completions match wordsWithPrefix");
+        for (Trie trie : new Trie[]{new RWayTrie(), new CompactTrie()}) {
+            Random random = new Random(1);
+            for (int i = 0; i < 2000; i++) {
+                StringBuilder word = new StringBuilder();
+                int length = 1 + random.nextInt(6);
+                for (int j = 0; j < length; j++) {
+                    word.append((char) ('a' + random.nextInt(4)));
+                }
+                if (!trie.contains(word.toString())) {
+                    trie.add(new Tuple(word.toString()));
+                }
+            }
+            for (int limit : new int[]{1, 5, 50, 1000}) {
+                CompletionSession instance = new CompletionSession(trie, limit);
+                for (int step = 0; step < 500; step++) {
+                    if (random.nextInt(3) == 0) {
+                        instance.backspace();
+                    } else {
+                        instance.type((char) ('a' + random.nextInt(5)));
+                    }
+                    assertEquals(firstWords(trie, instance.prefix(), limit), instance.completions());
+                }
+            }
+        }
+    }
+
+    private static List<String> firstWords(Trie trie, String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        Iterator<String> iterator = trie.wordsWithPrefix(prefix).iterator();
+        while (iterator.hasNext() && result.size() < limit) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+}
@@ -13,11 +13,18 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -29,6 +36,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import ua.daniilkoroid.autocomplete.trie.ConcurrentRWayTrie;
+import ua.daniilkoroid.autocomplete.trie.PersistentTrie;
 import ua.daniilkoroid.autocomplete.trie.Trie;
 import ua.daniilkoroid.autocomplete.trie.Tuple;
 
@@ -98,6 +107,66 @@ public class PrefixMatchesTest {
 		assertEquals(zeroAdded, instance.add(duplicatesArr));
 	}
 
+	@Test
+	public void testAddAllFromStreamOfText() throws IOException {
+		System.out.println("test addAll from stream of text");
+		PrefixMatches instance = new PrefixMatches();
+		String text = "the quick, brown fox;\njumps over the lazy dog.\tno ox";
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		int added = instance.addAll(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+		assertEquals(8, added);
+		for (String word : new String[] { "the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog" }) {
+			assertTrue(instance.contains(word));
+		}
+		assertEquals(0, instance.addAll(Channels.newChannel(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8));
+		assertEquals(1, instance.addAll(new StringReader("one, on")));
+	}
+
+	@Test
+	public void testAddAllFromTextWithCapitalsAndDigits() throws IOException {
+		System.out.println("test addAll from text with capitals and digits");
+		PrefixMatches instance = new PrefixMatches();
+		String text = "hello world. The year 2024 was Über GOOD, the end";
+		assertEquals(7, instance.addAll(new StringReader(text)));
+		for (String word : new String[] { "hello", "world", "the", "year", "was", "good", "end" }) {
+			assertTrue(instance.contains(word));
+		}
+		assertFalse(instance.contains("2024"));
+		assertEquals(0, instance.addOccurrences(new StringReader(text)));
+		assertEquals(Arrays.asList("the"), toList(instance.topK("th", 1)));
+	}
+
+	@Test
+	public void testAddAllFromTextSkipsWordsThatConcurrentTrieCannotStore() throws IOException {
+		System.out.println("test addAll from text skips words that concurrent trie cannot store");
+		PrefixMatches instance = new PrefixMatches(new ConcurrentRWayTrie());
+		assertEquals(2, instance.addAll(new StringReader("hello 123 World")));
+		assertEquals(0, instance.addOccurrences(new StringReader("hello 123 world")));
+		assertFalse(instance.contains("123"));
+	}
+
+	@Test
+	public void testAddOccurrencesWeightsWordsByCount() throws IOException {
+		System.out.println("test addOccurrences weights words by count");
+		PrefixMatches instance = new PrefixMatches();
+		List<String> queries = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			queries.add("cat");
+			if (i % 2 == 0) {
+				queries.add("car cart");
+			} else {
+				queries.add("cargo");
+			}
+			if (i < 498) {
+				queries.add("care");
+			}
+		}
+		assertEquals(5, instance.addOccurrences(queries.parallelStream()));
+		assertEquals(Arrays.asList("cat", "car", "cargo", "cart", "care"), toList(instance.topK("ca", 5)));
+		assertEquals(1, instance.addOccurrences(new StringReader("care, care! care? care... cab")));
+		assertEquals(Arrays.asList("care", "car"), toList(instance.topK("car", 2)));
+	}
+
 	@Test
 	public void testContainsAddedWords() {
 		System.out.println("test contains added words");
@@ -245,4 +314,44 @@ public class PrefixMatchesTest {
 		assertEquals(0, suggestedWords.size());
 		
 	}
+
+	@Test
+	public void testTopKReturnsHeaviestWords() {
+		System.out.println("test topK returns heaviest words");
+		String[] words = new String[] { "word", "worder", "wordest", "wordy", "simple" };
+		PrefixMatches instance = new PrefixMatches();
+		instance.add(words);
+		List<String> result = new ArrayList<>();
+		for (String word : instance.topK("wor", 2)) {
+			result.add(word);
+		}
+		assertEquals(Arrays.asList("wordest", "worder"), result);
+	}
+
+	@Test
+	public void testWordsWithFuzzyPrefixToleratesTypo() {
+		System.out.println("test wordsWithFuzzyPrefix tolerates typo");
+		PrefixMatches instance = new PrefixMatches();
+		instance.add("house", "horse", "mouse", "hose");
+		assertEquals(Arrays.asList("house"), toList(instance.wordsWithFuzzyPrefix("hou", 0, 10)));
+		List<String> result = toList(instance.wordsWithFuzzyPrefix("hou", 1, 2));
+		assertEquals(2, result.size());
+		assertEquals("house", result.get(0));
+		assertFalse(toList(instance.wordsWithPrefix("hpu")).contains("house"));
+		assertTrue(toList(instance.wordsWithFuzzyPrefix("hpu", 1, 10)).contains("house"));
+	}
+
+	@Test
+	public void testWordsWithPrefixOverPersistentTrieSurvivesModification() {
+		System.out.println("test wordsWithPrefix over persistent trie survives modification");
+		PrefixMatches instance = new PrefixMatches(new PersistentTrie());
+		instance.add("word", "worder", "wordest");
+		Iterator<String> iterator = instance.wordsWithPrefix("wor").iterator();
+		assertEquals("word", iterator.next());
+		instance.add("wordy");
+		instance.delete("worder");
+		assertEquals("worder", iterator.next());
+		assertEquals("wordest", iterator.next());
+		assertFalse(iterator.hasNext());
+	}
 }
@@ -0,0 +1,89 @@
+package ua.daniilkoroid.autocomplete;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class ResultCacheTest {
+
+    private static final String[] WORDS = new String[]{"word"};
+
+    /**
+     * Test of get and put methods, of class ResultCache.
+     */
+    @Test
+    public void testGetAndPut() {
+        System.out.println("test get and put");
+        ResultCache instance = new ResultCache(10);
+        assertNull(instance.get("wo", 3));
+        instance.put("wo", 3, WORDS, instance.epoch());
+        assertArrayEquals(WORDS, instance.get("wo", 3));
+        assertNull(instance.get("wo", 2));
+        assertEquals(1, instance.hitCount());
+        assertEquals(2, instance.missCount());
+        assertEquals(1.0 / 3, instance.hitRate(), 1e-9);
+        assertEquals(1, instance.size());
+    }
+
+    /**
+     * Test that only entries of prefixes of modified word are invalidated.
+     */
+    @Test
+    public void testInvalidateRemovesPrefixesOfWord() {
+        System.out.println("test invalidate removes prefixes of word");
+        ResultCache instance = new ResultCache(100);
+        for (String prefix : new String[]{"", "w", "wo", "wor", "wa", "x"}) {
+            instance.put(prefix, 3, WORDS, instance.epoch());
+        }
+        instance.put("wo", 1, WORDS, instance.epoch());
+        instance.invalidate("wore");
+        assertEquals(5, instance.invalidationCount());
+        assertEquals(2, instance.size());
+        assertArrayEquals(WORDS, instance.get("wa", 3));
+        assertArrayEquals(WORDS, instance.get("x", 3));
+        assertNull(instance.get("wo", 1));
+    }
+
+    /**
+     * Test that words found before invalidation are not cached.
+     */
+    @Test
+    public void testPutAfterInvalidationIsIgnored() {
+        System.out.println("test put after invalidation is ignored");
+        ResultCache instance = new ResultCache(10);
+        long epoch = instance.epoch();
+        instance.invalidate("other");
+        instance.put("wo", 3, WORDS, epoch);
+        assertNull(instance.get("wo", 3));
+    }
+
+    /**
+     * Test that entries that were hit again survive scan of new prefixes.
+     */
+    @Test
+    public void testProtectedEntriesSurviveScan() {
+        System.out.println("test protected entries survive scan");
+        ResultCache instance = new ResultCache(10);
+        instance.put("hot", 3, WORDS, instance.epoch());
+        instance.get("hot", 3);
+        for (int i = 0; i < 100; i++) {
+            instance.put("cold" + i, 3, WORDS, instance.epoch());
+        }
+        assertEquals(3, instance.size());
+        assertEquals(98, instance.evictionCount());
+        assertArrayEquals(WORDS, instance.get("hot", 3));
+        assertArrayEquals(WORDS, instance.get("cold99", 3));
+        assertNull(instance.get("cold0", 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityMustBePositive() {
+        new ResultCache(0);
+    }
+}
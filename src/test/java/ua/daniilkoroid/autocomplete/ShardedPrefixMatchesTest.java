@@ -0,0 +1,59 @@
+package ua.daniilkoroid.autocomplete;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class ShardedPrefixMatchesTest {
+
+    private static final String[] WORDS = new String[]{"word", "river", "base", "demo", "house", "cover",
+        "queen", "rivers", "wordy", "bases"};
+
+    /**
+     * Test that sharded dictionary answers the same as PrefixMatches.
+     */
+    @Test
+    public void testMatchesPrefixMatches() {
+        System.out.println("test sharded matches PrefixMatches");
+        PrefixMatches expected = new PrefixMatches();
+        ShardedPrefixMatches instance = new ShardedPrefixMatches(3);
+        assertEquals(expected.add(WORDS), instance.add(WORDS));
+        assertEquals(expected.size(), instance.size());
+        for (String prefix : new String[]{"wo", "ri", "bas", "zz"}) {
+            assertEquals(toList(expected.wordsWithPrefix(prefix, 2)), toList(instance.wordsWithPrefix(prefix, 2)));
+        }
+        assertTrue(instance.delete("wordy"));
+        assertFalse(instance.contains("wordy"));
+        assertEquals(WORDS.length - 1, instance.size());
+    }
+
+    /**
+     * Test that reload replaces words of one shard only.
+     */
+    @Test
+    public void testReloadReplacesOneShard() {
+        System.out.println("test reload replaces one shard");
+        ShardedPrefixMatches instance = new ShardedPrefixMatches(3);
+        instance.add(WORDS);
+        int shard = instance.shardOf("river");
+        int loaded = instance.reload(shard, Stream.of("rover rivet", "word", "ro"));
+        int expectedLoaded = 2;
+        if (instance.shardOf("word") == shard) {
+            expectedLoaded++;
+        }
+        assertEquals(expectedLoaded, loaded);
+        assertEquals(Arrays.asList("rivet", "rover"), toList(instance.wordsWithPrefix("r")));
+        assertTrue(instance.contains("queen") || instance.shardOf("queen") == shard);
+        assertTrue(instance.contains("house") || instance.shardOf("house") == shard);
+    }
+}
@@ -0,0 +1,123 @@
+package ua.daniilkoroid.autocomplete;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class TokenizerTest {
+
+    /**
+     * Test that whitespace and punctuation separate words.
+     */
+    @Test
+    public void testSeparators() throws IOException {
+        System.out.println("test separators");
+        String text = "  Hello, world!\tThe\r\nquick-brown fox's 2024 jump;über...привіт";
+        List<String> expected = Arrays.asList("Hello", "world", "The", "quick", "brown", "fox", "2024",
+                "jump", "über", "привіт");
+        assertEquals(expected, tokenize(new StringReader(text), 2));
+    }
+
+    /**
+     * Test that words that are not longer than minimal length are skipped.
+     */
+    @Test
+    public void testMinimalLength() throws IOException {
+        System.out.println("test minimal length");
+        String text = "a an and, or; word go";
+        assertEquals(Arrays.asList("and", "word"), tokenize(new StringReader(text), 2));
+        assertEquals(Arrays.asList("a", "an", "and", "or", "word", "go"), tokenize(new StringReader(text), 0));
+    }
+
+    /**
+     * Test that words are not broken by reads and buffer boundaries.
+     */
+    @Test
+    public void testWordsAcrossReads() throws IOException {
+        System.out.println("test words across reads");
+        StringBuilder longWord = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            longWord.append((char) ('a' + i % 26));
+        }
+        String text = "first " + longWord + " last";
+        List<String> expected = Arrays.asList("first", longWord.toString(), "last");
+        assertEquals(expected, tokenize(new StringReader(text), 2));
+        assertEquals(expected, tokenize(new OneCharReader(text), 2));
+    }
+
+    /**
+     * Test that letters outside of Basic Multilingual Plane are not split,
+     * even if surrogate pair is split by buffer boundary.
+     */
+    @Test
+    public void testSurrogatePairs() throws IOException {
+        System.out.println("test surrogate pairs");
+        String letters = "\uD835\uDC00\uD835\uDC01";
+        String text = "ab " + letters + "cd \uD83D\uDE00 ef";
+        List<String> expected = Arrays.asList("ab", letters + "cd", "ef");
+        assertEquals(expected, tokenize(new StringReader(text), 0));
+        assertEquals(expected, tokenize(new OneCharReader(text), 0));
+        StringBuilder longWord = new StringBuilder();
+        for (int i = 0; i < 8191; i++) {
+            longWord.append('a');
+        }
+        longWord.append(letters);
+        assertEquals(Arrays.asList(longWord.toString()), tokenize(new StringReader(longWord.toString()), 2));
+        String split = " " + longWord.substring(0, 8189) + " " + letters;
+        assertEquals(Arrays.asList(longWord.substring(0, 8189), letters), tokenize(new StringReader(split), 2));
+    }
+
+    /**
+     * Test of text without words.
+     */
+    @Test
+    public void testNoWords() throws IOException {
+        System.out.println("test no words");
+        assertEquals(Arrays.asList(), tokenize(new StringReader(""), 2));
+        assertEquals(Arrays.asList(), tokenize(new StringReader(" ,.; \n"), 2));
+    }
+
+    private static List<String> tokenize(Reader reader, int minimalLength) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(reader, minimalLength);
+        List<String> result = new ArrayList<>();
+        String word = tokenizer.next();
+        while (word != null) {
+            result.add(word);
+            word = tokenizer.next();
+        }
+        return result;
+    }
+
+    /**
+     * Reader that returns at most one char per read.
+     */
+    private static class OneCharReader extends Reader {
+
+        private final Reader reader;
+
+        OneCharReader(String text) {
+            reader = new StringReader(text);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return reader.read(buffer, offset, Math.min(length, 1));
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class AlphabetTest {
+
+    /**
+     * Test of range method, of class Alphabet.
+     */
+    @Test
+    public void testRange() {
+        System.out.println("test range");
+        Alphabet instance = Alphabet.range('a', 'z');
+        assertEquals(26, instance.size());
+        assertEquals(0, instance.indexOf('a'));
+        assertEquals(25, instance.indexOf('z'));
+        assertEquals('c', instance.charAt(2));
+        assertEquals(Alphabet.ABSENT, instance.indexOf('A'));
+        assertEquals(Alphabet.ABSENT, instance.indexOf('{'));
+    }
+
+    /**
+     * Test of of method, of class Alphabet.
+     */
+    @Test
+    public void testOf() {
+        System.out.println("test of");
+        Alphabet instance = Alphabet.of("zaзa'");
+        assertEquals(4, instance.size());
+        assertEquals('\'', instance.charAt(0));
+        assertEquals('a', instance.charAt(1));
+        assertEquals('z', instance.charAt(2));
+        assertEquals('з', instance.charAt(3));
+        assertEquals(3, instance.indexOf('з'));
+        assertEquals(Alphabet.ABSENT, instance.indexOf('b'));
+    }
+
+    /**
+     * Test of fromWords and supports methods, of class Alphabet.
+     */
+    @Test
+    public void testFromWords() {
+        System.out.println("test fromWords");
+        Alphabet instance = Alphabet.fromWords(Arrays.asList("їжак", "Über"));
+        assertEquals(8, instance.size());
+        assertTrue(instance.supports("жак"));
+        assertTrue(instance.supports(""));
+        assertFalse(instance.supports("uber"));
+    }
+}
@@ -0,0 +1,246 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class CompactTrieTest {
+
+    /**
+     * Test of add method, of class CompactTrie.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("test add to CompactTrie");
+        CompactTrie instance = new CompactTrie();
+        assertEquals(0, instance.size());
+        instance.add(new Tuple("term"));
+        instance.add(new Tuple("termer"));
+        instance.add(new Tuple("term"));
+        assertEquals(2, instance.size());
+    }
+
+    /**
+     * Test of contains method, of class CompactTrie.
+     */
+    @Test
+    public void testContains() {
+        System.out.println("test contains");
+        CompactTrie instance = new CompactTrie();
+        String[] words = new String[]{"wordcontained", "qwerty", "asdf", "rhvadio", "radio", "tvmaster"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        for (String word : words) {
+            assertTrue(instance.contains(word));
+        }
+        assertFalse(instance.contains("wordnotcontained"));
+        assertFalse(instance.contains("rad"));
+    }
+
+    /**
+     * Test of delete method, of class CompactTrie.
+     */
+    @Test
+    public void testDelete() {
+        System.out.println("test delete");
+        CompactTrie instance = new CompactTrie();
+        String[] words = new String[]{"word", "wordy", "qwerty", "asdf", "radio"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        assertTrue(instance.delete("word"));
+        assertFalse(instance.delete("word"));
+        assertFalse(instance.delete("wor"));
+        assertEquals(words.length - 1, instance.size());
+        assertTrue(instance.contains("wordy"));
+        assertTrue(instance.delete("wordy"));
+        assertFalse(instance.wordsWithPrefix("w").iterator().hasNext());
+    }
+
+    /**
+     * Test that node with many children keeps all of them while switching
+     * between sparse and dense layouts.
+     */
+    @Test
+    public void testManyChildren() {
+        System.out.println("test many children");
+        CompactTrie instance = new CompactTrie();
+        List<String> words = new ArrayList<>();
+        for (char c = 'z'; c >= 'a'; c--) {
+            words.add("ab" + c);
+            instance.add(new Tuple("ab" + c));
+        }
+        instance.add(new Tuple("ab" + 'А'));
+        assertEquals(words.size() + 1, instance.size());
+        assertTrue(instance.delete("ab" + 'А'));
+        for (String word : words) {
+            assertTrue(instance.contains(word));
+        }
+        for (int i = 0; i < words.size() - 2; i++) {
+            assertTrue(instance.delete(words.get(i)));
+        }
+        List<String> result = new ArrayList<>();
+        for (String word : instance.wordsWithPrefix("ab")) {
+            result.add(word);
+        }
+        assertEquals(Arrays.asList("aba", "abb"), result);
+    }
+
+    /**
+     * Test that words are returned in the same order as by RWayTrie.
+     */
+    @Test
+    public void testWordsOrderMatchesRWayTrie() {
+        System.out.println("test words order matches RWayTrie");
+        String[] words = new String[]{"word", "qwerty", "asdf", "rhvadio", "radio", "tvmaster",
+            "words", "wordsmith", "quick", "abcdefghij"};
+        CompactTrie instance = new CompactTrie();
+        RWayTrie expected = new RWayTrie();
+        for (String word : words) {
+            instance.add(new Tuple(word));
+            expected.add(new Tuple(word));
+        }
+        List<String> expectedWords = new ArrayList<>();
+        for (String word : expected.words()) {
+            expectedWords.add(word);
+        }
+        List<String> result = new ArrayList<>();
+        for (String word : instance.words()) {
+            result.add(word);
+        }
+        assertEquals(expectedWords, result);
+    }
+
+    /**
+     * Test of wordsWithPrefix method with bound of lengths, of class
+     * CompactTrie.
+     */
+    @Test
+    public void testWordsWithPrefixOfLengths() {
+        System.out.println("test wordsWithPrefix of lengths");
+        CompactTrie instance = new CompactTrie();
+        RWayTrie expected = new RWayTrie();
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[1 + random.nextInt(7)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(3));
+            }
+            instance.add(new Tuple(new String(chars)));
+            expected.add(new Tuple(new String(chars)));
+        }
+        for (String prefix : new String[]{"", "a", "ab", "cab", "abcabc", "zz"}) {
+            for (int k = 0; k <= 4; k++) {
+                assertEquals(toList(expected.wordsWithPrefix(prefix, k)), toList(instance.wordsWithPrefix(prefix, k)));
+            }
+        }
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testWordsConcurrentModificationExceptionOnNewAdd() {
+        CompactTrie instance = new CompactTrie();
+        String[] words = new String[]{"word", "qwerty", "asdf", "rhvadio", "radio", "tvmaster"};
+        for (String wordToAdd : words) {
+            instance.add(new Tuple(wordToAdd));
+        }
+        Iterator<String> iterator = instance.words().iterator();
+        instance.add(new Tuple("qwertyujkl"));
+        iterator.next();
+    }
+
+    /**
+     * Test that exhausted iterator throws NoSuchElementException, both for
+     * present and for absent prefix.
+     */
+    @Test
+    public void testExhaustedIterator() {
+        System.out.println("test exhausted iterator");
+        CompactTrie instance = new CompactTrie();
+        instance.add(new Tuple("word"));
+        for (String prefix : new String[]{"wo", "absent"}) {
+            Iterator<String> iterator = instance.wordsWithPrefix(prefix).iterator();
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+            try {
+                iterator.next();
+                fail("NoSuchElementException expected");
+            } catch (NoSuchElementException e) {
+                assertFalse(iterator.hasNext());
+            }
+        }
+    }
+
+    /**
+     * Test of default putIfAbsent and upsert methods on CompactTrie.
+     */
+    @Test
+    public void testPutIfAbsentAndUpsert() {
+        System.out.println("test putIfAbsent and upsert");
+        CompactTrie instance = new CompactTrie();
+        assertEquals(0, instance.putIfAbsent(new Tuple("word", 5)));
+        assertEquals(5, instance.putIfAbsent(new Tuple("word", 9)));
+        assertEquals(5, instance.weight("word"));
+        assertEquals(5, instance.upsert(new Tuple("word", 9)));
+        assertEquals(0, instance.upsert(new Tuple("words", 2)));
+        assertEquals(9, instance.weight("word"));
+        assertEquals(2, instance.size());
+    }
+
+    /**
+     * Test of default topK method on CompactTrie.
+     */
+    @Test
+    public void testTopK() {
+        System.out.println("test topK");
+        CompactTrie instance = new CompactTrie();
+        instance.add(new Tuple("then", 10));
+        instance.add(new Tuple("there", 30));
+        instance.add(new Tuple("thin", 30));
+        instance.add(new Tuple("thesaurus", 40));
+        instance.add(new Tuple("tree", 100));
+        List<String> result = new ArrayList<>();
+        for (String word : instance.topK("th", 3)) {
+            result.add(word);
+        }
+        assertEquals(Arrays.asList("thesaurus", "there", "thin"), result);
+    }
+
+    /**
+     * Test that tuples with zero weight are not stored and upsert with zero
+     * weight deletes term.
+     */
+    @Test
+    public void testZeroWeight() {
+        System.out.println("test zero weight");
+        CompactTrie instance = new CompactTrie();
+        instance.add(new Tuple(""));
+        instance.add(new Tuple(""));
+        assertEquals(0, instance.size());
+        assertFalse(instance.contains(""));
+        assertEquals(0, instance.putIfAbsent(new Tuple("abc", 0)));
+        assertEquals(0, instance.size());
+        instance.add(new Tuple("abc"));
+        assertEquals(3, instance.upsert(new Tuple("abc", 0)));
+        assertEquals(0, instance.size());
+        assertFalse(instance.contains("abc"));
+        assertFalse(instance.words().iterator().hasNext());
+    }
+}
@@ -0,0 +1,82 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class CompiledTrieTest {
+
+    private static final String[] WORDS = new String[]{"word", "words", "wordsmith", "qwerty", "asdf",
+        "rhvadio", "radio", "tvmaster", "quick", "abcdefghij"};
+
+    private RWayTrie source;
+
+    @Before
+    public void setUp() {
+        source = new RWayTrie();
+        for (String word : WORDS) {
+            source.add(new Tuple(word, word.length() * 2));
+        }
+    }
+
+    /**
+     * Test of contains and weight methods, of class CompiledTrie.
+     */
+    @Test
+    public void testContainsAndWeight() {
+        System.out.println("test contains and weight");
+        CompiledTrie instance = CompiledTrie.compile(source);
+        assertEquals(WORDS.length, instance.size());
+        for (String word : WORDS) {
+            assertTrue(instance.contains(word));
+            assertEquals(word.length() * 2, instance.weight(word));
+        }
+        assertFalse(instance.contains("wor"));
+        assertFalse(instance.contains("wordsmiths"));
+        assertFalse(instance.contains("zzz"));
+        assertEquals(0, instance.weight("zzz"));
+    }
+
+    /**
+     * Test that compiled trie returns words in the same order as source.
+     */
+    @Test
+    public void testWordsOrderMatchesSource() {
+        System.out.println("test words order matches source");
+        CompiledTrie instance = CompiledTrie.compile(source);
+        assertEquals(toList(source.words()), toList(instance.words()));
+        assertEquals(toList(source.wordsWithPrefix("wo")), toList(instance.wordsWithPrefix("wo")));
+        assertEquals(toList(source.wordsWithPrefix("r")), toList(instance.wordsWithPrefix("r")));
+        assertTrue(toList(instance.wordsWithPrefix("zz")).isEmpty());
+    }
+
+    /**
+     * Test of compiling empty trie.
+     */
+    @Test
+    public void testCompileEmpty() {
+        System.out.println("test compile empty");
+        CompiledTrie instance = CompiledTrie.compile(new RWayTrie());
+        assertEquals(0, instance.size());
+        assertFalse(instance.contains("word"));
+        assertFalse(instance.words().iterator().hasNext());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddIsRejected() {
+        CompiledTrie.compile(source).add(new Tuple("another"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDeleteIsRejected() {
+        CompiledTrie.compile(source).delete("word");
+    }
+}
@@ -0,0 +1,243 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class ConcurrentRWayTrieTest {
+
+    /**
+     * Test of add, contains and delete methods, of class ConcurrentRWayTrie.
+     */
+    @Test
+    public void testAddContainsDelete() {
+        System.out.println("test add contains delete");
+        ConcurrentRWayTrie instance = new ConcurrentRWayTrie();
+        String[] words = new String[]{"word", "words", "qwerty", "asdf", "radio"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        instance.add(new Tuple("word"));
+        assertEquals(words.length, instance.size());
+        assertTrue(instance.contains("words"));
+        assertFalse(instance.contains("wor"));
+        assertEquals(5, instance.weight("words"));
+        assertTrue(instance.delete("word"));
+        assertFalse(instance.delete("word"));
+        assertTrue(instance.contains("words"));
+        assertEquals(words.length - 1, instance.size());
+    }
+
+    /**
+     * Test that words are returned in the same order as by RWayTrie.
+     */
+    @Test
+    public void testWordsOrderMatchesRWayTrie() {
+        System.out.println("test words order matches RWayTrie");
+        String[] words = new String[]{"word", "qwerty", "asdf", "rhvadio", "radio", "tvmaster"};
+        ConcurrentRWayTrie instance = new ConcurrentRWayTrie();
+        RWayTrie expected = new RWayTrie();
+        for (String word : words) {
+            instance.add(new Tuple(word));
+            expected.add(new Tuple(word));
+        }
+        assertEquals(toList(expected.words()), toList(instance.words()));
+        assertEquals(toList(expected.wordsWithPrefix("r")), toList(instance.wordsWithPrefix("r")));
+    }
+
+    /**
+     * Test that iteration is not broken by modification.
+     */
+    @Test
+    public void testIterationDuringModification() {
+        System.out.println("test iteration during modification");
+        ConcurrentRWayTrie instance = new ConcurrentRWayTrie();
+        instance.add(new Tuple("word"));
+        instance.add(new Tuple("wordy"));
+        Iterator<String> iterator = instance.words().iterator();
+        instance.add(new Tuple("another"));
+        instance.delete("wordy");
+        assertEquals("word", iterator.next());
+    }
+
+    /**
+     * Test that concurrent writers and readers do not lose words.
+     */
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        System.out.println("test concurrent writers");
+        ConcurrentRWayTrie instance = new ConcurrentRWayTrie();
+        int threads = 4;
+        int wordsPerThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < wordsPerThread; i++) {
+                    String word = word(i) + (char) ('a' + thread);
+                    instance.add(new Tuple(word));
+                    if (i % 2 == 1) {
+                        instance.delete(word);
+                    }
+                }
+            }));
+        }
+        futures.add(executor.submit(() -> {
+            for (int i = 0; i < 100; i++) {
+                for (String word : instance.words()) {
+                    assertTrue(word.length() > 0);
+                }
+            }
+        }));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        assertEquals(threads * wordsPerThread / 2, instance.size());
+        assertEquals(instance.size(), toList(instance.words()).size());
+    }
+
+    /**
+     * Test that concurrent additions of weight to the same word are not lost
+     * and readers never see the word missing.
+     */
+    @Test
+    public void testConcurrentAddWeight() throws Exception {
+        System.out.println("test concurrent addWeight");
+        ConcurrentRWayTrie instance = new ConcurrentRWayTrie();
+        instance.add(new Tuple("word", 1));
+        int threads = 8;
+        int additionsPerThread = 2500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < additionsPerThread; i++) {
+                    instance.addWeight("word", 1);
+                }
+            }));
+        }
+        futures.add(executor.submit(() -> {
+            int last = 0;
+            for (int i = 0; i < 10000; i++) {
+                int weight = instance.weight("word");
+                assertTrue(weight >= last);
+                last = weight;
+            }
+        }));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        assertEquals(1 + threads * additionsPerThread, instance.weight("word"));
+        assertEquals(1, instance.size());
+    }
+
+    /**
+     * Test that of concurrent putIfAbsent calls with the same term only one
+     * adds it, and that upsert replaces weight.
+     */
+    @Test
+    public void testConcurrentPutIfAbsent() throws Exception {
+        System.out.println("test concurrent putIfAbsent");
+        ConcurrentRWayTrie instance = new ConcurrentRWayTrie();
+        int threads = 8;
+        int words = 2000;
+        AtomicInteger added = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int weight = t + 1;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < words; i++) {
+                    if (instance.putIfAbsent(new Tuple(word(i), weight)) == 0) {
+                        added.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        assertEquals(words, added.get());
+        assertEquals(words, instance.size());
+        String word = toList(instance.words()).get(0);
+        int weight = instance.weight(word);
+        assertEquals(weight, instance.upsert(new Tuple(word, 100)));
+        assertEquals(100, instance.weight(word));
+        assertEquals(100, instance.upsert(new Tuple(word, 0)));
+        assertFalse(instance.contains(word));
+        assertEquals(words - 1, instance.size());
+    }
+
+    /**
+     * Test that words with chars outside of alphabet are rejected with
+     * IllegalArgumentException and are never contained.
+     */
+    @Test
+    public void testCharsOutsideOfAlphabet() {
+        System.out.println("test chars outside of alphabet");
+        ConcurrentRWayTrie instance = new ConcurrentRWayTrie();
+        instance.add(new Tuple("ab"));
+        for (String word : new String[]{"a1b", "Word"}) {
+            try {
+                instance.add(new Tuple(word));
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException e) {
+                assertEquals(1, instance.size());
+            }
+            try {
+                instance.upsert(new Tuple(word, 3));
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException e) {
+                assertEquals(1, instance.size());
+            }
+            try {
+                instance.addWeight(word, 1);
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException e) {
+                assertEquals(1, instance.size());
+            }
+            assertFalse(instance.contains(word));
+            assertEquals(0, instance.weight(word));
+            assertFalse(instance.delete(word));
+        }
+        ConcurrentRWayTrie digits = new ConcurrentRWayTrie(Alphabet.range('0', '9'));
+        digits.add(new Tuple("2024"));
+        assertEquals(Arrays.asList("2024"), toList(digits.words()));
+        assertFalse(digits.contains("ab"));
+    }
+
+    private static String word(int number) {
+        StringBuilder result = new StringBuilder();
+        int rest = number;
+        do {
+            result.append((char) ('a' + rest % 26));
+            rest /= 26;
+        } while (rest > 0);
+        return result.toString();
+    }
+}
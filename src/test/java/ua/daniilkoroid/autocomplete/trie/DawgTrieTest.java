@@ -0,0 +1,122 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class DawgTrieTest {
+
+    private static final String[] WORDS = new String[]{"word", "words", "wordsmith", "qwerty", "asdf",
+        "rhvadio", "radio", "tvmaster", "quick", "abcdefghij", "walking", "talking", "talk", "walk"};
+
+    private CompactTrie source;
+
+    @Before
+    public void setUp() {
+        source = new CompactTrie();
+        for (int i = 0; i < WORDS.length; i++) {
+            source.add(new Tuple(WORDS[i], i + 1));
+        }
+    }
+
+    /**
+     * Test of contains and weight methods, of class DawgTrie.
+     */
+    @Test
+    public void testContainsAndWeight() {
+        System.out.println("test contains and weight");
+        DawgTrie instance = DawgTrie.compile(source);
+        assertEquals(WORDS.length, instance.size());
+        for (int i = 0; i < WORDS.length; i++) {
+            assertTrue(instance.contains(WORDS[i]));
+            assertEquals(i + 1, instance.weight(WORDS[i]));
+        }
+        assertFalse(instance.contains("wor"));
+        assertFalse(instance.contains("wordsmiths"));
+        assertFalse(instance.contains("zzz"));
+        assertFalse(instance.contains("alking"));
+        assertEquals(0, instance.weight("zzz"));
+        assertEquals(0, instance.weight("walki"));
+    }
+
+    /**
+     * Test that automaton returns words in the same order as source.
+     */
+    @Test
+    public void testWordsOrderMatchesSource() {
+        System.out.println("test words order matches source");
+        DawgTrie instance = DawgTrie.compile(source);
+        assertEquals(toList(source.words()), toList(instance.words()));
+        assertEquals(toList(source.wordsWithPrefix("wo")), toList(instance.wordsWithPrefix("wo")));
+        assertEquals(toList(source.wordsWithPrefix("ta")), toList(instance.wordsWithPrefix("ta")));
+        assertTrue(toList(instance.wordsWithPrefix("zz")).isEmpty());
+    }
+
+    /**
+     * Test that common endings of words are stored once.
+     */
+    @Test
+    public void testSuffixesAreShared() {
+        System.out.println("test suffixes are shared");
+        List<Tuple> tuples = new ArrayList<>();
+        for (String word : new String[]{"talk", "talking", "walk", "walking"}) {
+            tuples.add(new Tuple(word));
+        }
+        DawgTrie instance = DawgTrie.build(tuples);
+        assertEquals(8, instance.stateCount());
+        assertEquals(Arrays.asList("talk", "walk", "talking", "walking"), toList(instance.words()));
+        assertEquals(7, instance.weight("walking"));
+    }
+
+    /**
+     * Test that only the first of tuples with the same term is added.
+     */
+    @Test
+    public void testBuildKeepsFirstDuplicate() {
+        System.out.println("test build keeps first duplicate");
+        DawgTrie instance = DawgTrie.build(Arrays.asList(new Tuple("a", 1), new Tuple("b", 2),
+                new Tuple("b", 3), new Tuple("c", 4)));
+        assertEquals(3, instance.size());
+        assertEquals(2, instance.weight("b"));
+        assertEquals(4, instance.weight("c"));
+    }
+
+    /**
+     * Test of compiling empty trie.
+     */
+    @Test
+    public void testCompileEmpty() {
+        System.out.println("test compile empty");
+        DawgTrie instance = DawgTrie.compile(new CompactTrie());
+        assertEquals(0, instance.size());
+        assertFalse(instance.contains("word"));
+        assertFalse(instance.words().iterator().hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildRejectsUnsortedTuples() {
+        DawgTrie.build(Arrays.asList(new Tuple("b"), new Tuple("a")));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddIsRejected() {
+        DawgTrie.compile(source).add(new Tuple("another"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDeleteIsRejected() {
+        DawgTrie.compile(source).delete("word");
+    }
+}
@@ -0,0 +1,29 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for checking words returned by tries in tests.
+ *
+ * @author Daniil_Koroid
+ */
+public final class Iterables {
+
+    private Iterables() {
+    }
+
+    /**
+     * Collect given words into list, in order of iteration.
+     *
+     * @param words words to collect
+     * @return list of given words
+     */
+    public static List<String> toList(Iterable<String> words) {
+        List<String> result = new ArrayList<>();
+        for (String word : words) {
+            result.add(word);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class MappedTrieTest {
+
+    private static final String[] WORDS = new String[]{"word", "words", "wordsmith", "qwerty", "asdf",
+        "rhvadio", "radio", "tvmaster", "quick", "abcdefghij"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private RWayTrie source;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        source = new RWayTrie();
+        for (String word : WORDS) {
+            source.add(new Tuple(word, word.length() * 2));
+        }
+        file = folder.newFile("words.trie").toPath();
+    }
+
+    /**
+     * Test that mapped trie holds the same words, weights and order as
+     * written trie.
+     */
+    @Test
+    public void testWriteAndOpen() throws IOException {
+        System.out.println("test write and open");
+        CompiledTrie compiled = CompiledTrie.compile(source);
+        compiled.writeTo(file);
+        MappedTrie instance = MappedTrie.open(file);
+        assertEquals(WORDS.length, instance.size());
+        for (String word : WORDS) {
+            assertTrue(instance.contains(word));
+            assertEquals(word.length() * 2, instance.weight(word));
+        }
+        assertFalse(instance.contains("wor"));
+        assertFalse(instance.contains("zzz"));
+        assertEquals(toList(source.words()), toList(instance.words()));
+        assertEquals(toList(source.wordsWithPrefix("wo")), toList(instance.wordsWithPrefix("wo")));
+        assertTrue(toList(instance.wordsWithPrefix("zz")).isEmpty());
+    }
+
+    /**
+     * Test that mapped trie can be written again.
+     */
+    @Test
+    public void testRewriteMapped() throws IOException {
+        System.out.println("test rewrite mapped");
+        CompiledTrie.compile(source).writeTo(file);
+        Path copy = folder.newFile("copy.trie").toPath();
+        MappedTrie.open(file).writeTo(copy);
+        assertTrue(Arrays.equals(Files.readAllBytes(file), Files.readAllBytes(copy)));
+    }
+
+    /**
+     * Test of mapping empty trie.
+     */
+    @Test
+    public void testOpenEmpty() throws IOException {
+        System.out.println("test open empty");
+        CompiledTrie.compile(new RWayTrie()).writeTo(file);
+        MappedTrie instance = MappedTrie.open(file);
+        assertEquals(0, instance.size());
+        assertFalse(instance.words().iterator().hasNext());
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenTruncatedFile() throws IOException {
+        CompiledTrie.compile(source).writeTo(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        MappedTrie.open(file);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddIsRejected() throws IOException {
+        CompiledTrie.compile(source).writeTo(file);
+        MappedTrie.open(file).add(new Tuple("another"));
+    }
+}
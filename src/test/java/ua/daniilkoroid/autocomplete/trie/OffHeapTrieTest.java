@@ -0,0 +1,165 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class OffHeapTrieTest {
+
+    /**
+     * Test of add, contains and delete methods, of class OffHeapTrie.
+     */
+    @Test
+    public void testAddContainsDelete() {
+        System.out.println("test add, contains and delete of OffHeapTrie");
+        try (OffHeapTrie instance = new OffHeapTrie()) {
+            instance.add(new Tuple("radio", 3));
+            instance.add(new Tuple("rad"));
+            instance.add(new Tuple("radio", 7));
+            assertEquals(2, instance.size());
+            assertEquals(3, instance.weight("radio"));
+            assertTrue(instance.contains("rad"));
+            assertFalse(instance.contains("ra"));
+            assertFalse(instance.contains("Radio"));
+            assertFalse(instance.delete("radios"));
+            assertTrue(instance.delete("radio"));
+            assertEquals(4, instance.nodeCount());
+            assertTrue(instance.delete("rad"));
+            assertEquals(1, instance.nodeCount());
+            assertFalse(instance.words().iterator().hasNext());
+        }
+    }
+
+    /**
+     * Test that words are found in the same order as by RWayTrie while
+     * arenas are added and freed nodes are reused.
+     */
+    @Test
+    public void testSameWordsAsRWayTrie() {
+        System.out.println("test same words as RWayTrie");
+        Random random = new Random(42);
+        RWayTrie expected = new RWayTrie();
+        List<String> stored = new ArrayList<>();
+        try (OffHeapTrie instance = new OffHeapTrie(Alphabet.ENGLISH, 100, 100000)) {
+            for (int i = 0; i < 5000; i++) {
+                String word = randomWord(random);
+                if (instance.putIfAbsent(new Tuple(word)) == 0) {
+                    stored.add(word);
+                    expected.add(new Tuple(word));
+                }
+                if (random.nextInt(3) == 0) {
+                    String deleted = stored.remove(random.nextInt(stored.size()));
+                    assertTrue(instance.delete(deleted));
+                    expected.delete(deleted);
+                }
+            }
+            assertTrue(instance.capacity() > 128);
+            assertEquals(0, instance.capacity() % 128);
+            assertEquals(expected.size(), instance.size());
+            for (String prefix : new String[]{"", "a", "ab", "cab", "x"}) {
+                assertEquals(toList(expected.wordsWithPrefix(prefix)), toList(instance.wordsWithPrefix(prefix)));
+                assertEquals(toList(expected.wordsWithPrefix(prefix, 2)), toList(instance.wordsWithPrefix(prefix, 2)));
+            }
+        }
+    }
+
+    /**
+     * Test that trie does not take more nodes than given.
+     */
+    @Test
+    public void testMaxNodes() {
+        System.out.println("test max nodes");
+        try (OffHeapTrie instance = new OffHeapTrie(Alphabet.ENGLISH, 4, 8)) {
+            instance.add(new Tuple("abcdefg"));
+            assertEquals(8, instance.capacity());
+            try {
+                instance.add(new Tuple("b"));
+                fail("IllegalStateException expected");
+            } catch (IllegalStateException e) {
+                assertEquals(1, instance.size());
+            }
+            assertTrue(instance.delete("abcdefg"));
+            instance.add(new Tuple("bcd"));
+            try {
+                instance.add(new Tuple("cdefg"));
+                fail("IllegalStateException expected");
+            } catch (IllegalStateException e) {
+                assertEquals(4, instance.nodeCount());
+            }
+            instance.add(new Tuple("bcdefgh"));
+            assertEquals(8, instance.capacity());
+            assertEquals(2, instance.size());
+        }
+    }
+
+    /**
+     * Test that closing trie frees its direct memory and makes it unusable.
+     */
+    @Test
+    public void testClose() {
+        System.out.println("test close");
+        OffHeapTrie instance = new OffHeapTrie();
+        instance.ensureCapacity(1 << 20);
+        long reserved = instance.reservedBytes();
+        assertEquals(16L * (2 + 26) * 4 << 16, reserved);
+        long used = directMemoryUsed();
+        instance.add(new Tuple("word"));
+        instance.close();
+        assertTrue(used - directMemoryUsed() >= reserved);
+        try {
+            instance.contains("word");
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException e) {
+            instance.close();
+        }
+    }
+
+    /**
+     * Test that arguments of constructor are checked.
+     */
+    @Test
+    public void testInvalidArguments() {
+        System.out.println("test invalid arguments");
+        int[][] arguments = new int[][]{{0, 10}, {10, 0}, {1 << 30, 1 << 30}};
+        for (int[] argument : arguments) {
+            try {
+                new OffHeapTrie(Alphabet.ENGLISH, argument[0], argument[1]).close();
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    private static long directMemoryUsed() {
+        long result = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                result = pool.getMemoryUsed();
+            }
+        }
+        return result;
+    }
+
+    private static String randomWord(Random random) {
+        char[] chars = new char[1 + random.nextInt(7)];
+        for (int j = 0; j < chars.length; j++) {
+            chars[j] = (char) ('a' + random.nextInt(3));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,183 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class PersistentTrieTest {
+
+    /**
+     * Test of add, contains and delete methods, of class PersistentTrie.
+     */
+    @Test
+    public void testAddContainsDelete() {
+        System.out.println("test add contains delete");
+        PersistentTrie instance = new PersistentTrie();
+        String[] words = new String[]{"word", "words", "qwerty", "asdf", "radio"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        instance.add(new Tuple("word"));
+        assertEquals(words.length, instance.size());
+        assertTrue(instance.contains("words"));
+        assertFalse(instance.contains("wor"));
+        assertTrue(instance.delete("word"));
+        assertFalse(instance.delete("word"));
+        assertFalse(instance.delete("wor"));
+        assertTrue(instance.contains("words"));
+        assertEquals(words.length - 1, instance.size());
+        for (String word : words) {
+            instance.delete(word);
+        }
+        assertEquals(0, instance.size());
+        assertFalse(instance.words().iterator().hasNext());
+    }
+
+    /**
+     * Test that iteration goes over words stored when wordsWithPrefix was
+     * called, whatever is modified afterwards.
+     */
+    @Test
+    public void testIterationOverSnapshot() {
+        System.out.println("test iteration over snapshot");
+        PersistentTrie instance = new PersistentTrie();
+        instance.add(new Tuple("word"));
+        instance.add(new Tuple("wordy"));
+        instance.add(new Tuple("wordsmith"));
+        Iterable<String> words = instance.wordsWithPrefix("word");
+        Iterator<String> iterator = words.iterator();
+        assertEquals("word", iterator.next());
+        instance.delete("wordy");
+        instance.add(new Tuple("words"));
+        assertEquals("wordy", iterator.next());
+        assertEquals("wordsmith", iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(Arrays.asList("word", "words", "wordsmith"), toList(instance.wordsWithPrefix("word")));
+    }
+
+    /**
+     * Test that snapshot and trie are independent.
+     */
+    @Test
+    public void testSnapshot() {
+        System.out.println("test snapshot");
+        PersistentTrie instance = new PersistentTrie();
+        instance.add(new Tuple("word"));
+        PersistentTrie snapshot = instance.snapshot();
+        instance.add(new Tuple("another"));
+        snapshot.delete("word");
+        assertEquals(2, instance.size());
+        assertTrue(instance.contains("word"));
+        assertEquals(0, snapshot.size());
+        assertFalse(snapshot.contains("another"));
+    }
+
+    /**
+     * Test that words are returned in the same order as by RWayTrie.
+     */
+    @Test
+    public void testWordsOrderMatchesRWayTrie() {
+        System.out.println("test words order matches RWayTrie");
+        String[] words = new String[]{"word", "qwerty", "asdf", "rhvadio", "radio", "tvmaster"};
+        PersistentTrie instance = new PersistentTrie();
+        RWayTrie expected = new RWayTrie();
+        for (String word : words) {
+            instance.add(new Tuple(word));
+            expected.add(new Tuple(word));
+        }
+        assertEquals(toList(expected.words()), toList(instance.words()));
+    }
+
+    /**
+     * Test that concurrent additions of weight to the same word are not lost
+     * and readers never see the word missing.
+     */
+    @Test
+    public void testConcurrentAddWeight() throws Exception {
+        System.out.println("test concurrent addWeight");
+        PersistentTrie instance = new PersistentTrie();
+        instance.add(new Tuple("word", 1));
+        int threads = 8;
+        int additionsPerThread = 2500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < additionsPerThread; i++) {
+                    instance.addWeight("word", 1);
+                }
+            }));
+        }
+        futures.add(executor.submit(() -> {
+            int last = 0;
+            for (int i = 0; i < 10000; i++) {
+                int weight = instance.weight("word");
+                assertTrue(weight >= last);
+                last = weight;
+            }
+        }));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        assertEquals(1 + threads * additionsPerThread, instance.weight("word"));
+        assertEquals(1, instance.size());
+    }
+
+    /**
+     * Test that of concurrent putIfAbsent calls with the same term only one
+     * adds it, and that upsert replaces weight.
+     */
+    @Test
+    public void testConcurrentPutIfAbsent() throws Exception {
+        System.out.println("test concurrent putIfAbsent");
+        PersistentTrie instance = new PersistentTrie();
+        int threads = 8;
+        int words = 2000;
+        AtomicInteger added = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int weight = t + 1;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < words; i++) {
+                    if (instance.putIfAbsent(new Tuple("w" + i, weight)) == 0) {
+                        added.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        assertEquals(words, added.get());
+        assertEquals(words, instance.size());
+        String word = toList(instance.words()).get(0);
+        int weight = instance.weight(word);
+        assertEquals(weight, instance.upsert(new Tuple(word, 100)));
+        assertEquals(100, instance.weight(word));
+        assertEquals(100, instance.upsert(new Tuple(word, 0)));
+        assertFalse(instance.contains(word));
+        assertEquals(words - 1, instance.size());
+    }
+}
@@ -0,0 +1,194 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class PooledTrieTest {
+
+    /**
+     * Test of add method, of class PooledTrie.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("test add to PooledTrie");
+        PooledTrie instance = new PooledTrie();
+        assertEquals(0, instance.size());
+        instance.add(new Tuple("term", 3));
+        instance.add(new Tuple("termer"));
+        instance.add(new Tuple("term", 7));
+        assertEquals(2, instance.size());
+        assertEquals(3, instance.weight("term"));
+        assertEquals(7, instance.nodeCount());
+    }
+
+    /**
+     * Test of contains method, of class PooledTrie.
+     */
+    @Test
+    public void testContains() {
+        System.out.println("test contains");
+        PooledTrie instance = new PooledTrie();
+        String[] words = new String[]{"wordcontained", "qwerty", "asdf", "rhvadio", "radio", "tvmaster"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        for (String word : words) {
+            assertTrue(instance.contains(word));
+        }
+        assertFalse(instance.contains("wordnotcontained"));
+        assertFalse(instance.contains("rad"));
+        assertFalse(instance.contains("Radio"));
+    }
+
+    /**
+     * Test of delete method, of class PooledTrie.
+     */
+    @Test
+    public void testDelete() {
+        System.out.println("test delete");
+        PooledTrie instance = new PooledTrie();
+        instance.add(new Tuple("radio"));
+        instance.add(new Tuple("rad"));
+        assertFalse(instance.delete("ra"));
+        assertFalse(instance.delete("radios"));
+        assertTrue(instance.delete("radio"));
+        assertFalse(instance.delete("radio"));
+        assertEquals(1, instance.size());
+        assertEquals(4, instance.nodeCount());
+        assertTrue(instance.delete("rad"));
+        assertEquals(0, instance.size());
+        assertEquals(1, instance.nodeCount());
+        assertFalse(instance.words().iterator().hasNext());
+    }
+
+    /**
+     * Test that ids of deleted nodes are reused, so arrays do not grow while
+     * number of words stays the same.
+     */
+    @Test
+    public void testFreedNodesAreReused() {
+        System.out.println("test freed nodes are reused");
+        PooledTrie instance = new PooledTrie();
+        Random random = new Random(42);
+        List<String> stored = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String word = randomWord(random);
+            if (instance.putIfAbsent(new Tuple(word)) == 0) {
+                stored.add(word);
+            }
+        }
+        int capacity = instance.capacity();
+        for (int i = 0; i < 20000; i++) {
+            assertTrue(instance.delete(stored.remove(random.nextInt(stored.size()))));
+            String word = randomWord(random);
+            if (instance.putIfAbsent(new Tuple(word)) == 0) {
+                stored.add(word);
+            }
+        }
+        assertTrue(instance.capacity() <= capacity * 2);
+        RWayTrie expected = new RWayTrie();
+        for (String word : stored) {
+            expected.add(new Tuple(word));
+        }
+        assertEquals(expected.size(), instance.size());
+        assertEquals(toList(expected.words()), toList(instance.words()));
+    }
+
+    /**
+     * Test of wordsWithPrefix method, of class PooledTrie.
+     */
+    @Test
+    public void testWordsWithPrefix() {
+        System.out.println("test wordsWithPrefix");
+        PooledTrie instance = new PooledTrie();
+        RWayTrie expected = new RWayTrie();
+        Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            Tuple tuple = new Tuple(randomWord(random));
+            instance.add(tuple);
+            expected.add(tuple);
+        }
+        for (String prefix : new String[]{"", "a", "ab", "cab", "abcabc", "x"}) {
+            assertEquals(toList(expected.wordsWithPrefix(prefix)), toList(instance.wordsWithPrefix(prefix)));
+            for (int k = 0; k <= 4; k++) {
+                assertEquals(toList(expected.wordsWithPrefix(prefix, k)), toList(instance.wordsWithPrefix(prefix, k)));
+            }
+        }
+        assertFalse(instance.wordsWithPrefix("W").iterator().hasNext());
+    }
+
+    /**
+     * Test of putIfAbsent, upsert and addWeight methods, of class PooledTrie.
+     */
+    @Test
+    public void testWeights() {
+        System.out.println("test weights");
+        PooledTrie instance = new PooledTrie();
+        assertEquals(0, instance.putIfAbsent(new Tuple("word", 5)));
+        assertEquals(5, instance.putIfAbsent(new Tuple("word", 9)));
+        assertEquals(5, instance.upsert(new Tuple("word", 9)));
+        assertEquals(9, instance.weight("word"));
+        assertEquals(12, instance.addWeight("word", 3));
+        assertEquals(2, instance.addWeight("wo", 2));
+        assertEquals(2, instance.size());
+        assertEquals(0, instance.upsert(new Tuple("other", 0)));
+        assertEquals(2, instance.size());
+        assertEquals(5, instance.nodeCount());
+    }
+
+    /**
+     * Test that word with char outside of alphabet is rejected.
+     */
+    @Test
+    public void testCharOutsideOfAlphabet() {
+        System.out.println("test char outside of alphabet");
+        PooledTrie instance = new PooledTrie(Alphabet.of("ab"));
+        instance.add(new Tuple("abba"));
+        try {
+            instance.add(new Tuple("abc"));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(1, instance.size());
+        }
+        assertFalse(instance.delete("abc"));
+        assertEquals(Arrays.asList("abba"), toList(instance.words()));
+    }
+
+    /**
+     * Test that iterator fails after trie is modified.
+     */
+    @Test(expected = ConcurrentModificationException.class)
+    public void testWordsConcurrentModification() {
+        System.out.println("test words concurrent modification");
+        PooledTrie instance = new PooledTrie();
+        instance.add(new Tuple("word"));
+        instance.add(new Tuple("qwerty"));
+        Iterator<String> iterator = instance.words().iterator();
+        instance.add(new Tuple("asdf"));
+        iterator.next();
+    }
+
+    private static String randomWord(Random random) {
+        char[] chars = new char[1 + random.nextInt(7)];
+        for (int j = 0; j < chars.length; j++) {
+            chars[j] = (char) ('a' + random.nextInt(3));
+        }
+        return new String(chars);
+    }
+}
@@ -6,13 +6,23 @@
 package ua.daniilkoroid.autocomplete.trie;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -243,4 +253,571 @@ public class RWayTrieTest {
     	iterator.next();
     }
     
+    /**
+     * Test of topK method, of class RWayTrie.
+     */
+    @Test
+    public void testTopK() {
+        System.out.println("test topK");
+        RWayTrie instance = new RWayTrie();
+        instance.add(new Tuple("the", 50));
+        instance.add(new Tuple("then", 10));
+        instance.add(new Tuple("there", 30));
+        instance.add(new Tuple("thin", 30));
+        instance.add(new Tuple("thesaurus", 40));
+        instance.add(new Tuple("tree", 100));
+        List<String> expected = Arrays.asList("the", "thesaurus", "there", "thin");
+        List<String> result = new ArrayList<>();
+        for (String word : instance.topK("th", 4)) {
+            result.add(word);
+        }
+        assertEquals(expected, result);
+    }
+
+    /**
+     * Test that topK takes deleted words into account, of class RWayTrie.
+     */
+    @Test
+    public void testTopKAfterDelete() {
+        System.out.println("test topK after delete");
+        RWayTrie instance = new RWayTrie();
+        instance.add(new Tuple("then", 10));
+        instance.add(new Tuple("thesaurus", 40));
+        instance.add(new Tuple("thin", 30));
+        instance.delete("thesaurus");
+        List<String> result = new ArrayList<>();
+        for (String word : instance.topK("th", 1)) {
+            result.add(word);
+        }
+        assertEquals(Arrays.asList("thin"), result);
+    }
+
+    /**
+     * Test that cached top words of deeper node are refreshed on delete when
+     * root caches no top words, of class RWayTrie.
+     */
+    @Test
+    public void testTopKAfterDeleteWithoutTopWordsAtRoot() {
+        System.out.println("test topK after delete without top words at root");
+        RWayTrie instance = new RWayTrie(new int[]{0, 2});
+        instance.add(new Tuple("abc", 30));
+        instance.add(new Tuple("abd", 20));
+        instance.add(new Tuple("abe", 10));
+        assertEquals(Arrays.asList("abc", "abd"), toList(instance.topK("a", 2)));
+        instance.delete("abc");
+        assertEquals(Arrays.asList("abd", "abe"), toList(instance.topK("a", 2)));
+        instance.upsert(new Tuple("abd", 5));
+        assertEquals(Arrays.asList("abe", "abd"), toList(instance.topK("a", 2)));
+    }
+
+    /**
+     * Test that topK answered from cached top words is the same as found by
+     * search, while words are added and deleted.
+     */
+    @Test
+    public void testTopKWithCachedTopWords() {
+        System.out.println("test topK with cached top words");
+        RWayTrie instance = new RWayTrie(new int[]{3, 3, 2});
+        RWayTrie expected = new RWayTrie();
+        Random random = new Random(1);
+        String[] prefixes = new String[]{"", "a", "b", "ab", "ba", "abc"};
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 1 + random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(3)));
+            }
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.delete(word.toString()), instance.delete(word.toString()));
+            } else {
+                Tuple tuple = new Tuple(word.toString(), 1 + random.nextInt(100));
+                instance.add(tuple);
+                expected.add(tuple);
+            }
+            for (String prefix : prefixes) {
+                for (int k = 1; k <= 3; k++) {
+                    assertEquals(toList(expected.topK(prefix, k)), toList(instance.topK(prefix, k)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of addAll method, of class RWayTrie, with unsorted input that has
+     * duplicates and terms that are already stored.
+     */
+    @Test
+    public void testAddAll() {
+        System.out.println("test addAll");
+        RWayTrie instance = new RWayTrie(new int[]{3, 3, 2});
+        CompactTrie expected = new CompactTrie();
+        Random random = new Random(1);
+        for (int round = 0; round < 3; round++) {
+            List<Tuple> tuples = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                StringBuilder word = new StringBuilder();
+                int length = 1 + random.nextInt(5);
+                for (int j = 0; j < length; j++) {
+                    word.append((char) ('a' + random.nextInt(4)));
+                }
+                Tuple tuple = new Tuple(word.toString(), 1 + random.nextInt(100));
+                tuples.add(tuple);
+                expected.add(tuple);
+            }
+            instance.addAll(tuples);
+            assertEquals(expected.size(), instance.size());
+            for (String word : expected.words()) {
+                assertEquals(expected.weight(word), instance.weight(word));
+            }
+            for (String prefix : new String[]{"", "a", "d", "ab", "ca", "abc"}) {
+                for (int k = 1; k <= 4; k++) {
+                    assertEquals(toList(expected.topK(prefix, k)), toList(instance.topK(prefix, k)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that addAll adds nothing if any term has char outside of alphabet.
+     */
+    @Test
+    public void testAddAllWithCharOutsideOfAlphabet() {
+        System.out.println("test addAll with char outside of alphabet");
+        RWayTrie instance = new RWayTrie();
+        try {
+            instance.addAll(Arrays.asList(new Tuple("word"), new Tuple("Word")));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, instance.size());
+            assertFalse(instance.contains("word"));
+        }
+    }
+
+    /**
+     * Test of addWeight method, of class RWayTrie.
+     */
+    @Test
+    public void testAddWeight() {
+        System.out.println("test addWeight");
+        RWayTrie instance = new RWayTrie();
+        assertEquals(2, instance.addWeight("word", 2));
+        assertEquals(5, instance.addWeight("word", 3));
+        assertEquals(1, instance.addWeight("wordy", 1));
+        assertEquals(2, instance.size());
+        assertEquals(5, instance.weight("word"));
+        assertEquals(Arrays.asList("word", "wordy"), toList(instance.topK("wo", 2)));
+        instance.addWeight("wordy", 9);
+        assertEquals(Arrays.asList("wordy", "word"), toList(instance.topK("wo", 2)));
+    }
+
+    /**
+     * Test that addWeight keeps cached top words the same as found by search.
+     */
+    @Test
+    public void testAddWeightWithCachedTopWords() {
+        System.out.println("test addWeight with cached top words");
+        RWayTrie instance = new RWayTrie(new int[]{3, 3, 2});
+        CompactTrie expected = new CompactTrie();
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 1 + random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(3)));
+            }
+            int delta = 1 + random.nextInt(5);
+            assertEquals(expected.addWeight(word.toString(), delta), instance.addWeight(word.toString(), delta));
+            for (String prefix : new String[]{"", "a", "ab", "abc"}) {
+                for (int k = 1; k <= 3; k++) {
+                    assertEquals(toList(expected.topK(prefix, k)), toList(instance.topK(prefix, k)));
+                }
+            }
+        }
+        assertEquals(expected.size(), instance.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddWeightRejectsNotPositiveDelta() {
+        new RWayTrie().addWeight("word", 0);
+    }
+
+    /**
+     * Test of wordsWithFuzzyPrefix method, of class RWayTrie.
+     */
+    @Test
+    public void testWordsWithFuzzyPrefix() {
+        System.out.println("test wordsWithFuzzyPrefix");
+        RWayTrie instance = new RWayTrie();
+        for (String word : new String[]{"hello", "help", "helmet", "yellow", "hold", "world"}) {
+            instance.add(new Tuple(word));
+        }
+        assertEquals(Arrays.asList("help", "hello", "helmet"), toList(instance.wordsWithFuzzyPrefix("hel", 0, 10)));
+        List<String> result = toList(instance.wordsWithFuzzyPrefix("hwl", 1, 10));
+        assertEquals(new HashSet<>(Arrays.asList("help", "hello", "helmet", "hold")), new HashSet<>(result));
+        result = toList(instance.wordsWithFuzzyPrefix("hel", 1, 10));
+        assertEquals(Arrays.asList("help", "hello", "helmet"), result.subList(0, 3));
+        assertEquals(new HashSet<>(Arrays.asList("yellow", "hold")), new HashSet<>(result.subList(3, 5)));
+        assertEquals(5, result.size());
+        assertEquals(Arrays.asList("help", "hello"), toList(instance.wordsWithFuzzyPrefix("hel", 1, 2)));
+    }
+
+    /**
+     * Test that wordsWithFuzzyPrefix finds the same words as default
+     * implementation, ordered by distance.
+     */
+    @Test
+    public void testWordsWithFuzzyPrefixMatchesDefault() {
+        System.out.println("test wordsWithFuzzyPrefix matches default");
+        RWayTrie instance = new RWayTrie();
+        CompactTrie expected = new CompactTrie();
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(4)));
+            }
+            expected.add(new Tuple(word.toString()));
+        }
+        for (String word : expected.words()) {
+            instance.add(new Tuple(word));
+        }
+        for (String prefix : new String[]{"", "a", "ab", "bca", "dddd", "abcab", "xy"}) {
+            for (int maxEdits = 0; maxEdits <= 2; maxEdits++) {
+                List<String> result = toList(instance.wordsWithFuzzyPrefix(prefix, maxEdits, Integer.MAX_VALUE));
+                assertEquals(new HashSet<>(toList(expected.wordsWithFuzzyPrefix(prefix, maxEdits, Integer.MAX_VALUE))),
+                        new HashSet<>(result));
+                assertEquals(new HashSet<>(result).size(), result.size());
+                int previous = 0;
+                for (String word : result) {
+                    int distance = EditDistance.prefixDistance(prefix, word, maxEdits);
+                    assertTrue(distance >= previous);
+                    previous = distance;
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of cursor method, of class RWayTrie.
+     */
+    @Test
+    public void testCursor() {
+        System.out.println("test cursor");
+        RWayTrie instance = new RWayTrie();
+        instance.add(new Tuple("tea"));
+        instance.add(new Tuple("team"));
+        TrieCursor cursor = instance.cursor();
+        assertTrue(cursor.push('t'));
+        assertTrue(cursor.push('e'));
+        assertEquals(Arrays.asList("tea", "team"), toList(cursor.words()));
+        assertFalse(cursor.push('x'));
+        assertTrue(toList(cursor.words()).isEmpty());
+        cursor.pop();
+        assertTrue(cursor.push('a'));
+        assertEquals("tea", cursor.prefix());
+        instance.delete("tea");
+        instance.delete("team");
+        assertTrue(toList(cursor.words()).isEmpty());
+        instance.add(new Tuple("teal"));
+        assertEquals(Arrays.asList("teal"), toList(cursor.words()));
+        assertFalse(cursor.push('?'));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCursorPopAtEmptyPrefix() {
+        new RWayTrie().cursor().pop();
+    }
+
+    /**
+     * Test that words can be added after all words were deleted.
+     */
+    @Test
+    public void testAddAfterDeletingAllWords() {
+        System.out.println("test add after deleting all words");
+        RWayTrie instance = new RWayTrie();
+        instance.add(new Tuple("word"));
+        instance.delete("word");
+        instance.add(new Tuple("another"));
+        assertEquals(1, instance.size());
+        assertTrue(instance.contains("another"));
+    }
+
+    /**
+     * Test of streamWithPrefix method, of class RWayTrie.
+     */
+    @Test
+    public void testStreamWithPrefix() {
+        System.out.println("test streamWithPrefix");
+        RWayTrie instance = new RWayTrie();
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[1 + random.nextInt(6)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(4));
+            }
+            instance.add(new Tuple(new String(chars)));
+        }
+        for (String prefix : new String[]{"", "a", "abc", "z"}) {
+            List<String> expected = toList(instance.wordsWithPrefix(prefix));
+            assertEquals(expected, instance.streamWithPrefix(prefix).collect(Collectors.toList()));
+            List<String> parallel = instance.streamWithPrefix(prefix).parallel().collect(Collectors.toList());
+            Collections.sort(expected);
+            Collections.sort(parallel);
+            assertEquals(expected, parallel);
+        }
+    }
+
+    /**
+     * Test that spliterator of streamWithPrefix splits down to single words
+     * without losing or repeating any.
+     */
+    @Test
+    public void testStreamWithPrefixSplitsBySubtrees() {
+        System.out.println("test streamWithPrefix splits by subtrees");
+        RWayTrie instance = new RWayTrie();
+        String[] words = new String[]{"ab", "abc", "abd", "abcd", "abzz", "aba", "abcde", "b"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        List<String> result = new ArrayList<>();
+        Deque<Spliterator<String>> parts = new ArrayDeque<>();
+        parts.push(instance.streamWithPrefix("a").spliterator());
+        while (!parts.isEmpty()) {
+            Spliterator<String> part = parts.pop();
+            Spliterator<String> split = part.trySplit();
+            if (split == null) {
+                part.forEachRemaining(result::add);
+            } else {
+                parts.push(part);
+                parts.push(split);
+            }
+        }
+        Collections.sort(result);
+        assertEquals(Arrays.asList("ab", "aba", "abc", "abcd", "abcde", "abd", "abzz"), result);
+    }
+
+    /**
+     * Test that prefix of stored word is neither contained nor prevented from
+     * being added.
+     */
+    @Test
+    public void testAddPrefixOfStoredWord() {
+        System.out.println("test add prefix of stored word");
+        RWayTrie instance = new RWayTrie();
+        instance.add(new Tuple("termer"));
+        assertFalse(instance.contains("term"));
+        assertFalse(instance.delete("term"));
+        instance.add(new Tuple("term"));
+        assertEquals(2, instance.size());
+        assertTrue(instance.contains("term"));
+        assertEquals(Arrays.asList("term", "termer"), toList(instance.wordsWithPrefix("te")));
+        assertTrue(instance.delete("termer"));
+        assertTrue(instance.contains("term"));
+        assertFalse(instance.contains("terme"));
+    }
+
+    /**
+     * Test of putIfAbsent method, of class RWayTrie.
+     */
+    @Test
+    public void testPutIfAbsent() {
+        System.out.println("test putIfAbsent");
+        RWayTrie instance = new RWayTrie(new int[]{2});
+        assertEquals(0, instance.putIfAbsent(new Tuple("word", 5)));
+        assertEquals(5, instance.putIfAbsent(new Tuple("word", 9)));
+        assertEquals(0, instance.putIfAbsent(new Tuple("wor", 3)));
+        assertEquals(2, instance.size());
+        assertEquals(5, instance.weight("word"));
+        assertEquals(Arrays.asList("word", "wor"), toList(instance.topK("", 2)));
+    }
+
+    /**
+     * Test of upsert method, of class RWayTrie.
+     */
+    @Test
+    public void testUpsert() {
+        System.out.println("test upsert");
+        RWayTrie instance = new RWayTrie(new int[]{1, 1});
+        assertEquals(0, instance.upsert(new Tuple("then", 10)));
+        instance.add(new Tuple("there", 20));
+        instance.add(new Tuple("thin", 15));
+        assertEquals(10, instance.upsert(new Tuple("then", 30)));
+        assertEquals(3, instance.size());
+        assertEquals(30, instance.weight("then"));
+        assertEquals(Arrays.asList("then"), toList(instance.topK("t", 1)));
+        assertEquals(30, instance.upsert(new Tuple("then", 1)));
+        assertEquals(Arrays.asList("there"), toList(instance.topK("t", 1)));
+        assertEquals(Arrays.asList("there", "thin", "then"), toList(instance.topK("th", 3)));
+        assertTrue(instance.delete("there"));
+        assertEquals(Arrays.asList("thin"), toList(instance.topK("", 1)));
+    }
+
+    /**
+     * Test that very long words are added, found, weighted and deleted
+     * without running out of call stack.
+     */
+    @Test
+    public void testDeepKey() {
+        System.out.println("test deep key");
+        char[] chars = new char[300000];
+        Arrays.fill(chars, 'a');
+        String deep = new String(chars);
+        String deeper = deep + "b";
+        RWayTrie instance = new RWayTrie();
+        instance.add(new Tuple(deep, 1));
+        instance.addWeight(deeper, 2);
+        assertTrue(instance.contains(deep));
+        assertEquals(3, instance.addWeight(deep, 2));
+        assertEquals(2, instance.weight(deeper));
+        assertTrue(instance.delete(deep));
+        assertEquals(Arrays.asList(deeper), toList(instance.wordsWithPrefix(deep)));
+        assertTrue(instance.delete(deeper));
+        assertEquals(0, instance.size());
+        assertFalse(instance.contains("a"));
+        instance.addAll(Arrays.asList(new Tuple(deep), new Tuple("b")));
+        assertEquals(2, instance.size());
+        assertEquals(deep.length(), instance.weight(deep));
+    }
+
+    /**
+     * Test that words are returned in breadth-first order.
+     */
+    @Test
+    public void testWordsWithPrefixBreadthFirstOrder() {
+        System.out.println("test wordsWithPrefix breadth-first order");
+        RWayTrie instance = new RWayTrie();
+        String[] words = new String[]{"ab", "abc", "abd", "abcd", "abzz", "aba", "abcde"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        List<String> expected = Arrays.asList("ab", "aba", "abc", "abd", "abcd", "abzz", "abcde");
+        assertEquals(expected, toList(instance.wordsWithPrefix("ab")));
+        assertEquals(Arrays.asList("abcd", "abcde"), toList(instance.wordsWithPrefix("abcd")));
+    }
+
+    /**
+     * Test of wordsWithPrefix method with bound of lengths, of class RWayTrie.
+     */
+    @Test
+    public void testWordsWithPrefixOfLengths() {
+        System.out.println("test wordsWithPrefix of lengths");
+        RWayTrie instance = new RWayTrie();
+        String[] words = new String[]{"ab", "abc", "abd", "abcd", "abzz", "aba", "abcde", "xy", "xyzzz"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        assertEquals(Arrays.asList("ab", "aba", "abc", "abd"), toList(instance.wordsWithPrefix("ab", 2)));
+        assertEquals(Arrays.asList("ab"), toList(instance.wordsWithPrefix("ab", 1)));
+        assertEquals(Arrays.asList("ab"), toList(instance.wordsWithPrefix("ab", 0)));
+        assertEquals(Arrays.asList("xy", "xyzzz"), toList(instance.wordsWithPrefix("x", 2)));
+        assertEquals(toList(instance.wordsWithPrefix("a")), toList(instance.wordsWithPrefix("a", 10)));
+        assertFalse(instance.wordsWithPrefix("zz", 3).iterator().hasNext());
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[1 + random.nextInt(7)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(3));
+            }
+            instance.add(new Tuple(new String(chars)));
+        }
+        for (String prefix : new String[]{"", "a", "ab", "cab", "abcabc"}) {
+            for (int k = 1; k <= 4; k++) {
+                List<String> expected = new ArrayList<>();
+                Iterator<String> limited = new LengthLimitedIterator(instance.wordsWithPrefix(prefix).iterator(), k);
+                while (limited.hasNext()) {
+                    expected.add(limited.next());
+                }
+                assertEquals(expected, toList(instance.wordsWithPrefix(prefix, k)));
+            }
+        }
+    }
+
+    /**
+     * Test of visitWordsWithPrefix method, of class RWayTrie.
+     */
+    @Test
+    public void testVisitWordsWithPrefix() {
+        System.out.println("test visitWordsWithPrefix");
+        RWayTrie instance = new RWayTrie();
+        String[] words = new String[]{"pref", "prefq", "prefw", "prefix", "word", "prefixes"};
+        for (String word : words) {
+            instance.add(new Tuple(word, word.length() + 1));
+        }
+        List<String> visited = new ArrayList<>();
+        instance.visitWordsWithPrefix("pref", (word, weight) -> {
+            assertEquals(word.length() + 1, weight);
+            visited.add(word.toString());
+            return true;
+        });
+        assertEquals(toList(instance.wordsWithPrefix("pref")), visited);
+        visited.clear();
+        instance.visitWordsWithPrefix("pref", (word, weight) -> {
+            visited.add(word.toString());
+            return visited.size() < 2;
+        });
+        assertEquals(Arrays.asList("pref", "prefq"), visited);
+    }
+
+    /**
+     * Test of RWayTrie with alphabet built from words of several languages.
+     */
+    @Test
+    public void testAlphabetFromWords() {
+        System.out.println("test alphabet from words");
+        List<String> words = Arrays.asList("Straße", "über", "привіт", "їжак", "don't", "R2D2", "\uD83D\uDE00smile");
+        RWayTrie instance = new RWayTrie(Alphabet.fromWords(words));
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        assertEquals(words.size(), instance.size());
+        for (String word : words) {
+            assertTrue(instance.contains(word));
+        }
+        assertEquals(Arrays.asList("привіт"), toList(instance.wordsWithPrefix("при")));
+        assertEquals(Arrays.asList("\uD83D\uDE00smile"), toList(instance.wordsWithPrefix("\uD83D\uDE00")));
+        assertFalse(instance.contains("Strasse"));
+        assertFalse(instance.delete("Strasse"));
+    }
+
+    /**
+     * Test that word with char outside of alphabet is rejected.
+     */
+    @Test
+    public void testCharOutsideOfAlphabet() {
+        System.out.println("test char outside of alphabet");
+        RWayTrie instance = new RWayTrie();
+        assertFalse(instance.contains("Word"));
+        assertFalse(instance.wordsWithPrefix("W").iterator().hasNext());
+        try {
+            instance.add(new Tuple("Word"));
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, instance.size());
+        }
+    }
+
+    /**
+     * Test that tuples with zero weight are not stored and upsert with zero
+     * weight deletes term.
+     */
+    @Test
+    public void testZeroWeight() {
+        System.out.println("test zero weight");
+        RWayTrie instance = new RWayTrie();
+        instance.add(new Tuple(""));
+        instance.add(new Tuple(""));
+        assertEquals(0, instance.size());
+        assertFalse(instance.contains(""));
+        assertEquals(0, instance.putIfAbsent(new Tuple("abc", 0)));
+        assertEquals(0, instance.size());
+        instance.add(new Tuple("abc"));
+        assertEquals(3, instance.upsert(new Tuple("abc", 0)));
+        assertEquals(0, instance.size());
+        assertFalse(instance.contains("abc"));
+        assertFalse(instance.words().iterator().hasNext());
+        instance.addAll(Arrays.asList(new Tuple("x", 0), new Tuple("yy")));
+        assertEquals(1, instance.size());
+        assertEquals(Arrays.asList("yy"), toList(instance.words()));
+    }
 }
@@ -0,0 +1,166 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class RadixTrieTest {
+
+    /**
+     * Test of add method, of class RadixTrie.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("test add to RadixTrie");
+        RadixTrie instance = new RadixTrie();
+        assertEquals(0, instance.size());
+        instance.add(new Tuple("termer"));
+        instance.add(new Tuple("term"));
+        instance.add(new Tuple("term"));
+        instance.add(new Tuple("terminal"));
+        assertEquals(3, instance.size());
+        assertTrue(instance.contains("term"));
+        assertTrue(instance.contains("termer"));
+        assertTrue(instance.contains("terminal"));
+        assertFalse(instance.contains("termi"));
+        assertFalse(instance.contains("te"));
+        assertFalse(instance.contains("terminals"));
+        assertEquals(4, instance.weight("term"));
+        assertEquals(0, instance.weight("ter"));
+    }
+
+    /**
+     * Test of delete method, of class RadixTrie.
+     */
+    @Test
+    public void testDelete() {
+        System.out.println("test delete");
+        RadixTrie instance = new RadixTrie();
+        String[] words = new String[]{"word", "wordy", "words", "qwerty",
+            "asdf", "radio"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        assertTrue(instance.delete("word"));
+        assertFalse(instance.delete("word"));
+        assertFalse(instance.delete("wor"));
+        assertFalse(instance.delete("wordsmith"));
+        assertEquals(words.length - 1, instance.size());
+        assertTrue(instance.delete("wordy"));
+        assertTrue(instance.contains("words"));
+        instance.add(new Tuple("wordy"));
+        assertTrue(instance.delete("words"));
+        assertEquals(Arrays.asList("wordy"), toList(
+                instance.wordsWithPrefix("w")));
+        assertTrue(instance.delete("wordy"));
+        assertFalse(instance.wordsWithPrefix("w").iterator().hasNext());
+    }
+
+    /**
+     * Test of wordsWithPrefix method with prefix that ends inside label.
+     */
+    @Test
+    public void testWordsWithPrefixInsideLabel() {
+        System.out.println("test wordsWithPrefix inside label");
+        RadixTrie instance = new RadixTrie();
+        String[] words = new String[]{"information", "informal", "in",
+            "inform", "radio"};
+        for (String word : words) {
+            instance.add(new Tuple(word));
+        }
+        assertEquals(Arrays.asList("inform", "informal", "information"),
+                toList(instance.wordsWithPrefix("infor")));
+        assertEquals(Arrays.asList("informal", "information"),
+                toList(instance.wordsWithPrefix("informa")));
+        assertEquals(Arrays.asList("information"),
+                toList(instance.wordsWithPrefix("informati")));
+        assertEquals(Arrays.asList("radio"),
+                toList(instance.wordsWithPrefix("radio")));
+        assertFalse(instance.wordsWithPrefix("informz").iterator()
+                .hasNext());
+        assertFalse(instance.wordsWithPrefix("radios").iterator().hasNext());
+    }
+
+    /**
+     * Test that words are returned in the same order as by CompactTrie after
+     * random adds and deletes.
+     */
+    @Test
+    public void testWordsOrderMatchesCompactTrie() {
+        System.out.println("test words order matches CompactTrie");
+        Random random = new Random(42);
+        RadixTrie instance = new RadixTrie();
+        CompactTrie expected = new CompactTrie();
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            char[] chars = new char[1 + random.nextInt(8)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(3));
+            }
+            String word = new String(chars);
+            words.add(word);
+            instance.add(new Tuple(word, i + 1));
+            expected.add(new Tuple(word, i + 1));
+            if (random.nextInt(3) == 0) {
+                String toDelete = words.get(random.nextInt(words.size()));
+                assertEquals(expected.delete(toDelete),
+                        instance.delete(toDelete));
+            }
+        }
+        assertEquals(expected.size(), instance.size());
+        assertEquals(toList(expected.words()), toList(instance.words()));
+        for (String word : words) {
+            assertEquals(expected.weight(word), instance.weight(word));
+            assertEquals(toList(expected.wordsWithPrefix(word)),
+                    toList(instance.wordsWithPrefix(word)));
+        }
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testWordsConcurrentModificationExceptionOnNewAdd() {
+        RadixTrie instance = new RadixTrie();
+        String[] words = new String[]{"word", "qwerty", "asdf", "rhvadio",
+            "radio", "tvmaster"};
+        for (String wordToAdd : words) {
+            instance.add(new Tuple(wordToAdd));
+        }
+        Iterator<String> iterator = instance.words().iterator();
+        instance.add(new Tuple("qwertyujkl"));
+        iterator.next();
+    }
+
+    /**
+     * Test that tuples with zero weight are not stored and upsert with zero
+     * weight deletes term.
+     */
+    @Test
+    public void testZeroWeight() {
+        System.out.println("test zero weight");
+        RadixTrie instance = new RadixTrie();
+        instance.add(new Tuple(""));
+        instance.add(new Tuple(""));
+        assertEquals(0, instance.size());
+        assertFalse(instance.contains(""));
+        assertEquals(0, instance.putIfAbsent(new Tuple("abc", 0)));
+        assertEquals(0, instance.size());
+        instance.add(new Tuple("abc"));
+        assertEquals(3, instance.upsert(new Tuple("abc", 0)));
+        assertEquals(0, instance.size());
+        assertFalse(instance.contains("abc"));
+        assertFalse(instance.words().iterator().hasNext());
+    }
+}
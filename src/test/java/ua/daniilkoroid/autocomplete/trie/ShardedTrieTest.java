@@ -0,0 +1,228 @@
+package ua.daniilkoroid.autocomplete.trie;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static ua.daniilkoroid.autocomplete.trie.Iterables.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author Daniil_Koroid
+ */
+public class ShardedTrieTest {
+
+    private static final String[] WORDS = new String[]{"word", "words", "wordsmith", "qwerty", "asdf",
+        "rhvadio", "radio", "tvmaster", "quick", "abcdefghij", "walking", "talking", "talk", "walk"};
+
+    /**
+     * Test of add, contains, weight and delete methods, of class ShardedTrie.
+     */
+    @Test
+    public void testAddContainsDelete() {
+        System.out.println("test add contains delete");
+        ShardedTrie instance = new ShardedTrie(4);
+        for (int i = 0; i < WORDS.length; i++) {
+            instance.add(new Tuple(WORDS[i], i + 1));
+        }
+        instance.add(new Tuple("word", 100));
+        assertEquals(WORDS.length, instance.size());
+        assertTrue(instance.contains("words"));
+        assertFalse(instance.contains("wor"));
+        assertEquals(1, instance.weight("word"));
+        assertEquals(1, instance.upsert(new Tuple("word", 50)));
+        assertEquals(50, instance.weight("word"));
+        assertEquals(52, instance.addWeight("word", 2));
+        assertTrue(instance.delete("word"));
+        assertFalse(instance.delete("word"));
+        assertEquals(WORDS.length - 1, instance.size());
+        int sum = 0;
+        for (int shard = 0; shard < instance.shardCount(); shard++) {
+            sum += instance.shardSize(shard);
+        }
+        assertEquals(instance.size(), sum);
+    }
+
+    /**
+     * Test that words are returned in the same order as by RWayTrie, both
+     * from one shard and merged from all shards.
+     */
+    @Test
+    public void testWordsOrderMatchesRWayTrie() {
+        System.out.println("test words order matches RWayTrie");
+        Random random = new Random(42);
+        ShardedTrie instance = new ShardedTrie(5, 2, CompactTrie::new);
+        RWayTrie expected = new RWayTrie();
+        List<Tuple> tuples = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            char[] chars = new char[1 + random.nextInt(6)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(4));
+            }
+            tuples.add(new Tuple(new String(chars), i + 1));
+        }
+        instance.addAll(tuples);
+        expected.addAll(tuples);
+        assertEquals(expected.size(), instance.size());
+        assertEquals(toList(expected.words()), toList(instance.words()));
+        for (String prefix : new String[]{"a", "b", "ab", "abc", "dd", "abcdefg"}) {
+            assertEquals(toList(expected.wordsWithPrefix(prefix)), toList(instance.wordsWithPrefix(prefix)));
+            assertEquals(toList(expected.topK(prefix, 10)), toList(instance.topK(prefix, 10)));
+            assertEquals(toList(expected.wordsWithPrefix(prefix, 2)), toList(instance.wordsWithPrefix(prefix, 2)));
+        }
+        assertEquals(toList(expected.wordsWithPrefix("", 3)), toList(instance.wordsWithPrefix("", 3)));
+        CompactTrie single = new CompactTrie();
+        single.addAll(tuples);
+        for (String prefix : new String[]{"ab", "dab", "abcd"}) {
+            for (int limit : new int[]{1, 5, 40}) {
+                assertEquals(toList(single.wordsWithFuzzyPrefix(prefix, 1, limit)),
+                        toList(instance.wordsWithFuzzyPrefix(prefix, 1, limit)));
+            }
+        }
+    }
+
+    /**
+     * Test that prefix of route length is searched in its shard only.
+     */
+    @Test
+    public void testLongPrefixGoesToOneShard() {
+        System.out.println("test long prefix goes to one shard");
+        ShardedTrie instance = new ShardedTrie(3);
+        for (String word : WORDS) {
+            instance.add(new Tuple(word));
+        }
+        Iterator<String> words = instance.wordsWithPrefix("w").iterator();
+        assertEquals("walk", words.next());
+        assertTrue(instance.shardOf("c") != instance.shardOf("w"));
+        instance.add(new Tuple("czzz"));
+        assertEquals("word", words.next());
+        instance.add(new Tuple("wzzz"));
+        try {
+            words.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            assertTrue(instance.contains("wzzz"));
+        }
+    }
+
+    /**
+     * Test of wordsWithFuzzyPrefix method, of class ShardedTrie.
+     */
+    @Test
+    public void testWordsWithFuzzyPrefix() {
+        System.out.println("test wordsWithFuzzyPrefix");
+        ShardedTrie instance = new ShardedTrie(4);
+        for (String word : WORDS) {
+            instance.add(new Tuple(word));
+        }
+        assertEquals(Arrays.asList("talk", "talking", "walk"), toList(instance.wordsWithFuzzyPrefix("talk", 1, 3)));
+        assertEquals(Arrays.asList("radio", "rhvadio"), toList(instance.wordsWithFuzzyPrefix("radio", 2, 5)));
+    }
+
+    /**
+     * Test of reload and rebuild methods, of class ShardedTrie.
+     */
+    @Test
+    public void testReloadAndRebuild() {
+        System.out.println("test reload and rebuild");
+        ShardedTrie instance = new ShardedTrie(4);
+        for (String word : WORDS) {
+            instance.add(new Tuple(word));
+        }
+        int shard = instance.shardOf("walk");
+        List<Tuple> tuples = new ArrayList<>();
+        int kept = 0;
+        for (String word : WORDS) {
+            if (instance.shardOf(word) != shard) {
+                kept++;
+            }
+        }
+        for (String word : new String[]{"water", "wave"}) {
+            tuples.add(new Tuple(word, 7));
+        }
+        instance.reload(shard, tuples);
+        assertEquals(kept + 2, instance.size());
+        assertEquals(7, instance.weight("water"));
+        assertFalse(instance.contains("walk"));
+        instance.delete("wave");
+        instance.rebuild(shard);
+        assertEquals(kept + 1, instance.size());
+        assertEquals(Arrays.asList("water"), toList(instance.wordsWithPrefix("wa")));
+        assertEquals(7, instance.weight("water"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReloadRejectsWordOfAnotherShard() {
+        ShardedTrie instance = new ShardedTrie(2);
+        String word = "a";
+        if (instance.shardOf(word) == 0) {
+            word = "b";
+        }
+        instance.reload(0, Arrays.asList(new Tuple(word)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShardCountMustBePositive() {
+        new ShardedTrie(0);
+    }
+
+    /**
+     * Test that concurrent writers and rebuilds do not lose words.
+     */
+    @Test
+    public void testConcurrentWritersAndRebuilds() throws Exception {
+        System.out.println("test concurrent writers and rebuilds");
+        ShardedTrie instance = new ShardedTrie(4);
+        int threads = 4;
+        int wordsPerThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < wordsPerThread; i++) {
+                    String word = (char) ('a' + thread) + word(i);
+                    instance.add(new Tuple(word));
+                    if (i % 2 == 1) {
+                        instance.delete(word);
+                    }
+                }
+            }));
+        }
+        futures.add(executor.submit(() -> {
+            for (int i = 0; i < 50; i++) {
+                instance.rebuild(i % instance.shardCount());
+            }
+        }));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        assertEquals(threads * wordsPerThread / 2, instance.size());
+        assertEquals(instance.size(), toList(instance.words()).size());
+    }
+
+    private static String word(int number) {
+        StringBuilder result = new StringBuilder();
+        int rest = number;
+        do {
+            result.append((char) ('a' + rest % 26));
+            rest /= 26;
+        } while (rest > 0);
+        return result.toString();
+    }
+}